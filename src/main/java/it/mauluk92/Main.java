@@ -1,7 +1,41 @@
 package it.mauluk92;
 
+import it.mauluk92.jdbc.load.WorkloadConfig;
+import it.mauluk92.jdbc.load.WorkloadRunner;
+import it.mauluk92.jdbc.load.WorkloadSummary;
+
+import java.nio.file.Files;
+
+/**
+ * Runs a JDBC workload from the command line, see {@link WorkloadConfig#parse(String...)} for the arguments.
+ * Progress lines are printed on the standard error, so that the summary, written on the standard output
+ * unless an output file is given, can be redirected alone:
+ * <pre>
+ * mvn compile exec:exec -Pload -Dload.args="--threads=8 --read-ratio=0.5 --duration=1m --format=csv"
+ * </pre>
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello world!");
+
+    private static final String USAGE = "Arguments, all optional: --url=<jdbc url> --user=<user> --password=<password>"
+            + " --threads=<n> --read-ratio=<0..1> --batch-size=<n> --transaction-size=<n> --rows=<n> --seed=<n>"
+            + " --duration=<n>ms|s|m --interval=<n>ms|s|m --format=json|csv --output=<file>";
+
+    public static void main(String[] args) throws Exception {
+        WorkloadConfig config;
+        try {
+            config = WorkloadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        WorkloadSummary summary = new WorkloadRunner(config).run(System.err);
+        String formatted = summary.format(config.getFormat());
+        if (config.getOutput() == null) {
+            System.out.print(formatted);
+        } else {
+            Files.writeString(config.getOutput(), formatted);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package it.mauluk92.jdbc.batch;
+
+import java.sql.SQLException;
+
+/**
+ * An item a {@link BatchWriter} could not write
+ *
+ * @param <T> type of the written items
+ */
+public class BatchFailure<T> {
+
+    private final T item;
+    private final long index;
+    private final boolean executed;
+    private final SQLException cause;
+
+    BatchFailure(T item, long index, boolean executed, SQLException cause) {
+        this.item = item;
+        this.index = index;
+        this.executed = executed;
+        this.cause = cause;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    /**
+     * Position of the item among all the items added to the writer, starting from 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Whether the driver tried to execute the statement for this item. Drivers that stop at the first
+     * failing statement of a batch leave the following ones unexecuted: those can simply be written again
+     */
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    public SQLException getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchFailure{index=" + index + ", executed=" + executed + ", item=" + item + ", cause=" + cause.getMessage() + '}';
+    }
+}
@@ -0,0 +1,174 @@
+package it.mauluk92.jdbc.batch;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class writes items through a single {@link PreparedStatement}, grouping them with
+ * {@code addBatch} and sending each group to the DBMS with one {@code executeBatch} call.
+ * A batch is flushed when it reaches the configured size, or when its oldest item has waited
+ * longer than the flush interval. The interval is checked whenever an item is added or
+ * {@link #flushIfDue()} is called: a writer is bound to a connection, which is not thread safe,
+ * so no background thread flushes on its behalf.
+ * Items rejected by the DBMS do not stop the writer, they are collected and can be read with {@link #getFailures()}
+ *
+ * @param <T> type of the written items
+ */
+public class BatchWriter<T> implements AutoCloseable {
+
+    private final Connection conn;
+    private final PreparedStatement stmt;
+    private final ParameterBinder<T> binder;
+    private final BatchWriterConfig config;
+    private final List<T> pending;
+    private final List<BatchFailure<T>> failures = new ArrayList<>();
+    private long firstPendingNanos;
+    private long added;
+    private long written;
+    private long batches;
+
+    public BatchWriter(Connection conn, String sql, ParameterBinder<T> binder, BatchWriterConfig config) throws SQLException {
+        this.conn = conn;
+        this.stmt = conn.prepareStatement(sql);
+        this.binder = binder;
+        this.config = config;
+        this.pending = new ArrayList<>(config.getBatchSize());
+    }
+
+    /**
+     * Adds an item to the current batch, flushing the batch if it is full or due
+     */
+    public void add(T item) throws SQLException {
+        binder.bind(stmt, item);
+        stmt.addBatch();
+        if (pending.isEmpty()) {
+            firstPendingNanos = System.nanoTime();
+        }
+        pending.add(item);
+        added++;
+        if (pending.size() >= config.getBatchSize()) {
+            flush();
+        } else {
+            flushIfDue();
+        }
+    }
+
+    /**
+     * Flushes the current batch if its oldest item has waited longer than the flush interval
+     */
+    public void flushIfDue() throws SQLException {
+        if (!pending.isEmpty() && System.nanoTime() - firstPendingNanos >= config.getFlushInterval().toNanos()) {
+            flush();
+        }
+    }
+
+    /**
+     * Sends the current batch to the DBMS. Items rejected by the DBMS are recorded as failures.
+     * When the batch fails as a whole, for instance because the connection is closed or the statement timed out,
+     * every item of the batch is recorded as a failure, marked as executed since the DBMS may have applied part
+     * of it, and the exception is thrown
+     *
+     * @return the number of items of the batch that were written
+     */
+    public int flush() throws SQLException {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        long firstIndex = added - pending.size();
+        int succeeded;
+        try {
+            int[] counts = stmt.executeBatch();
+            succeeded = pending.size();
+            for (int count : counts) {
+                if (count == Statement.EXECUTE_FAILED) {
+                    succeeded--;
+                }
+            }
+        } catch (BatchUpdateException e) {
+            succeeded = recordFailures(e, firstIndex);
+        } catch (SQLException e) {
+            // the batch failed as a whole, without telling which of its statements were applied
+            for (int i = 0; i < pending.size(); i++) {
+                failures.add(new BatchFailure<>(pending.get(i), firstIndex + i, true, e));
+            }
+            try {
+                stmt.clearBatch();
+            } catch (SQLException clearFailure) {
+                e.addSuppressed(clearFailure);
+            }
+            batches++;
+            throw e;
+        } finally {
+            pending.clear();
+        }
+        batches++;
+        written += succeeded;
+        if (config.isCommitEachBatch() && !conn.getAutoCommit()) {
+            conn.commit();
+        }
+        return succeeded;
+    }
+
+    /**
+     * Maps the update counts of a failed batch back to the items that produced them.
+     * The chained exceptions, when the driver provides one per failed statement, are matched in order
+     */
+    private int recordFailures(BatchUpdateException e, long firstIndex) {
+        int[] counts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+        SQLException cause = e.getNextException() == null ? e : e.getNextException();
+        int succeeded = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            if (i >= counts.length) {
+                failures.add(new BatchFailure<>(pending.get(i), firstIndex + i, false, e));
+            } else if (counts[i] == Statement.EXECUTE_FAILED) {
+                failures.add(new BatchFailure<>(pending.get(i), firstIndex + i, true, cause));
+                if (cause.getNextException() != null) {
+                    cause = cause.getNextException();
+                }
+            } else {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    public List<BatchFailure<T>> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Number of items written successfully so far
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Number of batches sent to the DBMS so far
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Flushes the last batch and closes the underlying statement
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            flush();
+        } finally {
+            stmt.close();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package it.mauluk92.jdbc.batch;
+
+import java.time.Duration;
+
+/**
+ * This class holds the settings of a {@link BatchWriter}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class BatchWriterConfig {
+
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private boolean commitEachBatch = false;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Number of pending items that triggers a flush
+     */
+    public BatchWriterConfig setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Maximum time an item waits in a batch before the batch is flushed
+     */
+    public BatchWriterConfig setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    public boolean isCommitEachBatch() {
+        return commitEachBatch;
+    }
+
+    /**
+     * When enabled, and the connection is not in auto-commit mode, every executed batch is committed
+     * as its own transaction. Otherwise committing is left to the owner of the connection
+     */
+    public BatchWriterConfig setCommitEachBatch(boolean commitEachBatch) {
+        this.commitEachBatch = commitEachBatch;
+        return this;
+    }
+}
@@ -0,0 +1,46 @@
+package it.mauluk92.jdbc.batch;
+
+import java.time.Duration;
+
+/**
+ * This class holds the settings of a {@link GroupCommitWriter}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class GroupCommitConfig {
+
+    private int maxGroupSize = 1_000;
+    private Duration linger = Duration.ZERO;
+
+    public int getMaxGroupSize() {
+        return maxGroupSize;
+    }
+
+    /**
+     * Maximum number of writes committed together
+     */
+    public GroupCommitConfig setMaxGroupSize(int maxGroupSize) {
+        if (maxGroupSize < 1) {
+            throw new IllegalArgumentException("maxGroupSize must be at least 1");
+        }
+        this.maxGroupSize = maxGroupSize;
+        return this;
+    }
+
+    public Duration getLinger() {
+        return linger;
+    }
+
+    /**
+     * Time the writer waits for more writes once it has the first one of a group, unless the group is full.
+     * With no linger groups are still formed under load, by the writes submitted while the previous group commits;
+     * a linger makes groups larger when producers are few, at the cost of a longer wait for each write
+     */
+    public GroupCommitConfig setLinger(Duration linger) {
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("linger must not be negative");
+        }
+        this.linger = linger;
+        return this;
+    }
+}
@@ -0,0 +1,254 @@
+package it.mauluk92.jdbc.batch;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class commits the writes of many threads together, on a single connection owned by a writer thread.
+ * Producers submit a statement with its parameters and get a {@link CompletableFuture} at once; the write is
+ * queued in a lock-free queue, that only the writer thread drains. The writer takes the queued writes as a group,
+ * runs consecutive writes of the same SQL as one JDBC batch, and commits the group in one transaction:
+ * the futures are completed with their update counts once the commit succeeded, and all of them are failed
+ * with the same exception if any write of the group fails, since the whole transaction is then rolled back.
+ * Writes are run in the order they were submitted. A thread waiting on its future pays one commit shared
+ * by the whole group, instead of one commit per transaction.
+ * The writer thread parks when the queue is empty, producers wake it only when it is parked.
+ * Statements are prepared once per distinct SQL and kept until the writer is closed, so writes should use
+ * a few parameterized statements. Callbacks attached to the futures without an executor run on the writer
+ * thread, and delay the next group
+ */
+public class GroupCommitWriter implements AutoCloseable {
+
+    private static final AtomicInteger WRITERS = new AtomicInteger();
+
+    private final Connection conn;
+    private final GroupCommitConfig config;
+    private final Queue<Write> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Thread writer;
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean parked;
+    private volatile boolean closed;
+
+    /**
+     * Starts the writer thread
+     *
+     * @param conn connection used only by the writer thread from now on, taken out of auto-commit mode
+     */
+    public GroupCommitWriter(Connection conn, GroupCommitConfig config) throws SQLException {
+        this.conn = conn;
+        this.config = config;
+        conn.setAutoCommit(false);
+        this.writer = new Thread(this::run, "group-commit-writer-" + WRITERS.incrementAndGet());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a write
+     *
+     * @return a future completed with the update count of the statement once its group is committed,
+     * or failed with the exception that rolled the group back
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Integer> submit(String sql, Object... params) {
+        if (closed) {
+            throw new IllegalStateException("Group commit writer is closed");
+        }
+        Write write = new Write(sql, params);
+        queue.offer(write);
+        if (parked) {
+            LockSupport.unpark(writer);
+        }
+        if (closed && !writer.isAlive()) {
+            // queued after the writer drained the queue for the last time
+            rejectQueued();
+        }
+        return write.result;
+    }
+
+    /**
+     * Number of transactions committed so far
+     */
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    /**
+     * Number of writes committed so far
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Number of writes failed because their group was rolled back
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops accepting writes, waits for the queued ones to be committed and closes the statements.
+     * The connection is left open. When the calling thread is interrupted it stops waiting, with its interrupt
+     * status set, while the writer thread goes on committing the queued writes
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        rejectQueued();
+    }
+
+    private void rejectQueued() {
+        Write write;
+        while ((write = queue.poll()) != null) {
+            write.result.completeExceptionally(new IllegalStateException("Group commit writer is closed"));
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Write first = queue.poll();
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    park(0);
+                    continue;
+                }
+                commit(group(first));
+            }
+        } finally {
+            for (PreparedStatement stmt : statements.values()) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    // the statements are not used anymore
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the writes following the first one, until the group is full or the linger is over
+     */
+    private List<Write> group(Write first) {
+        List<Write> group = new ArrayList<>();
+        group.add(first);
+        long deadline = System.nanoTime() + config.getLinger().toNanos();
+        while (group.size() < config.getMaxGroupSize()) {
+            Write next = queue.poll();
+            if (next != null) {
+                group.add(next);
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                break;
+            }
+            park(remaining);
+        }
+        return group;
+    }
+
+    /**
+     * Parks the writer thread, unless a write was queued in the meantime. Producers read the flag
+     * after queueing, so either the writer sees the write or the producer sees the flag
+     */
+    private void park(long nanos) {
+        parked = true;
+        if (queue.isEmpty() && !closed) {
+            if (nanos > 0) {
+                LockSupport.parkNanos(this, nanos);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        parked = false;
+    }
+
+    private void commit(List<Write> group) {
+        int[] counts = new int[group.size()];
+        try {
+            int start = 0;
+            while (start < group.size()) {
+                String sql = group.get(start).sql;
+                int end = start;
+                PreparedStatement stmt = statement(sql);
+                while (end < group.size() && group.get(end).sql.equals(sql)) {
+                    Object[] params = group.get(end).params;
+                    for (int i = 0; i < params.length; i++) {
+                        stmt.setObject(i + 1, params[i]);
+                    }
+                    stmt.addBatch();
+                    end++;
+                }
+                System.arraycopy(stmt.executeBatch(), 0, counts, start, end - start);
+                start = end;
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            for (PreparedStatement stmt : statements.values()) {
+                try {
+                    stmt.clearBatch();
+                } catch (SQLException clearFailure) {
+                    e.addSuppressed(clearFailure);
+                }
+            }
+            failed.add(group.size());
+            group.forEach(write -> write.result.completeExceptionally(e));
+            return;
+        }
+        commits.increment();
+        written.add(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).result.complete(counts[i]);
+        }
+    }
+
+    private PreparedStatement statement(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = conn.prepareStatement(sql);
+            statements.put(sql, stmt);
+        }
+        return stmt;
+    }
+
+    private static final class Write {
+        private final String sql;
+        private final Object[] params;
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        private Write(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package it.mauluk92.jdbc.batch;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets the parameters of a {@link PreparedStatement} from the values of an item
+ *
+ * @param <T> type of the bound items
+ */
+@FunctionalInterface
+public interface ParameterBinder<T> {
+
+    void bind(PreparedStatement stmt, T item) throws SQLException;
+}
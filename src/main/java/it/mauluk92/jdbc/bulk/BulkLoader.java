@@ -0,0 +1,226 @@
+package it.mauluk92.jdbc.bulk;
+
+import it.mauluk92.jdbc.batch.BatchWriter;
+import it.mauluk92.jdbc.batch.BatchWriterConfig;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class inserts large numbers of rows into a table, far faster than one {@code INSERT} per row:
+ * rows from an iterator go through JDBC batches or multi row {@code INSERT} statements, see {@link LoadStrategy},
+ * and CSV files are read by H2 itself through {@code CSVREAD}.
+ * Auto-commit is disabled during the load, unless configured otherwise, and the rows are committed periodically
+ * and at the end. A failed load leaves the rows of the periodic commits already made in the table,
+ * and rolls back the others.
+ * The loader only owns the transaction it started by disabling auto-commit: on a connection already in a
+ * transaction the rows are written as part of it, and committing or rolling back is left to the caller,
+ * who also decides what to do with the rows of a failed load.
+ * Table and column names are inserted in the SQL as they are, they must not come from untrusted input
+ */
+public class BulkLoader {
+
+    private final Connection conn;
+    private final BulkLoaderConfig config;
+
+    public BulkLoader(Connection conn, BulkLoaderConfig config) {
+        this.conn = conn;
+        this.config = config;
+    }
+
+    /**
+     * Inserts the rows given by an iterator, each row holding the values of the columns, in their order
+     */
+    public LoadReport load(String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+        LoadStrategy strategy = config.getStrategy();
+        Iterator<Object[]> source;
+        if (strategy == null) {
+            // the volume is unknown until the rows are read: read up to the threshold to find out
+            List<Object[]> head = new ArrayList<>();
+            while (head.size() < config.getMultiRowThreshold() && rows.hasNext()) {
+                head.add(rows.next());
+            }
+            strategy = rows.hasNext() ? LoadStrategy.MULTI_ROW_VALUES : LoadStrategy.PREPARED_BATCH;
+            source = concat(head.iterator(), rows);
+        } else {
+            source = rows;
+        }
+        Load load = new Load(strategy);
+        return load.run(strategy == LoadStrategy.MULTI_ROW_VALUES
+                ? () -> loadMultiRow(load, table, columns, source)
+                : () -> loadBatches(load, table, columns, source));
+    }
+
+    /**
+     * Inserts the rows of a CSV file, in UTF-8, whose header names the columns
+     */
+    public LoadReport loadCsv(String table, List<String> columns, Path file) throws SQLException {
+        Load load = new Load(LoadStrategy.CSVREAD);
+        String names = String.join(", ", columns);
+        // H2 reads the header of the file when the statement is prepared, so the name cannot be a parameter
+        String fileName = file.toAbsolutePath().toString().replace("'", "''");
+        return load.run(() -> {
+            try (Statement stmt = conn.createStatement()) {
+                load.written(stmt.executeUpdate("INSERT INTO " + table + "(" + names + ") SELECT " + names
+                        + " FROM CSVREAD('" + fileName + "', NULL, 'charset=UTF-8')"), 1);
+            }
+        });
+    }
+
+    private void loadBatches(Load load, String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+        BatchWriterConfig writerConfig = new BatchWriterConfig().setBatchSize(config.getBatchSize());
+        try (BatchWriter<Object[]> writer = new BatchWriter<>(conn, insert(table, columns, 1), (stmt, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                stmt.setObject(i + 1, row[i]);
+            }
+        }, writerConfig)) {
+            long batches = 0;
+            long written = 0;
+            while (rows.hasNext()) {
+                writer.add(rows.next());
+                if (writer.getBatches() > batches) {
+                    checkFailures(writer);
+                    load.written(writer.getWritten() - written, writer.getBatches() - batches);
+                    batches = writer.getBatches();
+                    written = writer.getWritten();
+                }
+            }
+            writer.flush();
+            checkFailures(writer);
+            load.written(writer.getWritten() - written, writer.getBatches() - batches);
+        }
+    }
+
+    private static void checkFailures(BatchWriter<Object[]> writer) throws SQLException {
+        if (!writer.getFailures().isEmpty()) {
+            throw writer.getFailures().get(0).getCause();
+        }
+    }
+
+    private void loadMultiRow(Load load, String table, List<String> columns, Iterator<Object[]> rows) throws SQLException {
+        int perStatement = config.getRowsPerStatement();
+        int width = columns.size();
+        try (PreparedStatement full = conn.prepareStatement(insert(table, columns, perStatement))) {
+            Object[][] group = new Object[perStatement][];
+            int size = 0;
+            while (rows.hasNext()) {
+                group[size++] = rows.next();
+                if (size == perStatement) {
+                    bind(full, group, size, width);
+                    load.written(full.executeUpdate(), 1);
+                    size = 0;
+                }
+            }
+            if (size > 0) {
+                try (PreparedStatement last = conn.prepareStatement(insert(table, columns, size))) {
+                    bind(last, group, size, width);
+                    load.written(last.executeUpdate(), 1);
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, Object[][] group, int size, int width) throws SQLException {
+        int index = 1;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < width; column++) {
+                stmt.setObject(index++, group[row][column]);
+            }
+        }
+    }
+
+    private static String insert(String table, List<String> columns, int rows) {
+        String values = "(?" + ", ?".repeat(columns.size() - 1) + ")";
+        return "INSERT INTO " + table + "(" + String.join(", ", columns) + ") VALUES "
+                + values + (", " + values).repeat(rows - 1);
+    }
+
+    private static <T> Iterator<T> concat(Iterator<T> first, Iterator<T> second) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || second.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (first.hasNext()) {
+                    return first.next();
+                }
+                if (second.hasNext()) {
+                    return second.next();
+                }
+                throw new NoSuchElementException();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface LoadBody {
+        void run() throws SQLException;
+    }
+
+    /**
+     * The counters and the transaction of one load
+     */
+    private final class Load {
+
+        private final LoadStrategy strategy;
+        private long rows;
+        private long statements;
+        private long commits;
+        private long uncommitted;
+        /**
+         * Whether the loader disabled auto-commit itself, and so commits and rolls back the transaction
+         */
+        private boolean owned;
+
+        private Load(LoadStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        private LoadReport run(LoadBody body) throws SQLException {
+            long start = System.nanoTime();
+            owned = conn.getAutoCommit() && config.isDisableAutoCommit();
+            if (!owned) {
+                body.run();
+                return new LoadReport(strategy, rows, statements, commits, System.nanoTime() - start);
+            }
+            conn.setAutoCommit(false);
+            try {
+                body.run();
+                if (uncommitted > 0) {
+                    commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            return new LoadReport(strategy, rows, statements, commits, System.nanoTime() - start);
+        }
+
+        private void written(long rows, long statements) throws SQLException {
+            this.rows += rows;
+            this.statements += statements;
+            uncommitted += rows;
+            if (owned && config.getCommitEvery() > 0 && uncommitted >= config.getCommitEvery()) {
+                commit();
+            }
+        }
+
+        private void commit() throws SQLException {
+            conn.commit();
+            commits++;
+            uncommitted = 0;
+        }
+    }
+}
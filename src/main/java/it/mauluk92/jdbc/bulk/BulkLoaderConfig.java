@@ -0,0 +1,102 @@
+package it.mauluk92.jdbc.bulk;
+
+/**
+ * This class holds the settings of a {@link BulkLoader}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class BulkLoaderConfig {
+
+    private LoadStrategy strategy;
+    private int multiRowThreshold = 10_000;
+    private int rowsPerStatement = 1_000;
+    private int batchSize = 500;
+    private long commitEvery = 100_000;
+    private boolean disableAutoCommit = true;
+
+    public LoadStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Strategy used for rows read from an iterator. When {@code null}, the default, it is chosen by volume:
+     * {@link LoadStrategy#PREPARED_BATCH} below the multi row threshold, {@link LoadStrategy#MULTI_ROW_VALUES} above
+     */
+    public BulkLoaderConfig setStrategy(LoadStrategy strategy) {
+        if (strategy == LoadStrategy.CSVREAD) {
+            throw new IllegalArgumentException("CSVREAD can only load files");
+        }
+        this.strategy = strategy;
+        return this;
+    }
+
+    public int getMultiRowThreshold() {
+        return multiRowThreshold;
+    }
+
+    /**
+     * Number of rows from which multi row statements are used, when no strategy is set
+     */
+    public BulkLoaderConfig setMultiRowThreshold(int multiRowThreshold) {
+        this.multiRowThreshold = multiRowThreshold;
+        return this;
+    }
+
+    public int getRowsPerStatement() {
+        return rowsPerStatement;
+    }
+
+    /**
+     * Number of rows of each multi row {@code INSERT}
+     */
+    public BulkLoaderConfig setRowsPerStatement(int rowsPerStatement) {
+        if (rowsPerStatement < 1) {
+            throw new IllegalArgumentException("rowsPerStatement must be at least 1");
+        }
+        this.rowsPerStatement = rowsPerStatement;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Number of rows of each JDBC batch, with {@link LoadStrategy#PREPARED_BATCH}
+     */
+    public BulkLoaderConfig setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getCommitEvery() {
+        return commitEvery;
+    }
+
+    /**
+     * Number of rows after which the transaction is committed, so that a long load does not keep
+     * every row in one transaction; zero to commit once, at the end.
+     * Rows are committed by whole batches or statements, so commits may come slightly later.
+     * Ignored when auto-commit is kept, and when the connection is already in a transaction of the caller
+     */
+    public BulkLoaderConfig setCommitEvery(long commitEvery) {
+        this.commitEvery = commitEvery;
+        return this;
+    }
+
+    public boolean isDisableAutoCommit() {
+        return disableAutoCommit;
+    }
+
+    /**
+     * When enabled, the default, auto-commit is disabled for the duration of the load and restored afterwards,
+     * otherwise every batch or statement is committed on its own if the connection is in auto-commit mode
+     */
+    public BulkLoaderConfig setDisableAutoCommit(boolean disableAutoCommit) {
+        this.disableAutoCommit = disableAutoCommit;
+        return this;
+    }
+}
@@ -0,0 +1,62 @@
+package it.mauluk92.jdbc.bulk;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a load run by a {@link BulkLoader}
+ */
+public class LoadReport {
+
+    private final LoadStrategy strategy;
+    private final long rows;
+    private final long statements;
+    private final long commits;
+    private final long elapsedNanos;
+
+    LoadReport(LoadStrategy strategy, long rows, long statements, long commits, long elapsedNanos) {
+        this.strategy = strategy;
+        this.rows = rows;
+        this.statements = statements;
+        this.commits = commits;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LoadStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Number of rows inserted
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Number of statement executions or batches sent to the DBMS
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * Number of commits issued by the loader
+     */
+    public long getCommits() {
+        return commits;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LoadReport{strategy=%s, rows=%d, statements=%d, commits=%d, elapsed=%d ms, %.0f rows/s}",
+                strategy, rows, statements, commits, elapsedNanos / 1_000_000, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,25 @@
+package it.mauluk92.jdbc.bulk;
+
+/**
+ * The ways a {@link BulkLoader} can send rows to the DBMS
+ */
+public enum LoadStrategy {
+
+    /**
+     * One {@code INSERT} per row, sent in JDBC batches through a single prepared statement.
+     * It has the lowest setup cost, and suits small loads
+     */
+    PREPARED_BATCH,
+
+    /**
+     * One {@code INSERT ... VALUES (...), (...), ...} per group of rows, each group a single statement execution.
+     * The DBMS parses and plans once per group instead of once per row, which pays off on large loads
+     */
+    MULTI_ROW_VALUES,
+
+    /**
+     * A single {@code INSERT ... SELECT FROM CSVREAD(...)}: H2 reads the file itself,
+     * and no row crosses the JDBC API
+     */
+    CSVREAD
+}
@@ -0,0 +1,201 @@
+package it.mauluk92.jdbc.cache;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * This class caches the mapped rows of queries, keyed by their SQL, their parameters and the class of their mapper.
+ * Entries are read and filled through a {@link QuerySession}, which also reports the tables changed by the
+ * transactions it commits: every entry reading one of them is discarded, so that the next execution of the
+ * query sees the committed rows.
+ * The cache is bounded by the number of rows it holds, evicting the least recently used entries first,
+ * and by the age of its entries. It can be shared by the sessions of many connections and threads.
+ * Each table has a version, increased at every invalidation: a query whose tables changed while it was
+ * executed does not store its rows, which could already be stale
+ */
+public class QueryCache {
+
+    private final QueryCacheConfig config;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    private final Map<String, Long> versions = new HashMap<>();
+    private long epoch;
+    private long weight;
+    private long hits;
+    private long misses;
+    private long bypasses;
+    private long evictions;
+    private long invalidations;
+
+    public QueryCache(QueryCacheConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    QueryCache(QueryCacheConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+    }
+
+    /**
+     * Creates a session reading and writing through the given connection
+     */
+    public QuerySession session(Connection conn) {
+        return new QuerySession(this, conn);
+    }
+
+    public synchronized QueryCacheStats getStats() {
+        return new QueryCacheStats(hits, misses, bypasses, evictions, invalidations, entries.size(), weight);
+    }
+
+    /**
+     * Discards every entry
+     */
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+        keysByTable.clear();
+        epoch++;
+        weight = 0;
+    }
+
+    synchronized List<?> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && clock.getAsLong() - entry.expiresAt >= 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.rows;
+    }
+
+    synchronized void bypassed() {
+        bypasses++;
+    }
+
+    synchronized long version(Set<String> tables) {
+        long version = epoch;
+        for (String table : tables) {
+            version += versions.getOrDefault(table, 0L);
+        }
+        return version;
+    }
+
+    /**
+     * Stores the rows of a query, unless one of its tables changed since {@code version} was taken
+     */
+    synchronized void put(Key key, Set<String> tables, long version, List<?> rows) {
+        long rowsWeight = Math.max(1, rows.size());
+        if (rowsWeight > config.getMaxWeight() || version(tables) != version) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(rows, tables, rowsWeight, clock.getAsLong() + config.getTimeToLive().toNanos()));
+        for (String table : tables) {
+            keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+        weight += rowsWeight;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > config.getMaxWeight()) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            forget(evicted.getKey(), evicted.getValue());
+            evictions++;
+        }
+    }
+
+    /**
+     * Discards every entry reading one of the given tables
+     */
+    synchronized void invalidate(Collection<String> tables) {
+        for (String table : tables) {
+            versions.merge(table, 1L, Long::sum);
+            Set<Key> keys = keysByTable.remove(table);
+            if (keys != null) {
+                for (Key key : keys) {
+                    if (remove(key)) {
+                        invalidations++;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        forget(key, entry);
+        return true;
+    }
+
+    private void forget(Key key, Entry entry) {
+        weight -= entry.weight;
+        for (String table : entry.tables) {
+            Set<Key> keys = keysByTable.get(table);
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Identifies cached rows by their query, parameters and mapper instance.
+     * Lambdas created at the same place share a class but may capture different values,
+     * so mappers are compared by identity rather than by class
+     */
+    static final class Key {
+        private final String sql;
+        private final List<Object> params;
+        private final Object mapper;
+
+        Key(String sql, Object[] params, Object mapper) {
+            this.sql = sql;
+            this.params = Arrays.asList(params.clone());
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return sql.equals(other.sql) && params.equals(other.params) && mapper == other.mapper;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, params, System.identityHashCode(mapper));
+        }
+    }
+
+    private static final class Entry {
+        private final List<?> rows;
+        private final Set<String> tables;
+        private final long weight;
+        private final long expiresAt;
+
+        private Entry(List<?> rows, Set<String> tables, long weight, long expiresAt) {
+            this.rows = rows;
+            this.tables = tables;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package it.mauluk92.jdbc.cache;
+
+import java.time.Duration;
+
+/**
+ * This class holds the settings of a {@link QueryCache}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class QueryCacheConfig {
+
+    private long maxWeight = 100_000;
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Maximum number of rows held by the cache, over all its entries.
+     * Least recently used entries are evicted to make room for new ones
+     */
+    public QueryCacheConfig setMaxWeight(long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be at least 1");
+        }
+        this.maxWeight = maxWeight;
+        return this;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Time after which an entry is discarded, even if none of its tables changed through the cache.
+     * It bounds the staleness of results when tables are also written by other means
+     */
+    public QueryCacheConfig setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+        return this;
+    }
+}
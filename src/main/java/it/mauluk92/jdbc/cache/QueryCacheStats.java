@@ -0,0 +1,86 @@
+package it.mauluk92.jdbc.cache;
+
+/**
+ * An immutable snapshot of the counters kept by a {@link QueryCache}
+ */
+public class QueryCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long bypasses;
+    private final long evictions;
+    private final long invalidations;
+    private final int size;
+    private final long weight;
+
+    QueryCacheStats(long hits, long misses, long bypasses, long evictions, long invalidations, int size, long weight) {
+        this.hits = hits;
+        this.misses = misses;
+        this.bypasses = bypasses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    /**
+     * Number of queries answered from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Number of cacheable queries executed by the DBMS, because not cached or expired
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of queries executed by the DBMS without looking at the cache,
+     * because they read a table changed by the uncommitted transaction of their session
+     */
+    public long getBypasses() {
+        return bypasses;
+    }
+
+    /**
+     * Number of entries pushed out of the cache to make room for new ones
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of entries discarded because one of their tables changed
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Number of entries currently cached
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Number of rows currently cached
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses + bypasses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStats{hits=" + hits + ", misses=" + misses + ", bypasses=" + bypasses + ", evictions=" + evictions
+                + ", invalidations=" + invalidations + ", size=" + size + ", weight=" + weight + '}';
+    }
+}
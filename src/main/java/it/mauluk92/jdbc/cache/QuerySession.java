@@ -0,0 +1,139 @@
+package it.mauluk92.jdbc.cache;
+
+import it.mauluk92.jdbc.mapping.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class runs the queries and the updates of one connection through a {@link QueryCache}.
+ * Queries are answered from the cache when possible, and their rows are cached otherwise.
+ * Updates record the table they change: queries reading it bypass the cache until the end of the transaction,
+ * so that the session sees its own changes, and {@link #commit()} invalidates the entries reading it.
+ * {@link #rollback()} leaves the cache as it was. In auto-commit mode every update invalidates its table at once.
+ * Statements whose table cannot be found, like DDL or calls to procedures, are assumed to change every table,
+ * and queries whose tables cannot all be found are always executed.
+ * The rows of a query must not depend on anything else than its tables and parameters:
+ * functions like {@code CURRENT_TIMESTAMP} or {@code RAND()} would be frozen by the cache
+ */
+public class QuerySession {
+
+    private final QueryCache cache;
+    private final Connection conn;
+    private final Set<String> dirtyTables = new HashSet<>();
+    private boolean dirtyAll;
+
+    QuerySession(QueryCache cache, Connection conn) {
+        this.cache = cache;
+        this.conn = conn;
+    }
+
+    public Connection getConnection() {
+        return conn;
+    }
+
+    /**
+     * Returns the mapped rows of a query, from the cache if they are there.
+     * Rows are cached per mapper instance: to share them, callers keep their mapper in a field or a constant
+     * instead of creating it at every call.
+     * The returned list is shared with other sessions, and cannot be modified
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        Set<String> tables = SqlTables.read(sql);
+        // a query whose tables are not all known could never be invalidated, it is not cached
+        if (tables == null || dirtyAll || tables.stream().anyMatch(dirtyTables::contains)) {
+            cache.bypassed();
+            return execute(sql, mapper, params);
+        }
+        QueryCache.Key key = new QueryCache.Key(sql, params, mapper);
+        List<T> rows = (List<T>) cache.get(key);
+        if (rows == null) {
+            long version = cache.version(tables);
+            rows = execute(sql, mapper, params);
+            cache.put(key, tables, version, rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Executes an {@code INSERT}, {@code UPDATE}, {@code DELETE} or {@code MERGE}, recording the table it changes
+     *
+     * @return the number of rows changed
+     */
+    public int update(String sql, Object... params) throws SQLException {
+        String table = SqlTables.written(sql);
+        int count;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            count = stmt.executeUpdate();
+        } finally {
+            // even a failed statement may have changed rows before failing
+            if (table == null) {
+                dirtyAll = true;
+            } else {
+                dirtyTables.add(table);
+            }
+            if (conn.getAutoCommit()) {
+                invalidateDirty();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Commits the transaction, then invalidates the entries reading the tables it changed
+     */
+    public void commit() throws SQLException {
+        conn.commit();
+        invalidateDirty();
+    }
+
+    /**
+     * Rolls back the transaction, leaving the cache unchanged
+     */
+    public void rollback() throws SQLException {
+        try {
+            conn.rollback();
+        } finally {
+            dirtyTables.clear();
+            dirtyAll = false;
+        }
+    }
+
+    private void invalidateDirty() {
+        if (dirtyAll) {
+            cache.clear();
+        } else {
+            cache.invalidate(dirtyTables);
+        }
+        dirtyTables.clear();
+        dirtyAll = false;
+    }
+
+    private <T> List<T> execute(String sql, RowMapper<T> mapper, Object[] params) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            List<T> rows = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.mapRow(rs));
+                }
+            }
+            return Collections.unmodifiableList(rows);
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package it.mauluk92.jdbc.cache;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class finds the tables a statement reads or writes, by looking at the names following
+ * {@code FROM}, {@code JOIN}, {@code UPDATE}, {@code INSERT INTO} and {@code MERGE INTO}.
+ * Every item of a {@code FROM} list is read, and subqueries are scanned like the rest of the statement.
+ * Names are reduced to their upper case table part, without schema and quotes.
+ * It is a lexical scan, not a parser: it is meant for the plain statements of this project,
+ * and it gives up on what it does not recognise, like table functions, rather than guessing
+ */
+final class SqlTables {
+
+    private static final String NAME = "((?:\"[^\"]+\"|\\w+)(?:\\.(?:\"[^\"]+\"|\\w+))*)";
+    private static final Pattern READ = Pattern.compile("\\b(FROM|JOIN)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ITEM = Pattern.compile("\\s*(?:(\\()|" + NAME + "(?:\\s*(\\())?)");
+    private static final Pattern ALIAS = Pattern.compile(
+            "\\s+(?:AS\\s+)?(\"[^\"]+\"|\\w+)(?:\\s*\\([^()]*\\))?", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMA = Pattern.compile("\\s*,");
+    /**
+     * Words that may follow a table, and must not be taken for its alias
+     */
+    private static final Set<String> KEYWORDS = Set.of(
+            "WHERE", "JOIN", "INNER", "LEFT", "RIGHT", "FULL", "CROSS", "NATURAL", "ON", "USING", "GROUP",
+            "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "UNION", "EXCEPT", "INTERSECT", "MINUS", "FOR",
+            "WINDOW", "QUALIFY", "OUTER");
+    private static final Pattern WRITE = Pattern.compile(
+            "^\\s*(?:UPDATE|INSERT\\s+INTO|DELETE\\s+FROM|MERGE\\s+INTO)\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+
+    private SqlTables() {
+    }
+
+    /**
+     * Tables read by a query, or {@code null} if some of them cannot be identified
+     */
+    static Set<String> read(String sql) {
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = READ.matcher(sql);
+        while (matcher.find()) {
+            boolean list = matcher.group(1).equalsIgnoreCase("FROM");
+            int position = matcher.end();
+            while (true) {
+                Matcher item = at(ITEM, sql, position);
+                if (item == null) {
+                    return null;
+                }
+                if (item.group(1) != null) {
+                    // a subquery: its own FROM is found by the outer scan, here it is only skipped
+                    position = closingParenthesis(sql, item.end());
+                    if (position < 0) {
+                        return null;
+                    }
+                } else if (item.group(3) != null) {
+                    // a table function, like CSVREAD or TABLE(...), whose rows do not come from a table
+                    return null;
+                } else {
+                    tables.add(normalize(item.group(2)));
+                    position = item.end();
+                }
+                Matcher alias = at(ALIAS, sql, position);
+                if (alias != null && !KEYWORDS.contains(alias.group(1).toUpperCase(Locale.ROOT))) {
+                    position = alias.end();
+                }
+                Matcher comma = list ? at(COMMA, sql, position) : null;
+                if (comma == null) {
+                    break;
+                }
+                position = comma.end();
+            }
+        }
+        return tables.isEmpty() ? null : tables;
+    }
+
+    /**
+     * Table written by a statement, or {@code null} if the statement is not a plain
+     * {@code INSERT}, {@code UPDATE}, {@code DELETE} or {@code MERGE}
+     */
+    static String written(String sql) {
+        Matcher matcher = WRITE.matcher(sql);
+        return matcher.find() ? normalize(matcher.group(1)) : null;
+    }
+
+    /**
+     * Matches the pattern right at the given position, or returns {@code null}
+     */
+    private static Matcher at(Pattern pattern, String sql, int position) {
+        Matcher matcher = pattern.matcher(sql).region(position, sql.length());
+        return matcher.lookingAt() ? matcher : null;
+    }
+
+    /**
+     * Position after the parenthesis closing the one opened right before the given position, or -1
+     */
+    private static int closingParenthesis(String sql, int position) {
+        int depth = 1;
+        for (int i = position; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String normalize(String name) {
+        String table = name.substring(name.lastIndexOf('.') + 1);
+        if (table.startsWith("\"")) {
+            return table.substring(1, table.length() - 1);
+        }
+        return table.toUpperCase(Locale.ROOT);
+    }
+}
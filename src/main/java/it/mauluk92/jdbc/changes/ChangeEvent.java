@@ -0,0 +1,59 @@
+package it.mauluk92.jdbc.changes;
+
+import java.util.Arrays;
+
+/**
+ * A row change captured by a {@link ChangeFeed}. Rows hold the values of every column of the table,
+ * in the order of the table definition
+ */
+public class ChangeEvent {
+
+    private final long sequence;
+    private final String table;
+    private final ChangeType type;
+    private final Object[] oldRow;
+    private final Object[] newRow;
+
+    ChangeEvent(long sequence, String table, Object[] oldRow, Object[] newRow) {
+        this.sequence = sequence;
+        this.table = table;
+        this.type = oldRow == null ? ChangeType.INSERT : newRow == null ? ChangeType.DELETE : ChangeType.UPDATE;
+        this.oldRow = oldRow == null ? null : oldRow.clone();
+        this.newRow = newRow == null ? null : newRow.clone();
+    }
+
+    /**
+     * Position of the event in the feed, starting from zero and increasing by one for each event
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * The row before the change, null for an insert
+     */
+    public Object[] getOldRow() {
+        return oldRow == null ? null : oldRow.clone();
+    }
+
+    /**
+     * The row after the change, null for a delete
+     */
+    public Object[] getNewRow() {
+        return newRow == null ? null : newRow.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{sequence=" + sequence + ", table=" + table + ", type=" + type
+                + ", oldRow=" + Arrays.toString(oldRow) + ", newRow=" + Arrays.toString(newRow) + "}";
+    }
+}
@@ -0,0 +1,142 @@
+package it.mauluk92.jdbc.changes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class captures the row changes of H2 tables and hands them to any number of {@link ChangeSubscription}.
+ * Watching a table creates a {@link ChangeTrigger} on it: every row inserted, updated or deleted becomes
+ * a {@link ChangeEvent}, written in a ring buffer of fixed capacity where subscriptions read it.
+ * Unlike re-running a query, or relying on a {@code TYPE_SCROLL_SENSITIVE} result set that the driver
+ * may silently make insensitive, readers only get what changed.
+ * Events are published as the rows change, before the transaction commits. When it rolls back,
+ * the undone rows are published again as opposite changes, so that applying every event in order
+ * always ends on the committed state. Writers never wait for readers: a slow reader loses the events
+ * overwritten in the buffer and is told so by a {@link MissedChangesException}.
+ * Table names are inserted in the SQL as they are, they must not come from untrusted input
+ */
+public class ChangeFeed implements AutoCloseable {
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private final int id = IDS.incrementAndGet();
+    private final ChangeEvent[] events;
+    private final List<String> triggers = Collections.synchronizedList(new ArrayList<>());
+    private long next;
+
+    /**
+     * @param capacity number of events kept for the subscriptions that did not read them yet
+     */
+    public ChangeFeed(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.events = new ChangeEvent[capacity];
+    }
+
+    /**
+     * Starts capturing the changes of a table, including those of transactions already running
+     */
+    public void watch(Connection conn, String table) throws SQLException {
+        String trigger = triggerName(table);
+        ChangeTrigger.register(trigger, this);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TRIGGER " + schemaOf(table) + trigger + " AFTER INSERT, UPDATE, DELETE, ROLLBACK ON " + table
+                    + " FOR EACH ROW CALL '" + ChangeTrigger.class.getName() + "'");
+        } catch (SQLException e) {
+            ChangeTrigger.unregister(trigger);
+            throw e;
+        }
+        triggers.add(trigger);
+    }
+
+    /**
+     * Stops capturing the changes of a table, dropping its trigger
+     */
+    public void unwatch(Connection conn, String table) throws SQLException {
+        String trigger = triggerName(table);
+        ChangeTrigger.unregister(trigger);
+        triggers.remove(trigger);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TRIGGER IF EXISTS " + schemaOf(table) + trigger);
+        }
+    }
+
+    /**
+     * A subscription reading the events published from now on
+     */
+    public synchronized ChangeSubscription subscribe() {
+        return new ChangeSubscription(this, next);
+    }
+
+    /**
+     * Sequence of the next event to be published, which is also the number of events published so far
+     */
+    public synchronized long getSequence() {
+        return next;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Stops publishing events. Triggers are left in place but do nothing, {@link #unwatch} drops them
+     */
+    @Override
+    public void close() {
+        synchronized (triggers) {
+            triggers.forEach(ChangeTrigger::unregister);
+        }
+    }
+
+    synchronized void publish(String table, Object[] oldRow, Object[] newRow) {
+        events[(int) (next % events.length)] = new ChangeEvent(next, table, oldRow, newRow);
+        next++;
+        notifyAll();
+    }
+
+    synchronized List<ChangeEvent> read(long position, int maxEvents) {
+        long oldest = Math.max(0, next - events.length);
+        if (position < oldest) {
+            throw new MissedChangesException(oldest - position, next);
+        }
+        int count = (int) Math.min(maxEvents, next - position);
+        List<ChangeEvent> read = new ArrayList<>(count);
+        for (long sequence = position; sequence < position + count; sequence++) {
+            read.add(events[(int) (sequence % events.length)]);
+        }
+        return read;
+    }
+
+    synchronized void awaitAfter(long position, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining = timeout.toNanos();
+        while (next <= position && remaining > 0) {
+            wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Name of the trigger of a table, unique to this feed. The table name, schema included, is reduced
+     * to identifier characters, so that a qualified or quoted name still gives a valid identifier
+     */
+    private String triggerName(String table) {
+        return "CHANGE_FEED_" + id + "_" + table.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9_]", "_");
+    }
+
+    /**
+     * The schema of a qualified table name, with its dot, or nothing: H2 creates a trigger in the schema of its table
+     */
+    private static String schemaOf(String table) {
+        return table.substring(0, table.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,56 @@
+package it.mauluk92.jdbc.changes;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A reader of a {@link ChangeFeed}, which keeps its own position in the feed.
+ * Reading never blocks the writers: a subscription that falls behind by more than the capacity
+ * of the feed gets a {@link MissedChangesException}. A subscription is meant to be used by one thread
+ */
+public class ChangeSubscription {
+
+    private final ChangeFeed feed;
+    private long position;
+
+    ChangeSubscription(ChangeFeed feed, long position) {
+        this.feed = feed;
+        this.position = position;
+    }
+
+    /**
+     * Sequence of the next event to read
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Reads the events published since the last poll, without waiting
+     *
+     * @param maxEvents maximum number of events to return
+     * @throws MissedChangesException if events were overwritten before being read
+     */
+    public List<ChangeEvent> poll(int maxEvents) {
+        List<ChangeEvent> events;
+        try {
+            events = feed.read(position, maxEvents);
+        } catch (MissedChangesException e) {
+            position = e.getResumeAt();
+            throw e;
+        }
+        position += events.size();
+        return events;
+    }
+
+    /**
+     * Reads the events published since the last poll, waiting for at least one if there is none
+     *
+     * @return the events, an empty list if none was published within the timeout
+     * @throws MissedChangesException if events were overwritten before being read
+     */
+    public List<ChangeEvent> poll(int maxEvents, Duration timeout) throws InterruptedException {
+        feed.awaitAfter(position, timeout);
+        return poll(maxEvents);
+    }
+}
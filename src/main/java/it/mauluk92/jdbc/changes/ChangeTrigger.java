@@ -0,0 +1,43 @@
+package it.mauluk92.jdbc.changes;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The H2 trigger created by {@link ChangeFeed#watch}. H2 instantiates it by class name,
+ * so it finds its feed in a static registry, by the name of the trigger.
+ * It is called for the rows of every insert, update and delete, and again for the rows undone by a rollback,
+ * with the old and new rows swapped
+ */
+public class ChangeTrigger implements Trigger {
+
+    private static final Map<String, ChangeFeed> FEEDS = new ConcurrentHashMap<>();
+
+    private String triggerName;
+    private String tableName;
+
+    static void register(String triggerName, ChangeFeed feed) {
+        FEEDS.put(triggerName, feed);
+    }
+
+    static void unregister(String triggerName) {
+        FEEDS.remove(triggerName);
+    }
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before, int type) {
+        this.triggerName = triggerName;
+        this.tableName = tableName;
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) {
+        ChangeFeed feed = FEEDS.get(triggerName);
+        if (feed != null) {
+            feed.publish(tableName, oldRow, newRow);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package it.mauluk92.jdbc.changes;
+
+/**
+ * The kinds of row change published by a {@link ChangeFeed}
+ */
+public enum ChangeType {
+    INSERT,
+    UPDATE,
+    DELETE
+}
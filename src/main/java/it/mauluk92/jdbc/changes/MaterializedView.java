@@ -0,0 +1,191 @@
+package it.mauluk92.jdbc.changes;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class keeps a copy of the rows of a table, by key, up to date with the events of a {@link ChangeFeed}.
+ * The table is read once when the view is created; from then on {@link #refresh()} applies the changes
+ * published since the last refresh, without reading the table again. Only when the subscription missed
+ * events is the table read again in full.
+ * The subscription is taken before the table is read, so no change is lost in between: a change both
+ * read with the table and received as an event is applied twice, which leaves the same row.
+ * That only holds for changes published after the subscription. Events are published before their transaction
+ * commits, so a change made before the subscription by a transaction still open when the table is read would be
+ * neither in the rows read nor among the events received: the table is therefore not read while another session
+ * holds uncommitted changes, and the view fails to be created, or stays stale until the next refresh, instead.
+ * Other sessions are listed through {@code INFORMATION_SCHEMA.SESSIONS}, which H2 only shows in full to
+ * administrators: the connection of the view must belong to one.
+ * A view is meant to be used by one thread.
+ * Table and column names are inserted in the SQL as they are, they must not come from untrusted input
+ */
+public class MaterializedView {
+
+    private static final int POLL_SIZE = 1_024;
+
+    private final Connection conn;
+    private final String table;
+    /**
+     * Name of the table as the events carry it, without schema or quotes
+     */
+    private String tableName;
+    private final ChangeSubscription subscription;
+    private final List<String> columns = new ArrayList<>();
+    private final int keyIndex;
+    private final Map<Object, Object[]> rows = new HashMap<>();
+    private long appliedEvents;
+    private int reloads;
+    /**
+     * True when events were missed but the table could not be read again yet
+     */
+    private boolean stale;
+
+    /**
+     * @param feed      a feed watching the table
+     * @param conn      connection used to read the table, when the view is created and after missed events
+     * @param keyColumn column identifying the rows, usually the primary key
+     * @throws SQLException if another session holds uncommitted changes, which the view could miss
+     */
+    public MaterializedView(ChangeFeed feed, Connection conn, String table, String keyColumn) throws SQLException {
+        this.conn = conn;
+        this.table = table;
+        this.subscription = feed.subscribe();
+        List<Object[]> snapshot = load();
+        this.keyIndex = columns.indexOf(keyColumn.toUpperCase(Locale.ROOT));
+        if (keyIndex < 0) {
+            throw new SQLException("Column " + keyColumn + " not found in " + table);
+        }
+        index(snapshot);
+    }
+
+    /**
+     * Applies the changes published since the last refresh
+     *
+     * @return the number of events applied
+     * @throws SQLException if events were missed and the table cannot be read again yet, because another session
+     *                      holds uncommitted changes: the view is left as it was, and the next refresh tries again
+     */
+    public int refresh() throws SQLException {
+        if (stale) {
+            reload();
+        }
+        int applied = 0;
+        while (true) {
+            List<ChangeEvent> events;
+            try {
+                events = subscription.poll(POLL_SIZE);
+            } catch (MissedChangesException e) {
+                stale = true;
+                reload();
+                continue;
+            }
+            if (events.isEmpty()) {
+                return applied;
+            }
+            for (ChangeEvent event : events) {
+                if (event.getTable().equalsIgnoreCase(tableName)) {
+                    apply(event);
+                    applied++;
+                    appliedEvents++;
+                }
+            }
+        }
+    }
+
+    /**
+     * The row with the given key, with the values of the columns in the order of {@link #getColumns()},
+     * or null if there is none
+     */
+    public Object[] get(Object key) {
+        Object[] row = rows.get(key);
+        return row == null ? null : row.clone();
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Names of the columns of the table, in the order of the table definition
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Number of events applied so far
+     */
+    public long getAppliedEvents() {
+        return appliedEvents;
+    }
+
+    /**
+     * Number of times the table was read again because events were missed
+     */
+    public int getReloads() {
+        return reloads;
+    }
+
+    private void apply(ChangeEvent event) {
+        if (event.getOldRow() != null) {
+            rows.remove(event.getOldRow()[keyIndex]);
+        }
+        if (event.getNewRow() != null) {
+            Object[] row = event.getNewRow();
+            rows.put(row[keyIndex], row);
+        }
+    }
+
+    private void reload() throws SQLException {
+        index(load());
+        reloads++;
+        stale = false;
+    }
+
+    /**
+     * Reads the table, once every change published before the position of the subscription is committed
+     * or rolled back: a change still pending could be published again only as a rollback, never as a commit
+     */
+    private List<Object[]> load() throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE CONTAINS_UNCOMMITTED AND SESSION_ID <> SESSION_ID()")) {
+            rs.next();
+            if (rs.getInt(1) > 0) {
+                throw new SQLException("Other sessions hold uncommitted changes, " + table + " cannot be read consistently");
+            }
+        }
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT * FROM " + table)) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            tableName = metaData.getTableName(1);
+            columns.clear();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnName(i).toUpperCase(Locale.ROOT));
+            }
+            List<Object[]> snapshot = new ArrayList<>();
+            while (rs.next()) {
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                snapshot.add(row);
+            }
+            return snapshot;
+        }
+    }
+
+    private void index(List<Object[]> snapshot) {
+        rows.clear();
+        for (Object[] row : snapshot) {
+            rows.put(row[keyIndex], row);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package it.mauluk92.jdbc.changes;
+
+/**
+ * Thrown to a {@link ChangeSubscription} that fell so far behind that some of its events were overwritten
+ * in the ring buffer of the feed. The subscription continues from the newest event, so that whatever was
+ * built from the events must be rebuilt from the tables
+ */
+public class MissedChangesException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long missed;
+    private final long resumeAt;
+
+    MissedChangesException(long missed, long resumeAt) {
+        super(missed + " change events were overwritten before being read");
+        this.missed = missed;
+        this.resumeAt = resumeAt;
+    }
+
+    public long getMissed() {
+        return missed;
+    }
+
+    /**
+     * Sequence of the event the subscription continues from
+     */
+    public long getResumeAt() {
+        return resumeAt;
+    }
+}
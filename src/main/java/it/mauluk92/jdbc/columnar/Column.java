@@ -0,0 +1,85 @@
+package it.mauluk92.jdbc.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A column of a {@link ColumnarResultSet}. Values are appended once, in row order, and then read by row index.
+ * Every column keeps its values, and a bitmap of the {@code NULL} ones, in direct buffers outside the heap
+ */
+abstract class Column {
+
+    private ByteBuffer nulls = allocate(8);
+    protected int size;
+
+    /**
+     * Reads the value of the column from the current row of the result set and appends it
+     */
+    final void append(ResultSet rs, int index) throws SQLException {
+        ensureCapacity(size + 1);
+        appendValue(rs, index);
+        if (rs.wasNull()) {
+            nulls = reserve(nulls, (size >> 3) + 1L);
+            nulls.put(size >> 3, (byte) (nulls.get(size >> 3) | 1 << (size & 7)));
+        }
+        size++;
+    }
+
+    final boolean isNull(int row) {
+        return (row >> 3) < nulls.capacity() && (nulls.get(row >> 3) & 1 << (row & 7)) != 0;
+    }
+
+    protected abstract void ensureCapacity(int rows) throws SQLException;
+
+    protected abstract void appendValue(ResultSet rs, int index) throws SQLException;
+
+    int getInt(int row) throws SQLException {
+        throw new SQLException("Column cannot be read as int");
+    }
+
+    long getLong(int row) throws SQLException {
+        throw new SQLException("Column cannot be read as long");
+    }
+
+    String getString(int row) throws SQLException {
+        return isNull(row) ? null : String.valueOf(getLong(row));
+    }
+
+    /**
+     * Bytes of off-heap memory held by the column
+     */
+    long offHeapBytes() {
+        return nulls.capacity();
+    }
+
+    static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the buffer if it holds the given number of bytes, otherwise a copy at least twice as large.
+     * Buffers are indexed by {@code int}, so they cannot grow past {@link Integer#MAX_VALUE} bytes
+     *
+     * @throws SQLException if the bytes do not fit in a buffer
+     */
+    static ByteBuffer reserve(ByteBuffer buffer, long bytes) throws SQLException {
+        if (bytes <= buffer.capacity()) {
+            return buffer;
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new SQLException("A column cannot hold more than " + Integer.MAX_VALUE + " bytes");
+        }
+        return grow(buffer, (int) Math.min(Integer.MAX_VALUE, Math.max(bytes, 2L * buffer.capacity())));
+    }
+
+    /**
+     * Copies a buffer into a larger one. The old buffer is released when it becomes unreachable
+     */
+    static ByteBuffer grow(ByteBuffer buffer, int bytes) {
+        ByteBuffer grown = allocate(bytes);
+        grown.put(buffer.duplicate().clear());
+        return grown.clear();
+    }
+}
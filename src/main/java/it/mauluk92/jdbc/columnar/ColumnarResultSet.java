@@ -0,0 +1,220 @@
+package it.mauluk92.jdbc.columnar;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class is a client side, scrollable copy of a result set.
+ * A scrollable {@link ResultSet} lets the driver keep every row on the heap as objects. Here the rows
+ * of a forward-only result set are copied instead into one buffer per column, outside the heap:
+ * integer columns as packed {@code int} or {@code long} values, string columns as dictionary codes.
+ * The heap only holds the column objects and the distinct strings: for integer columns and strings with few
+ * distinct values the garbage collector has the same work to do for a thousand rows as for millions, while a
+ * string column whose values are mostly distinct still keeps each of them on the heap.
+ * Moving the cursor anywhere is O(1). A column is held in buffers of at most 2 GB, which caps the rows
+ * at about 268 million for {@code BIGINT} columns and 536 million for the others.
+ * The cursor follows the {@link ResultSet} conventions: rows are numbered from 1, row 0 is
+ * before the first row and row {@code size + 1} after the last one.
+ * Supported column types are the integer types up to {@code BIGINT} and the character types
+ */
+public class ColumnarResultSet {
+
+    private final Column[] columns;
+    private final Map<String, Integer> labels;
+    private final int rows;
+    private int row;
+    private boolean wasNull;
+
+    private ColumnarResultSet(Column[] columns, Map<String, Integer> labels, int rows) {
+        this.columns = columns;
+        this.labels = labels;
+        this.rows = rows;
+    }
+
+    /**
+     * Reads every remaining row of the result set, which is then closed
+     *
+     * @throws SQLFeatureNotSupportedException if a column has a type that cannot be stored
+     */
+    public static ColumnarResultSet copyOf(ResultSet rs) throws SQLException {
+        try (rs) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int count = metaData.getColumnCount();
+            Column[] columns = new Column[count];
+            Map<String, Integer> labels = new HashMap<>();
+            for (int i = 1; i <= count; i++) {
+                columns[i - 1] = columnFor(metaData, i);
+                labels.putIfAbsent(metaData.getColumnLabel(i).toUpperCase(Locale.ROOT), i);
+            }
+            int rows = 0;
+            while (rs.next()) {
+                for (int i = 0; i < count; i++) {
+                    columns[i].append(rs, i + 1);
+                }
+                rows++;
+            }
+            return new ColumnarResultSet(columns, labels, rows);
+        }
+    }
+
+    private static Column columnFor(ResultSetMetaData metaData, int index) throws SQLException {
+        switch (metaData.getColumnType(index)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new IntColumn();
+            case Types.BIGINT:
+                return new LongColumn();
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new DictionaryColumn();
+            default:
+                throw new SQLFeatureNotSupportedException("Column " + metaData.getColumnLabel(index)
+                        + " of type " + metaData.getColumnTypeName(index) + " cannot be stored in columns");
+        }
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public boolean next() {
+        return moveTo(row + 1);
+    }
+
+    public boolean previous() {
+        return moveTo(row - 1);
+    }
+
+    public boolean first() {
+        return moveTo(1);
+    }
+
+    public boolean last() {
+        return moveTo(rows);
+    }
+
+    public void beforeFirst() {
+        row = 0;
+    }
+
+    public void afterLast() {
+        row = rows + 1;
+    }
+
+    /**
+     * Moves to the given row. A negative number counts from the end, -1 being the last row
+     */
+    public boolean absolute(int position) {
+        return moveTo(position >= 0 ? position : rows + 1L + position);
+    }
+
+    public boolean relative(int offset) {
+        return moveTo((long) row + offset);
+    }
+
+    public int getRow() {
+        return row >= 1 && row <= rows ? row : 0;
+    }
+
+    public boolean isBeforeFirst() {
+        return rows > 0 && row == 0;
+    }
+
+    public boolean isAfterLast() {
+        return rows > 0 && row == rows + 1;
+    }
+
+    public boolean isFirst() {
+        return rows > 0 && row == 1;
+    }
+
+    public boolean isLast() {
+        return rows > 0 && row == rows;
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        wasNull = column.isNull(row - 1);
+        return wasNull ? 0 : column.getInt(row - 1);
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        wasNull = column.isNull(row - 1);
+        return wasNull ? 0 : column.getLong(row - 1);
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(findColumn(columnLabel));
+    }
+
+    public String getString(int columnIndex) throws SQLException {
+        Column column = column(columnIndex);
+        wasNull = column.isNull(row - 1);
+        return wasNull ? null : column.getString(row - 1);
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    /**
+     * Whether the last column read was {@code NULL}; false before any column has been read
+     */
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    public int findColumn(String columnLabel) throws SQLException {
+        Integer index = labels.get(columnLabel.toUpperCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column " + columnLabel + " not found");
+        }
+        return index;
+    }
+
+    /**
+     * Bytes of memory held outside the heap by all the columns
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (Column column : columns) {
+            bytes += column.offHeapBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Moves to the target row, clamped to the positions before the first and after the last row.
+     * The target is a {@code long} so that offsets as large as an {@code int} cannot wrap around
+     */
+    private boolean moveTo(long target) {
+        row = (int) Math.max(0, Math.min(target, rows + 1L));
+        return row >= 1 && row <= rows;
+    }
+
+    private Column column(int columnIndex) throws SQLException {
+        if (columnIndex < 1 || columnIndex > columns.length) {
+            throw new SQLException("Invalid column index " + columnIndex);
+        }
+        if (row < 1 || row > rows) {
+            throw new SQLException("The cursor is not on a row");
+        }
+        return columns[columnIndex - 1];
+    }
+}
@@ -0,0 +1,77 @@
+package it.mauluk92.jdbc.columnar;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column of strings, dictionary encoded: every distinct value is kept once on the heap,
+ * and each row only stores the code of its value off the heap. Columns with few distinct
+ * values, like names or statuses, use four bytes per row whatever the length of their strings
+ */
+class DictionaryColumn extends Column {
+
+    private static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private ByteBuffer values = allocate(Integer.BYTES * 64);
+
+    @Override
+    protected void ensureCapacity(int rows) throws SQLException {
+        values = reserve(values, (long) rows * Integer.BYTES);
+    }
+
+    @Override
+    protected void appendValue(ResultSet rs, int index) throws SQLException {
+        String value = rs.getString(index);
+        int code = NULL_CODE;
+        if (value != null) {
+            code = codes.computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+        values.putInt(size * Integer.BYTES, code);
+    }
+
+    @Override
+    String getString(int row) {
+        int code = values.getInt(row * Integer.BYTES);
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    @Override
+    int getInt(int row) throws SQLException {
+        return (int) getLong(row);
+    }
+
+    @Override
+    long getLong(int row) throws SQLException {
+        String value = getString(row);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Value " + value + " is not a number", e);
+        }
+    }
+
+    /**
+     * Number of distinct values of the column
+     */
+    int dictionarySize() {
+        return dictionary.size();
+    }
+
+    @Override
+    long offHeapBytes() {
+        return super.offHeapBytes() + values.capacity();
+    }
+}
@@ -0,0 +1,38 @@
+package it.mauluk92.jdbc.columnar;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A column of 32 bits integers
+ */
+class IntColumn extends Column {
+
+    private ByteBuffer values = allocate(Integer.BYTES * 64);
+
+    @Override
+    protected void ensureCapacity(int rows) throws SQLException {
+        values = reserve(values, (long) rows * Integer.BYTES);
+    }
+
+    @Override
+    protected void appendValue(ResultSet rs, int index) throws SQLException {
+        values.putInt(size * Integer.BYTES, rs.getInt(index));
+    }
+
+    @Override
+    int getInt(int row) {
+        return values.getInt(row * Integer.BYTES);
+    }
+
+    @Override
+    long getLong(int row) {
+        return getInt(row);
+    }
+
+    @Override
+    long offHeapBytes() {
+        return super.offHeapBytes() + values.capacity();
+    }
+}
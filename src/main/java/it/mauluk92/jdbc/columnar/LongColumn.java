@@ -0,0 +1,42 @@
+package it.mauluk92.jdbc.columnar;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A column of 64 bits integers
+ */
+class LongColumn extends Column {
+
+    private ByteBuffer values = allocate(Long.BYTES * 64);
+
+    @Override
+    protected void ensureCapacity(int rows) throws SQLException {
+        values = reserve(values, (long) rows * Long.BYTES);
+    }
+
+    @Override
+    protected void appendValue(ResultSet rs, int index) throws SQLException {
+        values.putLong(size * Long.BYTES, rs.getLong(index));
+    }
+
+    @Override
+    int getInt(int row) throws SQLException {
+        long value = getLong(row);
+        if (value != (int) value) {
+            throw new SQLException("Value " + value + " does not fit an int");
+        }
+        return (int) value;
+    }
+
+    @Override
+    long getLong(int row) {
+        return values.getLong(row * Long.BYTES);
+    }
+
+    @Override
+    long offHeapBytes() {
+        return super.offHeapBytes() + values.capacity();
+    }
+}
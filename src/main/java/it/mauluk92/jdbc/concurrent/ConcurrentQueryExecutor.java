@@ -0,0 +1,275 @@
+package it.mauluk92.jdbc.concurrent;
+
+import it.mauluk92.jdbc.mapping.RowMapper;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class runs independent queries at the same time, one thread per query, each on its own connection
+ * borrowed from a {@link ConnectionPool}. On Java 21 the threads are virtual: a query waiting for the DBMS
+ * costs no platform thread, and many more queries than processors can be in flight. On Java 17 platform threads
+ * are used instead, with the same behaviour.
+ * The number of connections used at the same time is capped by a semaphore: queries beyond the cap wait
+ * for a permit before borrowing a connection.
+ * Every statement created by a task gets the query timeout of the executor, through {@link Statement#setQueryTimeout}.
+ * {@link #invokeAll(List)} is structured: it returns when every task is done, and when one task fails the others
+ * are cancelled, their running statements included, and waited for, so that no connection or permit is still
+ * held when the failure is thrown
+ */
+public class ConcurrentQueryExecutor {
+
+    private final ConnectionPool pool;
+    private final Semaphore permits;
+    private final int queryTimeoutSeconds;
+    private final ThreadFactory threadFactory = VirtualThreads.factory();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    /**
+     * @param maxConnections maximum number of connections borrowed at the same time
+     * @param queryTimeout   timeout of every statement, rounded up to seconds; zero for no timeout
+     */
+    public ConcurrentQueryExecutor(ConnectionPool pool, int maxConnections, Duration queryTimeout) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        this.pool = pool;
+        this.permits = new Semaphore(maxConnections, true);
+        this.queryTimeoutSeconds = (int) ((queryTimeout.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * Whether tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return VirtualThreads.available();
+    }
+
+    /**
+     * A task reading all the mapped rows of a query
+     */
+    public static <T> QueryTask<List<T>> query(String sql, RowMapper<T> mapper, Object... params) {
+        return conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    stmt.setObject(i + 1, params[i]);
+                }
+                List<T> rows = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(mapper.mapRow(rs));
+                    }
+                }
+                return rows;
+            }
+        };
+    }
+
+    /**
+     * Runs the tasks concurrently and waits for all of them
+     *
+     * @return the results, in the order of the tasks
+     * @throws SQLException         the failure of the first task to fail, once the others have been cancelled and have ended
+     * @throws InterruptedException if the calling thread is interrupted, once the tasks have been cancelled and have ended
+     */
+    public <T> List<T> invokeAll(List<? extends QueryTask<? extends T>> tasks) throws SQLException, InterruptedException {
+        Scope scope = new Scope();
+        List<Thread> threads = new ArrayList<>(tasks.size());
+        CompletionService<T> completion = new ExecutorCompletionService<>(task -> {
+            Thread thread = threadFactory.newThread(task);
+            threads.add(thread);
+            thread.start();
+        });
+        Map<Future<T>, Integer> indexes = new HashMap<>();
+        for (QueryTask<? extends T> task : tasks) {
+            indexes.put(completion.submit(() -> run(task, scope)), indexes.size());
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            results.add(null);
+        }
+        try {
+            for (int done = 0; done < tasks.size(); done++) {
+                Future<T> future = completion.take();
+                try {
+                    results.set(indexes.get(future), future.get());
+                } catch (ExecutionException e) {
+                    throw asSQLException(e.getCause());
+                }
+            }
+        } catch (SQLException | InterruptedException | RuntimeException | Error e) {
+            scope.cancel();
+            indexes.keySet().forEach(future -> future.cancel(true));
+            // a cancelled future is done at once, but its thread may still hold a connection and a permit
+            joinAll(threads);
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Highest number of connections borrowed at the same time so far
+     */
+    public int getPeakConnections() {
+        return peakInUse.get();
+    }
+
+    private <T> T run(QueryTask<T> task, Scope scope) throws Exception {
+        permits.acquire();
+        try {
+            peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            Connection conn = pool.acquire();
+            StatementHandler handler = new StatementHandler(conn, scope);
+            Connection lent = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+            try {
+                return task.execute(lent);
+            } finally {
+                handler.closeStatements();
+                pool.release(conn);
+            }
+        } finally {
+            inUse.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Waits for the threads to end. An interrupt does not stop the wait, it is kept for the caller
+     */
+    private static void joinAll(List<Thread> threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SQLException asSQLException(Throwable failure) {
+        if (failure instanceof SQLException) {
+            return (SQLException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new SQLException("Query task failed", failure);
+    }
+
+    /**
+     * The statements running for one {@link #invokeAll(List)} call, cancelled together when one task fails
+     */
+    private static final class Scope {
+
+        private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled;
+
+        private void add(Statement stmt) throws SQLException {
+            running.add(stmt);
+            if (cancelled) {
+                stmt.cancel();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            for (Statement stmt : running) {
+                try {
+                    stmt.cancel();
+                } catch (SQLException e) {
+                    // the statement may already be closed
+                }
+            }
+        }
+    }
+
+    /**
+     * Lends a pooled connection to a task: statements get the query timeout and join the scope,
+     * and closing the connection is left to the executor
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Connection conn;
+        private final Scope scope;
+        private final List<Statement> statements = new ArrayList<>();
+
+        private StatementHandler(Connection conn, Scope scope) {
+            this.conn = conn;
+            this.scope = scope;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                Statement stmt = (Statement) result;
+                stmt.setQueryTimeout(queryTimeoutSeconds);
+                statements.add(stmt);
+                scope.add(stmt);
+            }
+            return result;
+        }
+
+        private void closeStatements() {
+            for (Statement stmt : statements) {
+                scope.running.remove(stmt);
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    // the connection is rolled back and returned anyway
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package it.mauluk92.jdbc.concurrent;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of work run by a {@link ConcurrentQueryExecutor} on a borrowed connection
+ *
+ * @param <T> type of the result
+ */
+@FunctionalInterface
+public interface QueryTask<T> {
+
+    /**
+     * @param conn connection lent for the duration of the call, it must not be closed nor kept
+     */
+    T execute(Connection conn) throws SQLException;
+}
@@ -0,0 +1,46 @@
+package it.mauluk92.jdbc.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class creates virtual threads when the runtime has them, from Java 21 on, and platform threads otherwise.
+ * The virtual thread builder is looked up reflectively, so that the project still compiles for Java 17
+ */
+final class VirtualThreads {
+
+    private static final ThreadFactory VIRTUAL = lookupVirtualFactory();
+    private static final AtomicLong PLATFORM_THREADS = new AtomicLong();
+
+    private VirtualThreads() {
+    }
+
+    static boolean available() {
+        return VIRTUAL != null;
+    }
+
+    /**
+     * Factory of virtual threads, or of daemon platform threads when virtual threads are not available
+     */
+    static ThreadFactory factory() {
+        if (VIRTUAL != null) {
+            return VIRTUAL;
+        }
+        return task -> {
+            Thread thread = new Thread(task, "query-" + PLATFORM_THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory lookupVirtualFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
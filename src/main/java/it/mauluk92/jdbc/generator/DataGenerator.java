@@ -0,0 +1,218 @@
+package it.mauluk92.jdbc.generator;
+
+import it.mauluk92.jdbc.bulk.BulkLoader;
+import it.mauluk92.jdbc.bulk.BulkLoaderConfig;
+import it.mauluk92.jdbc.bulk.LoadReport;
+import it.mauluk92.jdbc.bulk.LoadStrategy;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * This class fills tables with random rows, generated from a seed: the same seed always gives the same rows.
+ * The columns are read from the metadata of the table. The key column, the primary key or else the first integer column,
+ * gets consecutive values following the highest one already in the table, so that generated rows can be added
+ * to a fixture. A single column primary key must therefore be an integer: random values would collide. The other columns get random values of their type, strings being their column name followed by
+ * a number, like the {@code NAME_1} of the fixtures.
+ * Rows are generated one at a time while the table is loaded by a {@link BulkLoader}, so the memory used
+ * does not depend on the number of rows.
+ * Table names are inserted in the SQL as they are, they must not come from untrusted input
+ */
+public class DataGenerator {
+
+    private static final long EPOCH_DAY_2000 = 10_957;
+
+    private final long seed;
+
+    public DataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Adds rows to a table, committing them unless the connection is already in a transaction,
+     * which is then left to the caller as by {@link BulkLoader}
+     *
+     * @throws SQLException if the type of the key column cannot hold the keys of the rows
+     */
+    public LoadReport populate(Connection conn, String table, long rows) throws SQLException {
+        List<ColumnSpec> columns = columns(conn, table);
+        List<String> names = new ArrayList<>();
+        for (ColumnSpec column : columns) {
+            names.add(column.name);
+        }
+        long firstKey = 1;
+        for (ColumnSpec column : columns) {
+            if (column.key) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + column.name + "), 0) + 1 FROM " + table)) {
+                    rs.next();
+                    firstKey = rs.getLong(1);
+                }
+            }
+        }
+        BulkLoaderConfig config = new BulkLoaderConfig().setStrategy(LoadStrategy.MULTI_ROW_VALUES);
+        return new BulkLoader(conn, config).load(table, names, rows(columns, firstKey, rows));
+    }
+
+    public LoadReport populate(Connection conn, String table, ScaleFactor scale) throws SQLException {
+        return populate(conn, table, scale.getRows());
+    }
+
+    /**
+     * Generates rows for the columns of a table, without inserting them
+     */
+    public Iterator<Object[]> rows(Connection conn, String table, long rows) throws SQLException {
+        return rows(columns(conn, table), 1, rows);
+    }
+
+    private Iterator<Object[]> rows(List<ColumnSpec> columns, long firstKey, long rows) throws SQLException {
+        for (ColumnSpec column : columns) {
+            if (column.key && rows > 0 && firstKey + rows - 1 > column.maxKey()) {
+                // a narrowing cast would wrap around, and insert duplicate keys
+                throw new SQLException("Column " + column.name + " cannot hold " + rows + " keys from " + firstKey
+                        + ": its type ends at " + column.maxKey());
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        return new Iterator<>() {
+            private long generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < rows;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = columns.get(i).value(random, firstKey + generated, rows);
+                }
+                generated++;
+                return row;
+            }
+        };
+    }
+
+    private static List<ColumnSpec> columns(Connection conn, String table) throws SQLException {
+        String primaryKey = null;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            try (ResultSet keys = conn.getMetaData().getPrimaryKeys(null, metaData.getSchemaName(1), metaData.getTableName(1))) {
+                int count = 0;
+                while (keys.next()) {
+                    primaryKey = keys.getString("COLUMN_NAME");
+                    count++;
+                }
+                if (count > 1) {
+                    primaryKey = null;
+                }
+            }
+            List<ColumnSpec> columns = new ArrayList<>();
+            boolean keyFound = false;
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String name = metaData.getColumnName(i);
+                int type = metaData.getColumnType(i);
+                boolean integer = type == Types.INTEGER || type == Types.BIGINT || type == Types.SMALLINT;
+                boolean key = integer && !keyFound && (primaryKey == null || primaryKey.equalsIgnoreCase(name));
+                keyFound |= key;
+                columns.add(new ColumnSpec(name, type, metaData.getPrecision(i), key));
+            }
+            if (primaryKey != null && !keyFound) {
+                throw new SQLFeatureNotSupportedException("The primary key " + primaryKey + " of " + table
+                        + " is not an integer column, its values cannot be generated");
+            }
+            return columns;
+        }
+    }
+
+    private static final class ColumnSpec {
+        private final String name;
+        private final int type;
+        private final int precision;
+        private final boolean key;
+        private final String prefix;
+
+        private ColumnSpec(String name, int type, int precision, boolean key) throws SQLFeatureNotSupportedException {
+            this.name = name;
+            this.type = type;
+            this.precision = precision;
+            this.key = key;
+            this.prefix = name.toUpperCase(Locale.ROOT) + "_";
+            switch (type) {
+                case Types.INTEGER:
+                case Types.BIGINT:
+                case Types.SMALLINT:
+                case Types.TINYINT:
+                case Types.VARCHAR:
+                case Types.CHAR:
+                case Types.BOOLEAN:
+                case Types.DOUBLE:
+                case Types.REAL:
+                case Types.DATE:
+                case Types.TIMESTAMP:
+                    break;
+                default:
+                    throw new SQLFeatureNotSupportedException("Cannot generate values of type " + type + " for " + name);
+            }
+        }
+
+        /**
+         * Highest key the type of the column can hold
+         */
+        private long maxKey() {
+            switch (type) {
+                case Types.SMALLINT:
+                    return Short.MAX_VALUE;
+                case Types.INTEGER:
+                    return Integer.MAX_VALUE;
+                default:
+                    return Long.MAX_VALUE;
+            }
+        }
+
+        private Object value(SplittableRandom random, long key, long rows) {
+            switch (type) {
+                case Types.INTEGER:
+                    return this.key ? (Object) (int) key : random.nextInt(Integer.MAX_VALUE);
+                case Types.BIGINT:
+                    return this.key ? (Object) key : random.nextLong(Long.MAX_VALUE);
+                case Types.SMALLINT:
+                    return this.key ? (Object) (short) key : (short) random.nextInt(Short.MAX_VALUE);
+                case Types.TINYINT:
+                    return (byte) random.nextInt(Byte.MAX_VALUE);
+                case Types.VARCHAR:
+                case Types.CHAR:
+                    String value = prefix + (1 + random.nextLong(Math.max(1, rows)));
+                    return value.length() > precision ? value.substring(0, precision) : value;
+                case Types.BOOLEAN:
+                    return random.nextBoolean();
+                case Types.DOUBLE:
+                case Types.REAL:
+                    return random.nextDouble() * 1_000_000;
+                case Types.DATE:
+                    return Date.valueOf(LocalDate.ofEpochDay(EPOCH_DAY_2000 + random.nextInt(10_000)));
+                default:
+                    return new Timestamp((EPOCH_DAY_2000 * 86_400 + random.nextLong(10_000L * 86_400)) * 1_000);
+            }
+        }
+    }
+}
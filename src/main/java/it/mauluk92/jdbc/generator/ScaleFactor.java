@@ -0,0 +1,24 @@
+package it.mauluk92.jdbc.generator;
+
+/**
+ * Standard volumes a {@link DataGenerator} populates a table with
+ */
+public enum ScaleFactor {
+
+    SF_1K(1_000),
+    SF_1M(1_000_000),
+    /**
+     * Too large for an in-memory database on most machines, meant for file based databases
+     */
+    SF_100M(100_000_000);
+
+    private final long rows;
+
+    ScaleFactor(long rows) {
+        this.rows = rows;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,19 @@
+package it.mauluk92.jdbc.load;
+
+/**
+ * The operations measured by a {@link WorkloadRunner}
+ */
+public enum OperationType {
+    /**
+     * A query reading one row by key
+     */
+    READ,
+    /**
+     * A batch of updates, each changing one row by key
+     */
+    WRITE,
+    /**
+     * A whole transaction, from its first operation to its commit, retries included
+     */
+    TRANSACTION
+}
@@ -0,0 +1,9 @@
+package it.mauluk92.jdbc.load;
+
+/**
+ * The formats a {@link WorkloadSummary} can be written in
+ */
+public enum SummaryFormat {
+    JSON,
+    CSV
+}
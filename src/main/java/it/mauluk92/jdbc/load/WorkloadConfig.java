@@ -0,0 +1,271 @@
+package it.mauluk92.jdbc.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * This class holds the settings of a {@link WorkloadRunner}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class WorkloadConfig {
+
+    private String url = "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1";
+    private String user = "sa";
+    private String password = "";
+    private int threads = 4;
+    private double readRatio = 0.8;
+    private int batchSize = 10;
+    private int transactionSize = 5;
+    private long rows = 100_000;
+    private long seed = 42;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration interval = Duration.ofSeconds(1);
+    private SummaryFormat format = SummaryFormat.JSON;
+    private Path output;
+
+    /**
+     * Reads a configuration from command line arguments written as {@code --name=value}, e.g.
+     * {@code --url=jdbc:h2:./target/load --threads=8 --read-ratio=0.5 --duration=1m}.
+     * Durations are a number followed by {@code ms}, {@code s} or {@code m}
+     *
+     * @throws IllegalArgumentException if an argument is unknown or has an invalid value
+     */
+    public static WorkloadConfig parse(String... args) {
+        WorkloadConfig config = new WorkloadConfig();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, found " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            try {
+                switch (name) {
+                    case "url":
+                        config.setUrl(value);
+                        break;
+                    case "user":
+                        config.setUser(value);
+                        break;
+                    case "password":
+                        config.setPassword(value);
+                        break;
+                    case "threads":
+                        config.setThreads(Integer.parseInt(value));
+                        break;
+                    case "read-ratio":
+                        config.setReadRatio(Double.parseDouble(value));
+                        break;
+                    case "batch-size":
+                        config.setBatchSize(Integer.parseInt(value));
+                        break;
+                    case "transaction-size":
+                        config.setTransactionSize(Integer.parseInt(value));
+                        break;
+                    case "rows":
+                        config.setRows(Long.parseLong(value));
+                        break;
+                    case "seed":
+                        config.setSeed(Long.parseLong(value));
+                        break;
+                    case "duration":
+                        config.setDuration(parseDuration(value));
+                        break;
+                    case "interval":
+                        config.setInterval(parseDuration(value));
+                        break;
+                    case "format":
+                        config.setFormat(SummaryFormat.valueOf(value.toUpperCase(Locale.ROOT)));
+                        break;
+                    case "output":
+                        config.setOutput(Path.of(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value, e);
+            }
+        }
+        return config;
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Duration must end with ms, s or m: " + value);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * URL of the database, e.g. {@code jdbc:h2:mem:load;DB_CLOSE_DELAY=-1} for an embedded in-memory database
+     * or {@code jdbc:h2:./target/load} for a file based one
+     */
+    public WorkloadConfig setUrl(String url) {
+        this.url = url;
+        return this;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public WorkloadConfig setUser(String user) {
+        this.user = user;
+        return this;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public WorkloadConfig setPassword(String password) {
+        this.password = password;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Number of threads running transactions, each on its own connection
+     */
+    public WorkloadConfig setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public double getReadRatio() {
+        return readRatio;
+    }
+
+    /**
+     * Fraction of the operations that are reads, the others being writes
+     */
+    public WorkloadConfig setReadRatio(double readRatio) {
+        if (readRatio < 0 || readRatio > 1) {
+            throw new IllegalArgumentException("readRatio must be between 0 and 1");
+        }
+        this.readRatio = readRatio;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Number of updates sent together by each write
+     */
+    public WorkloadConfig setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public int getTransactionSize() {
+        return transactionSize;
+    }
+
+    /**
+     * Number of operations, reads and writes, committed together
+     */
+    public WorkloadConfig setTransactionSize(int transactionSize) {
+        if (transactionSize < 1) {
+            throw new IllegalArgumentException("transactionSize must be at least 1");
+        }
+        this.transactionSize = transactionSize;
+        return this;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Number of rows of the table the workload runs on. Missing rows are generated before the run,
+     * so that a file based database is only populated once
+     */
+    public WorkloadConfig setRows(long rows) {
+        if (rows < 1) {
+            throw new IllegalArgumentException("rows must be at least 1");
+        }
+        this.rows = rows;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Seed of the generated rows
+     */
+    public WorkloadConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public WorkloadConfig setDuration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * Time between two progress lines, each reporting the throughput and latencies of its interval only
+     */
+    public WorkloadConfig setInterval(Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.interval = interval;
+        return this;
+    }
+
+    public SummaryFormat getFormat() {
+        return format;
+    }
+
+    public WorkloadConfig setFormat(SummaryFormat format) {
+        this.format = format;
+        return this;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    /**
+     * File the summary is written to, null to write it on the standard output
+     */
+    public WorkloadConfig setOutput(Path output) {
+        this.output = output;
+        return this;
+    }
+}
@@ -0,0 +1,189 @@
+package it.mauluk92.jdbc.load;
+
+import it.mauluk92.jdbc.generator.DataGenerator;
+import it.mauluk92.jdbc.metrics.LatencyHistogram;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import it.mauluk92.jdbc.tx.RetryPolicy;
+import it.mauluk92.jdbc.tx.RetryingTransactionExecutor;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class runs a mixed workload of reads and writes on the table {@code LOAD_TABLE}, from several threads,
+ * for a given time. Each thread runs transactions of a fixed number of operations, chosen at random
+ * between reads of one row by key and batches of updates of rows by key, following the read ratio.
+ * Transactions are run by a {@link RetryingTransactionExecutor}, so that writers colliding on the same rows
+ * are retried rather than counted as failures.
+ * While running, a line with the throughput and latencies of the last interval is printed at each interval;
+ * the {@link WorkloadSummary} returned at the end covers the whole run
+ */
+public class WorkloadRunner {
+
+    static final String TABLE = "LOAD_TABLE";
+    private static final String READ = "SELECT ID, NAME, AMOUNT FROM " + TABLE + " WHERE ID = ?";
+    private static final String WRITE = "UPDATE " + TABLE + " SET AMOUNT = AMOUNT + 1 WHERE ID = ?";
+
+    private final WorkloadConfig config;
+    private final Map<OperationType, LatencyHistogram> latencies = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, AtomicReference<LatencyHistogram>> intervalLatencies = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, LongAdder> errors = new EnumMap<>(OperationType.class);
+
+    public WorkloadRunner(WorkloadConfig config) {
+        this.config = config;
+        for (OperationType type : OperationType.values()) {
+            latencies.put(type, new LatencyHistogram());
+            intervalLatencies.put(type, new AtomicReference<>(new LatencyHistogram()));
+            errors.put(type, new LongAdder());
+        }
+    }
+
+    /**
+     * Creates and populates the table if needed, then runs the workload
+     *
+     * @param progress where the progress lines are printed
+     */
+    public WorkloadSummary run(PrintStream progress) throws SQLException, InterruptedException {
+        try (ConnectionPool pool = new ConnectionPool(new ConnectionPoolConfig(config.getUrl(), config.getUser(), config.getPassword())
+                .setMaxSize(config.getThreads()))) {
+            prepare(pool);
+            RetryingTransactionExecutor executor = new RetryingTransactionExecutor(pool, new RetryPolicy().setMaxAttempts(10));
+            long start = System.nanoTime();
+            long deadline = start + config.getDuration().toNanos();
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < config.getThreads(); i++) {
+                SplittableRandom random = new SplittableRandom(config.getSeed() + i);
+                Thread worker = new Thread(() -> work(executor, random, deadline), "load-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+            report(progress, start, deadline);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            Map<OperationType, Long> errorCounts = new EnumMap<>(OperationType.class);
+            errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+            return new WorkloadSummary(config, System.nanoTime() - start, latencies, errorCounts, executor.getRetries());
+        }
+    }
+
+    private void prepare(ConnectionPool pool) throws SQLException {
+        Connection conn = pool.acquire();
+        try {
+            long missing;
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS " + TABLE
+                        + " (ID BIGINT PRIMARY KEY, NAME VARCHAR(32), AMOUNT BIGINT)");
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+                    rs.next();
+                    missing = config.getRows() - rs.getLong(1);
+                }
+            }
+            if (missing > 0) {
+                new DataGenerator(config.getSeed()).populate(conn, TABLE, missing);
+            }
+        } finally {
+            pool.release(conn);
+        }
+    }
+
+    private void work(RetryingTransactionExecutor executor, SplittableRandom random, long deadline) {
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                executor.execute(conn -> {
+                    for (int i = 0; i < config.getTransactionSize(); i++) {
+                        if (random.nextDouble() < config.getReadRatio()) {
+                            measure(OperationType.READ, () -> read(conn, random));
+                        } else {
+                            measure(OperationType.WRITE, () -> write(conn, random));
+                        }
+                    }
+                    return null;
+                });
+                record(OperationType.TRANSACTION, System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                errors.get(OperationType.TRANSACTION).increment();
+            }
+        }
+    }
+
+    private void read(Connection conn, SplittableRandom random) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(READ)) {
+            stmt.setLong(1, key(random));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getLong(3);
+                }
+            }
+        }
+    }
+
+    private void write(Connection conn, SplittableRandom random) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(WRITE)) {
+            for (int i = 0; i < config.getBatchSize(); i++) {
+                stmt.setLong(1, key(random));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private long key(SplittableRandom random) {
+        return random.nextLong(config.getRows()) + 1;
+    }
+
+    private void measure(OperationType type, Operation operation) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            operation.run();
+        } catch (SQLException | RuntimeException e) {
+            errors.get(type).increment();
+            throw e;
+        }
+        record(type, System.nanoTime() - start);
+    }
+
+    private void record(OperationType type, long nanos) {
+        latencies.get(type).record(nanos);
+        intervalLatencies.get(type).get().record(nanos);
+    }
+
+    private void report(PrintStream progress, long start, long deadline) throws InterruptedException {
+        long last = start;
+        while (last < deadline) {
+            long next = Math.min(last + config.getInterval().toNanos(), deadline);
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, next - System.nanoTime()));
+            long now = System.nanoTime();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%8.1fs", (now - start) / 1e9));
+            for (OperationType type : OperationType.values()) {
+                LatencyHistogram interval = intervalLatencies.get(type).getAndSet(new LatencyHistogram());
+                line.append(String.format(Locale.ROOT, "  %s %8.0f/s p50 %7.3f p99 %7.3f ms",
+                        type.name().toLowerCase(Locale.ROOT), interval.getCount() * 1e9 / (now - last),
+                        interval.getPercentileNanos(0.5) / 1e6, interval.getPercentileNanos(0.99) / 1e6));
+            }
+            progress.println(line);
+            last = now;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws SQLException;
+    }
+}
@@ -0,0 +1,127 @@
+package it.mauluk92.jdbc.load;
+
+import it.mauluk92.jdbc.metrics.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The outcome of a run of a {@link WorkloadRunner}, written as JSON or CSV so that runs on different
+ * versions can be compared with a plain diff. Latencies are in milliseconds
+ */
+public class WorkloadSummary {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final WorkloadConfig config;
+    private final long elapsedNanos;
+    private final Map<OperationType, LatencyHistogram> latencies;
+    private final Map<OperationType, Long> errors;
+    private final long retries;
+
+    WorkloadSummary(WorkloadConfig config, long elapsedNanos, Map<OperationType, LatencyHistogram> latencies,
+                    Map<OperationType, Long> errors, long retries) {
+        this.config = config;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+        this.errors = errors;
+        this.retries = retries;
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Latencies of the operations of a type that succeeded
+     */
+    public LatencyHistogram getLatency(OperationType type) {
+        return latencies.get(type);
+    }
+
+    public long getOperations(OperationType type) {
+        return latencies.get(type).getCount();
+    }
+
+    /**
+     * Number of operations of a type that failed. For transactions, those that failed after all their retries
+     */
+    public long getErrors(OperationType type) {
+        return errors.get(type);
+    }
+
+    /**
+     * Number of transactions run again after a deadlock, a lock timeout or a serialization failure
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    public double getThroughput(OperationType type) {
+        return elapsedNanos == 0 ? 0 : getOperations(type) * 1e9 / elapsedNanos;
+    }
+
+    public String format(SummaryFormat format) {
+        return format == SummaryFormat.JSON ? toJson() : toCsv();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"url\": \"").append(config.getUrl().replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+        json.append("  \"threads\": ").append(config.getThreads()).append(",\n");
+        json.append("  \"readRatio\": ").append(number(config.getReadRatio())).append(",\n");
+        json.append("  \"batchSize\": ").append(config.getBatchSize()).append(",\n");
+        json.append("  \"transactionSize\": ").append(config.getTransactionSize()).append(",\n");
+        json.append("  \"rows\": ").append(config.getRows()).append(",\n");
+        json.append("  \"elapsedSeconds\": ").append(number(elapsedNanos / 1e9)).append(",\n");
+        json.append("  \"retries\": ").append(retries).append(",\n");
+        json.append("  \"operations\": {\n");
+        OperationType[] types = OperationType.values();
+        for (int i = 0; i < types.length; i++) {
+            OperationType type = types[i];
+            LatencyHistogram latency = latencies.get(type);
+            json.append("    \"").append(type.name().toLowerCase(Locale.ROOT)).append("\": {")
+                    .append("\"count\": ").append(latency.getCount())
+                    .append(", \"errors\": ").append(errors.get(type))
+                    .append(", \"perSecond\": ").append(number(getThroughput(type)))
+                    .append(", \"meanMs\": ").append(number(latency.getMeanNanos() / 1e6));
+            for (int q = 0; q < QUANTILES.length; q++) {
+                json.append(", \"").append(QUANTILE_NAMES[q]).append("Ms\": ")
+                        .append(number(latency.getPercentileNanos(QUANTILES[q]) / 1e6));
+            }
+            json.append(", \"maxMs\": ").append(number(latency.getMaxNanos() / 1e6))
+                    .append(i < types.length - 1 ? "},\n" : "}\n");
+        }
+        return json.append("  }\n}\n").toString();
+    }
+
+    /**
+     * One line per operation type, after a header line
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("operation,count,errors,per_second,mean_ms");
+        for (String name : QUANTILE_NAMES) {
+            csv.append(',').append(name).append("_ms");
+        }
+        csv.append(",max_ms\n");
+        for (OperationType type : OperationType.values()) {
+            LatencyHistogram latency = latencies.get(type);
+            csv.append(type.name().toLowerCase(Locale.ROOT))
+                    .append(',').append(latency.getCount())
+                    .append(',').append(errors.get(type))
+                    .append(',').append(number(getThroughput(type)))
+                    .append(',').append(number(latency.getMeanNanos() / 1e6));
+            for (double quantile : QUANTILES) {
+                csv.append(',').append(number(latency.getPercentileNanos(quantile) / 1e6));
+            }
+            csv.append(',').append(number(latency.getMaxNanos() / 1e6)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,127 @@
+package it.mauluk92.jdbc.mapping;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class maps rows to records. Every component of the record is matched, once, to the column
+ * with the same label, ignoring case and underscores: a component {@code firstName} reads the column {@code FIRST_NAME}.
+ * The column getters and the canonical constructor are then combined into a single {@link MethodHandle}
+ * taking the {@link ResultSet} and returning the record, so mapping a row involves no reflection,
+ * no label lookup, no intermediate array and, for primitive components, no boxing
+ *
+ * @param <R> type of the mapped records
+ */
+public final class RecordMapper<R extends Record> implements RowMapper<R> {
+
+    /**
+     * The canonical constructor of each record type, looked up once per class
+     */
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+            }
+            try {
+                return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                        .findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot access the canonical constructor of " + type, e);
+            }
+        }
+    };
+
+    private static final Map<Class<?>, String> PRIMITIVE_GETTERS = Map.of(
+            int.class, "getInt",
+            long.class, "getLong",
+            double.class, "getDouble",
+            float.class, "getFloat",
+            short.class, "getShort",
+            byte.class, "getByte",
+            boolean.class, "getBoolean",
+            String.class, "getString",
+            BigDecimal.class, "getBigDecimal"
+    );
+
+    private final MethodHandle mapper;
+
+    private RecordMapper(MethodHandle mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Builds a mapper for the rows described by the given metadata
+     *
+     * @throws SQLException if a component of the record has no matching column
+     */
+    public static <R extends Record> RecordMapper<R> of(Class<R> type, ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.putIfAbsent(normalize(metaData.getColumnLabel(i)), i);
+        }
+        RecordComponent[] components = type.getRecordComponents();
+        MethodHandle[] getters = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Integer column = columns.get(normalize(components[i].getName()));
+            if (column == null) {
+                throw new SQLException("No column matches the component " + components[i].getName() + " of " + type.getName());
+            }
+            getters[i] = getter(components[i].getType(), column);
+        }
+        // (ResultSet, ResultSet, ...) -> R, every argument filtered through the getter of its column
+        MethodHandle filtered = MethodHandles.filterArguments(CONSTRUCTORS.get(type), 0, getters);
+        // collapse the arguments into the single ResultSet: (ResultSet) -> R
+        MethodHandle mapper = MethodHandles.permuteArguments(filtered,
+                MethodType.methodType(type, ResultSet.class), new int[components.length]);
+        return new RecordMapper<>(mapper.asType(MethodType.methodType(Object.class, ResultSet.class)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R mapRow(ResultSet rs) throws SQLException {
+        try {
+            return (R) (Object) mapper.invokeExact(rs);
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SQLException(e);
+        }
+    }
+
+    /**
+     * Returns a handle reading the given column with the getter matching the component type:
+     * primitives and strings use their own getter, any other type goes through {@code getObject(int, Class)}
+     */
+    private static MethodHandle getter(Class<?> type, int column) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            String name = PRIMITIVE_GETTERS.get(type);
+            if (name != null) {
+                MethodHandle getter = lookup.findVirtual(ResultSet.class, name, MethodType.methodType(type, int.class));
+                return MethodHandles.insertArguments(getter, 1, column);
+            }
+            MethodHandle getter = lookup.findVirtual(ResultSet.class, "getObject",
+                    MethodType.methodType(Object.class, int.class, Class.class));
+            return MethodHandles.insertArguments(getter, 1, column, type)
+                    .asType(MethodType.methodType(type, ResultSet.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,105 @@
+package it.mauluk92.jdbc.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class exposes the rows of a {@link ResultSet} as a lazy {@link Iterator} or {@link Stream}.
+ * A row is read only when the consumer asks for it, and only the current row is ever held,
+ * so the memory used does not depend on the number of rows.
+ * The result set, and the statement that produced it, are closed as soon as the last row
+ * has been read, or when the stream or iterator is closed
+ *
+ * @param <T> type of the mapped objects
+ */
+public final class ResultSetStream<T> implements Iterator<T>, AutoCloseable {
+
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private boolean fetched;
+    private boolean hasNext;
+    private boolean closed;
+
+    private ResultSetStream(ResultSet rs, RowMapper<T> mapper) {
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    public static <T> ResultSetStream<T> iterator(ResultSet rs, RowMapper<T> mapper) {
+        return new ResultSetStream<>(rs, mapper);
+    }
+
+    public static <T> Stream<T> stream(ResultSet rs, RowMapper<T> mapper) {
+        ResultSetStream<T> iterator = iterator(rs, mapper);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false
+        ).onClose(iterator::close);
+    }
+
+    /**
+     * Streams the rows as records, see {@link RecordMapper}
+     */
+    public static <R extends Record> Stream<R> stream(ResultSet rs, Class<R> type) throws SQLException {
+        return stream(rs, RecordMapper.of(type, rs.getMetaData()));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!fetched) {
+            if (closed) {
+                return false;
+            }
+            try {
+                hasNext = rs.next();
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException(e);
+            }
+            fetched = true;
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        fetched = false;
+        try {
+            return mapper.mapRow(rs);
+        } catch (SQLException e) {
+            close();
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        hasNext = false;
+        fetched = true;
+        try {
+            Statement stmt = rs.getStatement();
+            rs.close();
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package it.mauluk92.jdbc.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns the current row of a {@link ResultSet} into an object.
+ * Implementations read the row, they never move the cursor
+ *
+ * @param <T> type of the mapped objects
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,191 @@
+package it.mauluk92.jdbc.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * This class wraps a {@link Connection}, and the statements and result sets obtained from it, in proxies
+ * recording their cost into a {@link JdbcMetrics}. Every {@code execute} call is timed under the shape of its SQL,
+ * every {@code ResultSet.next} call is counted, and so are commits, rollbacks and the time the connection is held.
+ * Everything else goes straight to the wrapped objects
+ */
+public final class InstrumentedConnection {
+
+    /**
+     * Shape under which the batches of plain statements are recorded, since they may mix any SQL
+     */
+    public static final String STATEMENT_BATCH = "<statement batch>";
+
+    private InstrumentedConnection() {
+    }
+
+    public static Connection wrap(Connection conn, JdbcMetrics metrics) {
+        ConnectionHandler handler = new ConnectionHandler(conn, metrics);
+        handler.proxy = proxy(Connection.class, handler);
+        return handler.proxy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection conn;
+        private final JdbcMetrics metrics;
+        private final long openedNanos = System.nanoTime();
+        private boolean closed;
+        private Connection proxy;
+
+        private ConnectionHandler(Connection conn, JdbcMetrics metrics) {
+            this.conn = conn;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement":
+                    return wrapStatement((Statement) InstrumentedConnection.invoke(conn, method, args), null);
+                case "prepareStatement":
+                case "prepareCall":
+                    return wrapStatement((Statement) InstrumentedConnection.invoke(conn, method, args), SqlShape.of((String) args[0]));
+                case "commit":
+                    return timed(metrics.getCommitLatency(), method, args);
+                case "rollback":
+                    return timed(metrics.getRollbackLatency(), method, args);
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        metrics.getConnectionHoldTime().record(System.nanoTime() - openedNanos);
+                    }
+                    return InstrumentedConnection.invoke(conn, method, args);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return InstrumentedConnection.invoke(conn, method, args);
+            }
+        }
+
+        private Object timed(LatencyHistogram histogram, Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return InstrumentedConnection.invoke(conn, method, args);
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+
+        private Statement wrapStatement(Statement stmt, String shape) {
+            StatementHandler handler = new StatementHandler(stmt, shape, this);
+            if (stmt instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (stmt instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement stmt;
+        /**
+         * Shape of a prepared statement, or of the last SQL executed by a plain statement
+         */
+        private String shape;
+        private final ConnectionHandler connection;
+
+        private StatementHandler(Statement stmt, String shape, ConnectionHandler connection) {
+            this.stmt = stmt;
+            this.shape = shape;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            switch (name) {
+                case "getResultSet":
+                case "getGeneratedKeys":
+                    return wrapResultSet((ResultSet) InstrumentedConnection.invoke(stmt, method, args), proxy);
+                case "getConnection":
+                    return connection.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return InstrumentedConnection.invoke(stmt, method, args);
+            }
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            if (args != null && args.length > 0 && args[0] instanceof String) {
+                shape = SqlShape.of((String) args[0]);
+            } else if (method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch")) {
+                shape = shape == null || !(stmt instanceof PreparedStatement) ? STATEMENT_BATCH : shape;
+            }
+            StatementStats stats = connection.metrics.statement(shape);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedConnection.invoke(stmt, method, args);
+            } catch (Throwable e) {
+                stats.recordError();
+                throw e;
+            } finally {
+                stats.getExecuteLatency().record(System.nanoTime() - start);
+            }
+            if (result instanceof ResultSet) {
+                return wrapResultSet((ResultSet) result, proxy);
+            }
+            return result;
+        }
+
+        private ResultSet wrapResultSet(ResultSet rs, Object statementProxy) {
+            if (rs == null) {
+                return null;
+            }
+            StatementStats stats = connection.metrics.statement(shape == null ? STATEMENT_BATCH : shape);
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        boolean hasRow = (Boolean) InstrumentedConnection.invoke(rs, method, args);
+                        stats.recordNext(hasRow);
+                        return hasRow;
+                    case "getStatement":
+                        return statementProxy;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return InstrumentedConnection.invoke(rs, method, args);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package it.mauluk92.jdbc.metrics;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class collects the measures taken by the connections wrapped with {@link InstrumentedConnection}:
+ * execution latency, rows fetched and {@code next} calls per SQL shape, commit and rollback latency,
+ * and how long connections are held. It is thread safe, and {@link #snapshot()} returns a frozen copy
+ * that can be asserted on or reported while the measures go on
+ */
+public class JdbcMetrics {
+
+    private final Map<String, StatementStats> statements;
+    private final LatencyHistogram commitLatency;
+    private final LatencyHistogram rollbackLatency;
+    private final LatencyHistogram connectionHoldTime;
+
+    public JdbcMetrics() {
+        this(new ConcurrentHashMap<>(), new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    private JdbcMetrics(Map<String, StatementStats> statements, LatencyHistogram commitLatency,
+                        LatencyHistogram rollbackLatency, LatencyHistogram connectionHoldTime) {
+        this.statements = statements;
+        this.commitLatency = commitLatency;
+        this.rollbackLatency = rollbackLatency;
+        this.connectionHoldTime = connectionHoldTime;
+    }
+
+    /**
+     * Returns the measures of the given SQL shape, see {@link SqlShape}
+     */
+    public StatementStats statement(String shape) {
+        return statements.computeIfAbsent(shape, StatementStats::new);
+    }
+
+    /**
+     * Measures per SQL shape, slowest in total first
+     */
+    public Map<String, StatementStats> getStatements() {
+        Map<String, StatementStats> sorted = new LinkedHashMap<>();
+        statements.values().stream()
+                .sorted(Comparator.comparingLong((StatementStats s) -> s.getExecuteLatency().getTotalNanos()).reversed())
+                .forEach(s -> sorted.put(s.getShape(), s));
+        return Collections.unmodifiableMap(sorted);
+    }
+
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    public LatencyHistogram getRollbackLatency() {
+        return rollbackLatency;
+    }
+
+    /**
+     * Time between the wrapping of a connection and its close
+     */
+    public LatencyHistogram getConnectionHoldTime() {
+        return connectionHoldTime;
+    }
+
+    /**
+     * Returns a copy of the current measures
+     */
+    public JdbcMetrics snapshot() {
+        Map<String, StatementStats> copies = new ConcurrentHashMap<>();
+        statements.forEach((shape, stats) -> copies.put(shape, stats.copy()));
+        return new JdbcMetrics(copies, commitLatency.copy(), rollbackLatency.copy(), connectionHoldTime.copy());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        getStatements().values().forEach(stats -> report.append(stats).append('\n'));
+        report.append("commit: ").append(commitLatency).append('\n');
+        report.append("rollback: ").append(rollbackLatency).append('\n');
+        report.append("connection hold: ").append(connectionHoldTime);
+        return report.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package it.mauluk92.jdbc.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The measures taken for the statements of one SQL shape
+ */
+public class StatementStats {
+
+    private final String shape;
+    private final LatencyHistogram executeLatency;
+    private final LongAdder rowsFetched;
+    private final LongAdder nextCalls;
+    private final LongAdder errors;
+
+    StatementStats(String shape) {
+        this(shape, new LatencyHistogram(), new LongAdder(), new LongAdder(), new LongAdder());
+    }
+
+    private StatementStats(String shape, LatencyHistogram executeLatency, LongAdder rowsFetched, LongAdder nextCalls, LongAdder errors) {
+        this.shape = shape;
+        this.executeLatency = executeLatency;
+        this.rowsFetched = rowsFetched;
+        this.nextCalls = nextCalls;
+        this.errors = errors;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * Time spent in the {@code execute} methods, one value per execution
+     */
+    public LatencyHistogram getExecuteLatency() {
+        return executeLatency;
+    }
+
+    public long getExecutions() {
+        return executeLatency.getCount();
+    }
+
+    /**
+     * Number of rows read from the result sets of the statements
+     */
+    public long getRowsFetched() {
+        return rowsFetched.sum();
+    }
+
+    /**
+     * Number of calls to {@code ResultSet.next}, including the last one returning false
+     */
+    public long getNextCalls() {
+        return nextCalls.sum();
+    }
+
+    /**
+     * Number of executions that threw an exception
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    void recordNext(boolean hasRow) {
+        nextCalls.increment();
+        if (hasRow) {
+            rowsFetched.increment();
+        }
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    StatementStats copy() {
+        LongAdder rows = new LongAdder();
+        rows.add(getRowsFetched());
+        LongAdder next = new LongAdder();
+        next.add(getNextCalls());
+        LongAdder failed = new LongAdder();
+        failed.add(getErrors());
+        return new StatementStats(shape, executeLatency.copy(), rows, next, failed);
+    }
+
+    @Override
+    public String toString() {
+        return shape + ": " + executeLatency + " rows=" + getRowsFetched() + " next=" + getNextCalls() + " errors=" + getErrors();
+    }
+}
@@ -0,0 +1,211 @@
+package it.mauluk92.jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a bounded, thread safe pool of physical JDBC connections.
+ * Opening a connection through the {@link DriverManager} is often more expensive than
+ * the work done with it, so connections are borrowed with {@link #acquire()} and handed
+ * back with {@link #release(Connection)}, which rolls back any pending work instead of
+ * closing the connection.
+ * The number of connections, idle or borrowed, never exceeds {@link ConnectionPoolConfig#getMaxSize()}:
+ * callers exceeding it wait in a fair queue. Idle connections are validated before being handed out,
+ * and those that have been idle or alive for too long are closed and replaced.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final ConnectionPoolConfig config;
+    private final Semaphore permits;
+    /**
+     * Idle connections, most recently released first, so that a lightly loaded pool keeps
+     * reusing the same few connections and lets the others reach the idle timeout
+     */
+    private final ConcurrentLinkedDeque<PooledEntry> idle = new ConcurrentLinkedDeque<>();
+    private final Map<Connection, PooledEntry> borrowed = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder totalAcquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger peakWaiting = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public ConnectionPool(ConnectionPoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+    }
+
+    /**
+     * Borrows a connection, waiting at most {@link ConnectionPoolConfig#getAcquireTimeout()}
+     * for one to become available
+     *
+     * @throws SQLTimeoutException if no connection became available in time
+     */
+    public Connection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        peakWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTimeoutException("Timed out after " + config.getAcquireTimeout() + " waiting for a connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        PooledEntry entry;
+        try {
+            entry = takeIdleOrCreate();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        borrowed.put(entry.connection, entry);
+        long elapsed = System.nanoTime() - start;
+        acquireCount.increment();
+        totalAcquireNanos.add(elapsed);
+        maxAcquireNanos.accumulateAndGet(elapsed, Math::max);
+        return entry.connection;
+    }
+
+    /**
+     * Gives a borrowed connection back to the pool. Any open transaction is rolled back
+     * and auto-commit is restored, so the next borrower finds the connection as the driver
+     * would have returned it. Connections that are closed, broken or past their lifetime are discarded.
+     */
+    public void release(Connection connection) {
+        PooledEntry entry = borrowed.remove(connection);
+        if (entry == null) {
+            throw new IllegalArgumentException("Connection was not borrowed from this pool");
+        }
+        try {
+            if (connection.isClosed()) {
+                evicted.increment();
+                return;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            long now = System.nanoTime();
+            if (closed || isExpired(entry, now)) {
+                discard(entry);
+            } else {
+                entry.lastUsedNanos = now;
+                idle.offerFirst(entry);
+            }
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes every idle connection past its idle timeout or lifetime. Expired connections are
+     * also dropped lazily by {@link #acquire()}, this method lets a caller reclaim them eagerly
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (PooledEntry entry : idle) {
+            if ((isIdleTooLong(entry, now) || isExpired(entry, now)) && idle.removeFirstOccurrence(entry)) {
+                discard(entry);
+            }
+        }
+    }
+
+    public ConnectionPoolMetrics getMetrics() {
+        return new ConnectionPoolMetrics(
+                acquireCount.sum(),
+                totalAcquireNanos.sum(),
+                maxAcquireNanos.get(),
+                waiting.get(),
+                peakWaiting.get(),
+                idle.size(),
+                borrowed.size(),
+                created.sum(),
+                evicted.sum(),
+                timeouts.sum()
+        );
+    }
+
+    public ConnectionPoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes all idle connections. Borrowed connections are closed as soon as they are released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    private PooledEntry takeIdleOrCreate() throws SQLException {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            long now = System.nanoTime();
+            if (isIdleTooLong(entry, now) || isExpired(entry, now)
+                    || !entry.connection.isValid(config.getValidationTimeoutSeconds())) {
+                discard(entry);
+                continue;
+            }
+            return entry;
+        }
+        Connection connection = DriverManager.getConnection(config.getUrl(), config.getUser(), config.getPassword());
+        created.increment();
+        return new PooledEntry(connection, System.nanoTime());
+    }
+
+    private boolean isIdleTooLong(PooledEntry entry, long now) {
+        return now - entry.lastUsedNanos > config.getIdleTimeout().toNanos();
+    }
+
+    private boolean isExpired(PooledEntry entry, long now) {
+        return now - entry.createdNanos > config.getMaxLifetime().toNanos();
+    }
+
+    private void discard(PooledEntry entry) {
+        evicted.increment();
+        try {
+            entry.connection.close();
+        } catch (SQLException ignored) {
+            // the connection is being thrown away, there is nothing left to do with it
+        }
+    }
+
+    private static class PooledEntry {
+        private final Connection connection;
+        private final long createdNanos;
+        private volatile long lastUsedNanos;
+
+        private PooledEntry(Connection connection, long createdNanos) {
+            this.connection = connection;
+            this.createdNanos = createdNanos;
+            this.lastUsedNanos = createdNanos;
+        }
+    }
+}
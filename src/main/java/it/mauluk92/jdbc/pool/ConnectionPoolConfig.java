@@ -0,0 +1,101 @@
+package it.mauluk92.jdbc.pool;
+
+import java.time.Duration;
+
+/**
+ * This class holds the settings of a {@link ConnectionPool}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class ConnectionPoolConfig {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private int maxSize = 4;
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    private int validationTimeoutSeconds = 1;
+
+    public ConnectionPoolConfig(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The maximum number of connections, idle or borrowed, the pool will ever hold
+     */
+    public ConnectionPoolConfig setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    /**
+     * How long {@link ConnectionPool#acquire()} waits for a free slot before failing
+     */
+    public ConnectionPoolConfig setAcquireTimeout(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+        return this;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Connections left unused in the pool for longer than this are closed
+     */
+    public ConnectionPoolConfig setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    public Duration getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    /**
+     * Connections older than this are closed instead of being handed out again
+     */
+    public ConnectionPoolConfig setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+        return this;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    /**
+     * Timeout passed to {@link java.sql.Connection#isValid(int)} when an idle connection is borrowed
+     */
+    public ConnectionPoolConfig setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        return this;
+    }
+}
@@ -0,0 +1,107 @@
+package it.mauluk92.jdbc.pool;
+
+/**
+ * An immutable snapshot of the counters kept by a {@link ConnectionPool}
+ */
+public class ConnectionPoolMetrics {
+
+    private final long acquireCount;
+    private final long totalAcquireNanos;
+    private final long maxAcquireNanos;
+    private final int waiting;
+    private final int peakWaiting;
+    private final int idle;
+    private final int borrowed;
+    private final long created;
+    private final long evicted;
+    private final long timeouts;
+
+    ConnectionPoolMetrics(long acquireCount, long totalAcquireNanos, long maxAcquireNanos, int waiting, int peakWaiting,
+                          int idle, int borrowed, long created, long evicted, long timeouts) {
+        this.acquireCount = acquireCount;
+        this.totalAcquireNanos = totalAcquireNanos;
+        this.maxAcquireNanos = maxAcquireNanos;
+        this.waiting = waiting;
+        this.peakWaiting = peakWaiting;
+        this.idle = idle;
+        this.borrowed = borrowed;
+        this.created = created;
+        this.evicted = evicted;
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Number of successful calls to {@link ConnectionPool#acquire()}
+     */
+    public long getAcquireCount() {
+        return acquireCount;
+    }
+
+    public long getTotalAcquireNanos() {
+        return totalAcquireNanos;
+    }
+
+    public long getMaxAcquireNanos() {
+        return maxAcquireNanos;
+    }
+
+    public double getMeanAcquireNanos() {
+        return acquireCount == 0 ? 0 : (double) totalAcquireNanos / acquireCount;
+    }
+
+    /**
+     * Number of threads currently queued waiting for a connection
+     */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    /**
+     * Highest number of threads ever queued at the same time
+     */
+    public int getPeakWaiting() {
+        return peakWaiting;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getBorrowed() {
+        return borrowed;
+    }
+
+    /**
+     * Number of physical connections opened through the driver
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * Number of physical connections closed because they were idle, expired or invalid
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" +
+                "acquireCount=" + acquireCount +
+                ", meanAcquireNanos=" + (long) getMeanAcquireNanos() +
+                ", maxAcquireNanos=" + maxAcquireNanos +
+                ", waiting=" + waiting +
+                ", peakWaiting=" + peakWaiting +
+                ", idle=" + idle +
+                ", borrowed=" + borrowed +
+                ", created=" + created +
+                ", evicted=" + evicted +
+                ", timeouts=" + timeouts +
+                '}';
+    }
+}
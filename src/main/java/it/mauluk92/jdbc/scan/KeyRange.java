@@ -0,0 +1,28 @@
+package it.mauluk92.jdbc.scan;
+
+/**
+ * A range of keys, both ends included, read by one task of a {@link PartitionedScan}
+ */
+public final class KeyRange {
+
+    private final long from;
+    private final long to;
+
+    KeyRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+}
@@ -0,0 +1,275 @@
+package it.mauluk92.jdbc.scan;
+
+import it.mauluk92.jdbc.mapping.ResultSetStream;
+import it.mauluk92.jdbc.mapping.RowMapper;
+import it.mauluk92.jdbc.mapping.UncheckedSQLException;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class reads a whole table in parallel: the span of its integer key, from the lowest to the highest value,
+ * is split into ranges, and each range is read by its own query on its own connection borrowed from a
+ * {@link ConnectionPool}. Ranges are read by the threads of a {@link ForkJoinPool} of the configured parallelism.
+ * The rows can be consumed in no particular order with {@link #forEach(Consumer)},
+ * or in key order with {@link #orderedIterator()} and {@link #stream()}, which read the next ranges ahead
+ * of the consumer into bounded queues.
+ * Ranges have the same width, not the same number of rows: keys with large gaps make uneven ranges,
+ * which is why the key space is split in more ranges than threads.
+ * Table, key and column names are inserted in the SQL as they are, they must not come from untrusted input
+ *
+ * @param <T> type of the mapped rows
+ */
+public class PartitionedScan<T> implements AutoCloseable {
+
+    private static final Object END = new Object();
+    private static final Object NULL = new Object();
+
+    private final ConnectionPool pool;
+    private final String table;
+    private final String key;
+    private final String sql;
+    private final RowMapper<T> mapper;
+    private final PartitionedScanConfig config;
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * @param key     integer key column, usually the primary key
+     * @param columns columns to select
+     */
+    public PartitionedScan(ConnectionPool pool, String table, String key, String columns, RowMapper<T> mapper,
+                           PartitionedScanConfig config) {
+        this.pool = pool;
+        this.table = table;
+        this.key = key;
+        this.sql = "SELECT " + columns + " FROM " + table + " WHERE " + key + " BETWEEN ? AND ? ORDER BY " + key;
+        this.mapper = mapper;
+        this.config = config;
+        this.forkJoinPool = new ForkJoinPool(config.getParallelism());
+    }
+
+    /**
+     * Splits the span of the keys into ranges of the same width
+     */
+    public List<KeyRange> ranges() throws SQLException {
+        long min;
+        long max;
+        Connection conn = pool.acquire();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(" + key + "), MAX(" + key + ") FROM " + table)) {
+            rs.next();
+            min = rs.getLong(1);
+            if (rs.wasNull()) {
+                return List.of();
+            }
+            max = rs.getLong(2);
+        } finally {
+            pool.release(conn);
+        }
+        long partitions = (long) config.getParallelism() * config.getPartitionsPerThread();
+        long width = Math.max(1, Math.floorDiv(max - min, partitions) + 1);
+        List<KeyRange> ranges = new ArrayList<>();
+        for (long from = min; ; from += width) {
+            long to = max - from < width ? max : from + width - 1;
+            ranges.add(new KeyRange(from, to));
+            if (to == max) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Streams the rows of every range, in key order. The ranges are read by the threads of the scan,
+     * as by {@link #orderedIterator()}, so the configured parallelism holds whatever thread consumes the stream;
+     * the stream itself is sequential. Closing the stream stops the reads still running
+     */
+    public Stream<T> stream() throws SQLException {
+        OrderedIterator iterator = orderedIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Passes every row to the action, from the threads of the scan. The action must be thread safe
+     */
+    public void forEach(Consumer<? super T> action) throws SQLException {
+        List<KeyRange> ranges = ranges();
+        try {
+            forkJoinPool.submit(() -> ranges.parallelStream().flatMap(this::range).forEach(action)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Scan of " + table + " interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedSQLException) {
+                throw ((UncheckedSQLException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new SQLException("Scan of " + table + " failed", e.getCause());
+        }
+    }
+
+    /**
+     * Iterates over the rows in key order. As many ranges as the parallelism are read at the same time:
+     * the one being consumed and the next ones. Closing the iterator stops the reads still running
+     */
+    public OrderedIterator orderedIterator() throws SQLException {
+        return new OrderedIterator(ranges());
+    }
+
+    /**
+     * Shuts the threads of the scan down, and waits for the reads still running to give their connections back.
+     * The connection pool is left open
+     */
+    @Override
+    public void close() {
+        forkJoinPool.shutdownNow();
+        try {
+            forkJoinPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Stream<T> range(KeyRange range) {
+        Connection conn;
+        try {
+            conn = pool.acquire();
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            stmt.setLong(1, range.getFrom());
+            stmt.setLong(2, range.getTo());
+            return ResultSetStream.stream(stmt.executeQuery(), mapper).onClose(() -> pool.release(conn));
+        } catch (SQLException e) {
+            pool.release(conn);
+            throw new UncheckedSQLException(e);
+        }
+    }
+
+    /**
+     * Merges the ranges in key order. A task reads each range into its own bounded queue; a task is started only
+     * when the consumer reaches the range parallelism places before, so that every running task has a thread,
+     * and a task blocked on a full queue can never hold back the range being consumed
+     */
+    public final class OrderedIterator implements Iterator<T>, AutoCloseable {
+
+        private final List<KeyRange> ranges;
+        private final Deque<BlockingQueue<Object>> window = new ArrayDeque<>();
+        private int started;
+        private Object next;
+        private volatile boolean closed;
+
+        private OrderedIterator(List<KeyRange> ranges) {
+            this.ranges = ranges;
+            while (window.size() < config.getParallelism() && started < ranges.size()) {
+                startNext();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !window.isEmpty()) {
+                Object item;
+                try {
+                    item = window.peekFirst().take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new IllegalStateException("Scan of " + table + " interrupted", e);
+                }
+                if (item == END) {
+                    window.pollFirst();
+                    if (started < ranges.size()) {
+                        startNext();
+                    }
+                } else if (item instanceof Failure) {
+                    close();
+                    throw ((Failure) item).cause;
+                } else {
+                    next = item;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object item = next;
+            next = null;
+            return item == NULL ? null : (T) item;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            window.clear();
+        }
+
+        private void startNext() {
+            KeyRange range = ranges.get(started++);
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+            window.addLast(queue);
+            forkJoinPool.execute(() -> {
+                try {
+                    try (Stream<T> rows = range(range)) {
+                        Iterator<T> iterator = rows.iterator();
+                        while (iterator.hasNext() && !closed) {
+                            T row = iterator.next();
+                            put(queue, row == null ? NULL : row);
+                        }
+                        put(queue, END);
+                    } catch (RuntimeException e) {
+                        put(queue, new Failure(e));
+                    }
+                } catch (InterruptedException e) {
+                    // the scan was shut down
+                }
+            });
+        }
+
+        private void put(BlockingQueue<Object> queue, Object item) throws InterruptedException {
+            while (!closed) {
+                if (queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Failure {
+        private final RuntimeException cause;
+
+        private Failure(RuntimeException cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package it.mauluk92.jdbc.scan;
+
+/**
+ * This class holds the settings of a {@link PartitionedScan}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class PartitionedScanConfig {
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int partitionsPerThread = 4;
+    private int queueCapacity = 1_024;
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Number of ranges read at the same time, each on its own connection.
+     * The connection pool must be able to lend as many connections
+     */
+    public PartitionedScanConfig setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getPartitionsPerThread() {
+        return partitionsPerThread;
+    }
+
+    /**
+     * Number of ranges per thread the key space is split into. More ranges than threads
+     * balance the load when keys are not evenly spread
+     */
+    public PartitionedScanConfig setPartitionsPerThread(int partitionsPerThread) {
+        if (partitionsPerThread < 1) {
+            throw new IllegalArgumentException("partitionsPerThread must be at least 1");
+        }
+        this.partitionsPerThread = partitionsPerThread;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Number of rows each range may read ahead of the consumer of an ordered iterator
+     */
+    public PartitionedScanConfig setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+}
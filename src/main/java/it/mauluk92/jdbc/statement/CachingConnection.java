@@ -0,0 +1,11 @@
+package it.mauluk92.jdbc.statement;
+
+import java.sql.Connection;
+
+/**
+ * A {@link Connection} keeping the statements it prepares in a cache, see {@link StatementCache}
+ */
+public interface CachingConnection extends Connection {
+
+    StatementCacheStats getStatementCacheStats();
+}
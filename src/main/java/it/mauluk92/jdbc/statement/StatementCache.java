@@ -0,0 +1,216 @@
+package it.mauluk92.jdbc.statement;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class wraps a {@link Connection} so that the statements it prepares are kept in a least recently used cache.
+ * Closing a statement obtained from the wrapper gives it back to the cache instead of closing it, and preparing
+ * the same SQL again returns it with its parameters cleared, sparing the DBMS the parse and plan of the statement.
+ * Statements are cached by SQL text, result set type and concurrency, up to a capacity per connection.
+ * A statement evicted while a caller is still using it is closed as soon as the caller closes it.
+ * If the statement for a SQL text is already in use, a second, uncached statement is prepared.
+ * Like the connection it wraps, the cache is not thread safe
+ */
+public final class StatementCache implements InvocationHandler {
+
+    private final Connection conn;
+    private final Map<Key, Entry> statements;
+    private CachingConnection proxy;
+    private Entry evicted;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private StatementCache(Connection conn, int capacity) {
+        this.conn = conn;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                evictions++;
+                evicted = eldest.getValue();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Wraps a connection, caching up to {@code capacity} prepared statements
+     */
+    public static CachingConnection wrap(Connection conn, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        StatementCache cache = new StatementCache(conn, capacity);
+        cache.proxy = (CachingConnection) Proxy.newProxyInstance(
+                CachingConnection.class.getClassLoader(), new Class<?>[]{CachingConnection.class}, cache);
+        return cache.proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "getStatementCacheStats":
+                return new StatementCacheStats(hits, misses, evictions, statements.size());
+            case "prepareStatement":
+                if (args.length == 1) {
+                    return prepare(new Key((String) args[0], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+                }
+                if (args.length == 3 && method.getParameterTypes()[1] == int.class && method.getParameterTypes()[2] == int.class) {
+                    return prepare(new Key((String) args[0], (Integer) args[1], (Integer) args[2]));
+                }
+                break;
+            case "close":
+                closeAll();
+                break;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        return delegate(conn, method, args);
+    }
+
+    private PreparedStatement prepare(Key key) throws SQLException {
+        Entry entry = statements.get(key);
+        if (entry != null && !entry.inUse) {
+            hits++;
+            entry.statement.clearParameters();
+            entry.inUse = true;
+            return entry.proxy;
+        }
+        misses++;
+        PreparedStatement statement = conn.prepareStatement(key.sql, key.resultSetType, key.concurrency);
+        Entry created = new Entry(statement, entry == null);
+        if (entry == null) {
+            statements.put(key, created);
+            if (evicted != null) {
+                Entry eldest = evicted;
+                evicted = null;
+                eldest.evict();
+            }
+        }
+        return created.proxy;
+    }
+
+    private void closeAll() throws SQLException {
+        List<Entry> entries = new ArrayList<>(statements.values());
+        statements.clear();
+        for (Entry entry : entries) {
+            entry.cached = false;
+            entry.statement.close();
+        }
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Key {
+        private final String sql;
+        private final int resultSetType;
+        private final int concurrency;
+
+        private Key(String sql, int resultSetType, int concurrency) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resultSetType == key.resultSetType && concurrency == key.concurrency && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, resultSetType, concurrency);
+        }
+    }
+
+    /**
+     * A physical statement and the proxy handed out for it. The proxy turns {@code close} into
+     * a return to the cache, as long as the statement is still cached: its result set is closed,
+     * its batch and warnings cleared
+     */
+    private final class Entry implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean cached;
+        private boolean inUse = true;
+
+        private Entry(PreparedStatement statement, boolean cached) {
+            this.statement = statement;
+            this.cached = cached;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class}, this);
+        }
+
+        private void evict() throws SQLException {
+            cached = false;
+            if (!inUse) {
+                statement.close();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!inUse) {
+                        return null;
+                    }
+                    inUse = false;
+                    if (cached) {
+                        // as a closed statement would, the cached one lets go of its result set
+                        ResultSet rs = statement.getResultSet();
+                        if (rs != null) {
+                            rs.close();
+                        }
+                        statement.clearBatch();
+                        statement.clearWarnings();
+                    } else {
+                        statement.close();
+                    }
+                    return null;
+                case "isClosed":
+                    return !inUse || statement.isClosed();
+                case "getConnection":
+                    return StatementCache.this.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (!inUse) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    return delegate(statement, method, args);
+            }
+        }
+    }
+}
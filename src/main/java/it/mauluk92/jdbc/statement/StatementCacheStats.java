@@ -0,0 +1,57 @@
+package it.mauluk92.jdbc.statement;
+
+/**
+ * An immutable snapshot of the counters kept by a statement cache
+ */
+public class StatementCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    StatementCacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /**
+     * Number of statements served from the cache without being prepared again
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Number of statements that had to be prepared by the driver
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Number of statements pushed out of the cache to make room for new ones
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Number of statements currently cached
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheStats{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + ", size=" + size + '}';
+    }
+}
@@ -0,0 +1,47 @@
+package it.mauluk92.jdbc.streaming;
+
+/**
+ * This class decides how many rows a streaming query asks the driver for at each round trip.
+ * The first fetch is small, so that short queries and consumers reading only a few rows stay cheap.
+ * Every time a whole fetch has been consumed the next one doubles, up to the maximum,
+ * so long scans quickly reach large fetches without ever buffering more than {@code max} rows
+ */
+public class FetchSizePolicy {
+
+    private final int initial;
+    private final int max;
+
+    public FetchSizePolicy(int initial, int max) {
+        if (initial < 1 || max < initial) {
+            throw new IllegalArgumentException("Expected 1 <= initial <= max, got " + initial + " and " + max);
+        }
+        this.initial = initial;
+        this.max = max;
+    }
+
+    public static FetchSizePolicy defaults() {
+        return new FetchSizePolicy(64, 8_192);
+    }
+
+    /**
+     * A policy always using the same fetch size
+     */
+    public static FetchSizePolicy fixed(int fetchSize) {
+        return new FetchSizePolicy(fetchSize, fetchSize);
+    }
+
+    public int getInitial() {
+        return initial;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * The fetch size following {@code current}, once {@code current} rows have been consumed
+     */
+    public int next(int current) {
+        return (int) Math.min((long) current * 2, max);
+    }
+}
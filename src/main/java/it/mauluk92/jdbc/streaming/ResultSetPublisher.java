@@ -0,0 +1,130 @@
+package it.mauluk92.jdbc.streaming;
+
+import it.mauluk92.jdbc.mapping.ResultSetStream;
+
+import java.sql.SQLException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Flow.Publisher} emitting the rows of a query to a single subscriber.
+ * Rows are read on the thread requesting them and only as many as requested, so a slow subscriber
+ * slows down the reads instead of piling up rows in memory
+ *
+ * @param <T> type of the mapped rows
+ */
+class ResultSetPublisher<T> implements Flow.Publisher<T> {
+
+    @FunctionalInterface
+    interface Source<T> {
+        ResultSetStream<T> open() throws SQLException;
+    }
+
+    private final Source<T> source;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    ResultSetPublisher(Source<T> source) {
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("This publisher supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    private class RowSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        /**
+         * Guards the emission loop: a subscriber requesting more rows from within onNext
+         * only raises the demand, the loop already running serves it
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private boolean done;
+        private ResultSetStream<T> rows;
+
+        private RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " rows, expected a positive number"));
+                return;
+            }
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                emit();
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void emit() {
+            if (done) {
+                return;
+            }
+            try {
+                if (cancelled) {
+                    finish();
+                    return;
+                }
+                if (rows == null) {
+                    rows = source.open();
+                }
+                while (demand.get() > 0 && !cancelled) {
+                    if (!rows.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(rows.next());
+                }
+                if (cancelled) {
+                    finish();
+                }
+            } catch (SQLException | RuntimeException e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (rows != null) {
+                rows.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package it.mauluk92.jdbc.streaming;
+
+import it.mauluk92.jdbc.mapping.ResultSetStream;
+import it.mauluk92.jdbc.mapping.RowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+/**
+ * This class runs queries meant to read large amounts of rows with bounded memory.
+ * Statements are always {@code TYPE_FORWARD_ONLY} and {@code CONCUR_READ_ONLY}: the driver has no reason to keep
+ * rows already read, unlike scrollable result sets which may hold the whole result to move back and forth.
+ * The fetch size grows as rows are consumed, see {@link FetchSizePolicy}.
+ * Rows can be pulled, through a {@link Stream}, or pushed at the pace requested by a {@link Flow.Subscriber}
+ */
+public class StreamingQuery {
+
+    private final Connection conn;
+    private final FetchSizePolicy fetchSizePolicy;
+
+    public StreamingQuery(Connection conn, FetchSizePolicy fetchSizePolicy) {
+        this.conn = conn;
+        this.fetchSizePolicy = fetchSizePolicy;
+    }
+
+    public StreamingQuery(Connection conn) {
+        this(conn, FetchSizePolicy.defaults());
+    }
+
+    /**
+     * Runs the query and streams its rows. The stream must be closed, or fully consumed, to release the cursor
+     */
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        ResultSet rs = open(sql, params);
+        return ResultSetStream.stream(rs, adaptive(mapper));
+    }
+
+    /**
+     * Returns a publisher running the query once its subscriber requests the first rows.
+     * Rows are read on the thread calling {@link Flow.Subscription#request(long)}, and never more than requested
+     */
+    public <T> Flow.Publisher<T> publisher(String sql, RowMapper<T> mapper, Object... params) {
+        return new ResultSetPublisher<>(() -> ResultSetStream.iterator(open(sql, params), adaptive(mapper)));
+    }
+
+    ResultSet open(String sql, Object... params) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            stmt.setFetchSize(fetchSizePolicy.getInitial());
+            return stmt.executeQuery();
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps a mapper so that the fetch size of the result set is raised each time a whole fetch has been read
+     */
+    <T> RowMapper<T> adaptive(RowMapper<T> mapper) {
+        return new RowMapper<>() {
+            private int fetchSize = fetchSizePolicy.getInitial();
+            private int remaining = fetchSize;
+
+            @Override
+            public T mapRow(ResultSet rs) throws SQLException {
+                if (--remaining == 0) {
+                    fetchSize = fetchSizePolicy.next(fetchSize);
+                    remaining = fetchSize;
+                    rs.setFetchSize(fetchSize);
+                }
+                return mapper.mapRow(rs);
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package it.mauluk92.jdbc.tx;
+
+/**
+ * The retryable failures of the statements of one SQL shape, as counted by a {@link RetryingTransactionExecutor}.
+ * Failures of the commit are counted under the shape {@code COMMIT}
+ */
+public class ContentionStats {
+
+    private final String shape;
+    private final long deadlocks;
+    private final long lockTimeouts;
+    private final long serializationFailures;
+
+    ContentionStats(String shape, long deadlocks, long lockTimeouts, long serializationFailures) {
+        this.shape = shape;
+        this.deadlocks = deadlocks;
+        this.lockTimeouts = lockTimeouts;
+        this.serializationFailures = serializationFailures;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public long getDeadlocks() {
+        return deadlocks;
+    }
+
+    public long getLockTimeouts() {
+        return lockTimeouts;
+    }
+
+    public long getSerializationFailures() {
+        return serializationFailures;
+    }
+
+    public long getConflicts() {
+        return deadlocks + lockTimeouts + serializationFailures;
+    }
+
+    @Override
+    public String toString() {
+        return "ContentionStats{shape=" + shape + ", deadlocks=" + deadlocks + ", lockTimeouts=" + lockTimeouts
+                + ", serializationFailures=" + serializationFailures + "}";
+    }
+}
@@ -0,0 +1,38 @@
+package it.mauluk92.jdbc.tx;
+
+/**
+ * The kinds of failure told apart by {@link SqlErrorClassifier}
+ */
+public enum ErrorKind {
+
+    /**
+     * The transaction was chosen as the victim of a deadlock and rolled back
+     */
+    DEADLOCK(true),
+    /**
+     * A lock held by another transaction was not released in time
+     */
+    LOCK_TIMEOUT(true),
+    /**
+     * A concurrent transaction changed the same rows, or the DBMS rolled back the transaction
+     * for another reason of the SQL state class {@code 40}
+     */
+    SERIALIZATION_FAILURE(true),
+    /**
+     * Any other failure, which would happen again if the transaction were run again
+     */
+    FATAL(false);
+
+    private final boolean retryable;
+
+    ErrorKind(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    /**
+     * Whether running the transaction again may succeed
+     */
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
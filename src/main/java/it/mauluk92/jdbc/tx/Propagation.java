@@ -0,0 +1,25 @@
+package it.mauluk92.jdbc.tx;
+
+/**
+ * How a {@link TransactionManager} scope relates to the transaction already running on the thread, if any
+ */
+public enum Propagation {
+
+    /**
+     * Joins the running transaction, or starts one if there is none.
+     * A failure marks the whole transaction as rollback only
+     */
+    REQUIRED,
+
+    /**
+     * Always starts a new transaction, on another connection, committed or rolled back on its own.
+     * The running transaction is suspended until the scope ends
+     */
+    REQUIRES_NEW,
+
+    /**
+     * Runs within the running transaction, from a savepoint: a failure rolls back to the savepoint,
+     * leaving the work done before it in place. Starts a new transaction if there is none
+     */
+    NESTED
+}
@@ -0,0 +1,89 @@
+package it.mauluk92.jdbc.tx;
+
+import java.time.Duration;
+
+/**
+ * This class holds the settings of a {@link RetryingTransactionExecutor}.
+ * Every setter returns the same instance, so that a configuration
+ * can be written as a single chained expression
+ */
+public class RetryPolicy {
+
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofMillis(5);
+    private Duration maxBackoff = Duration.ofMillis(500);
+    private double budgetRatio = 0.2;
+    private int budgetCapacity = 100;
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Maximum number of times a transaction is run, the first one included
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Upper bound of the wait before the first retry, doubled at each following retry.
+     * The actual wait is drawn at random below the bound, so that transactions that failed together
+     * do not run again together
+     */
+    public RetryPolicy setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Limit of the bound of the wait, however many retries were made
+     */
+    public RetryPolicy setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    /**
+     * Retries earned by each transaction: with {@code 0.2}, one retry every five transactions.
+     * When contention lasts, failures are thrown once the budget is spent instead of adding more load
+     */
+    public RetryPolicy setBudgetRatio(double budgetRatio) {
+        if (budgetRatio < 0) {
+            throw new IllegalArgumentException("budgetRatio must not be negative");
+        }
+        this.budgetRatio = budgetRatio;
+        return this;
+    }
+
+    public int getBudgetCapacity() {
+        return budgetCapacity;
+    }
+
+    /**
+     * Maximum number of retries saved in the budget, which starts full
+     */
+    public RetryPolicy setBudgetCapacity(int budgetCapacity) {
+        if (budgetCapacity < 0) {
+            throw new IllegalArgumentException("budgetCapacity must not be negative");
+        }
+        this.budgetCapacity = budgetCapacity;
+        return this;
+    }
+}
@@ -0,0 +1,255 @@
+package it.mauluk92.jdbc.tx;
+
+import it.mauluk92.jdbc.metrics.SqlShape;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class runs work in a transaction, and runs it again when the transaction fails because of contention:
+ * a deadlock, a lock timeout or a serialization failure, as told by {@link SqlErrorClassifier}.
+ * Any other failure is thrown at once. Every attempt uses a fresh transaction on a connection borrowed
+ * from a {@link ConnectionPool}, so the work must not keep state from a failed attempt.
+ * Retries wait a random time below an exponentially growing bound, and are taken from a budget earned
+ * by the transactions run: when contention lasts, the budget runs out and failures are thrown instead
+ * of adding load to the DBMS. Retryable failures are counted per SQL shape of the statement that failed,
+ * to find the statements where transactions collide
+ */
+public class RetryingTransactionExecutor {
+
+    private static final String COMMIT = "COMMIT";
+
+    private final ConnectionPool pool;
+    private final RetryPolicy policy;
+    private final Map<String, LongAdder[]> contention = new ConcurrentHashMap<>();
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder rejectedRetries = new LongAdder();
+    private double budget;
+
+    public RetryingTransactionExecutor(ConnectionPool pool) {
+        this(pool, new RetryPolicy());
+    }
+
+    public RetryingTransactionExecutor(ConnectionPool pool, RetryPolicy policy) {
+        this.pool = pool;
+        this.policy = policy;
+        this.budget = policy.getBudgetCapacity();
+    }
+
+    /**
+     * Runs the work in a transaction, committed when the work returns and rolled back when it throws
+     *
+     * @throws SQLException the failure of the last attempt, when it is not retryable, when the attempts are over
+     *                      or when the retry budget is spent
+     */
+    public <T> T execute(TransactionCallback<T> work) throws SQLException {
+        transactions.increment();
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(work);
+            } catch (SQLException e) {
+                if (!SqlErrorClassifier.isRetryable(e) || attempt >= policy.getMaxAttempts()) {
+                    throw e;
+                }
+                if (!withdraw()) {
+                    rejectedRetries.increment();
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    /**
+     * Number of transactions run, each counted once however many attempts it took
+     */
+    public long getTransactions() {
+        return transactions.sum();
+    }
+
+    /**
+     * Number of attempts made after a retryable failure
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Number of retryable failures thrown because the retry budget was spent
+     */
+    public long getRejectedRetries() {
+        return rejectedRetries.sum();
+    }
+
+    /**
+     * The retryable failures so far, by SQL shape in alphabetical order
+     */
+    public Map<String, ContentionStats> getContention() {
+        Map<String, ContentionStats> stats = new TreeMap<>();
+        contention.forEach((shape, counts) -> stats.put(shape, new ContentionStats(shape,
+                counts[ErrorKind.DEADLOCK.ordinal()].sum(),
+                counts[ErrorKind.LOCK_TIMEOUT.ordinal()].sum(),
+                counts[ErrorKind.SERIALIZATION_FAILURE.ordinal()].sum())));
+        return stats;
+    }
+
+    private <T> T attempt(TransactionCallback<T> work) throws SQLException {
+        Connection conn = pool.acquire();
+        try {
+            conn.setAutoCommit(false);
+            T result = work.doInTransaction((Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandler(conn)));
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                record(COMMIT, e);
+                throw e;
+            }
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            pool.release(conn);
+        }
+    }
+
+    private void record(String sql, SQLException e) {
+        ErrorKind kind = SqlErrorClassifier.classify(e);
+        if (kind.isRetryable()) {
+            contention.computeIfAbsent(SqlShape.of(sql), shape -> {
+                LongAdder[] counts = new LongAdder[ErrorKind.values().length];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = new LongAdder();
+                }
+                return counts;
+            })[kind.ordinal()].increment();
+        }
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(policy.getBudgetCapacity(), budget + policy.getBudgetRatio());
+    }
+
+    private synchronized boolean withdraw() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    private void backoff(int attempt, SQLException failure) throws SQLException {
+        long bound = Math.min(policy.getMaxBackoff().toNanos(),
+                policy.getInitialBackoff().toNanos() << Math.min(attempt - 1, 30));
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.addSuppressed(e);
+            throw failure;
+        }
+    }
+
+    /**
+     * Lends the connection of an attempt to the work, so that its statements report the SQL they fail with.
+     * Closing the connection is left to the executor
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection conn;
+
+        private ConnectionHandler(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return false;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = invokeOn(conn, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                        new StatementHandler((Statement) result, (Connection) proxy, sql));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records the retryable failures of the {@code execute} methods under the shape of the statement
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement stmt;
+        private final Connection conn;
+        private final String preparedSql;
+
+        private StatementHandler(Statement stmt, Connection conn, String preparedSql) {
+            this.stmt = stmt;
+            this.conn = conn;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return conn;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return invokeOn(stmt, method, args);
+            } catch (SQLException e) {
+                if (method.getName().startsWith("execute")) {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                    record(sql == null ? method.getName() : sql, e);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
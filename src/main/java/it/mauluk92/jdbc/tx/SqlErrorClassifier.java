@@ -0,0 +1,65 @@
+package it.mauluk92.jdbc.tx;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+/**
+ * This class tells whether a failed transaction is worth running again, from the SQL state and vendor code
+ * of its {@link SQLException}. The vendor codes are those of H2:
+ * <ul>
+ *     <li>{@code 40001}, deadlock detected, with SQL state {@code 40001}</li>
+ *     <li>{@code 50200}, lock timeout, with SQL state {@code HYT00}</li>
+ *     <li>{@code 90131}, concurrent update of the same row</li>
+ * </ul>
+ * Other drivers are recognized by the standard SQL states: class {@code 40} is a transaction rollback,
+ * {@code 40001} a serialization failure and {@code 40P01} a deadlock.
+ * The whole chain of the exception is inspected, causes and next exceptions included,
+ * since a failure may be wrapped by the code that ran the statement
+ */
+public final class SqlErrorClassifier {
+
+    private static final int H2_DEADLOCK = 40001;
+    private static final int H2_LOCK_TIMEOUT = 50200;
+    private static final int H2_CONCURRENT_UPDATE = 90131;
+
+    private SqlErrorClassifier() {
+    }
+
+    public static ErrorKind classify(SQLException e) {
+        for (Throwable t = e; t != null; t = next(t)) {
+            if (t instanceof SQLException) {
+                ErrorKind kind = classifyOne((SQLException) t);
+                if (kind != ErrorKind.FATAL) {
+                    return kind;
+                }
+            }
+        }
+        return ErrorKind.FATAL;
+    }
+
+    public static boolean isRetryable(SQLException e) {
+        return classify(e).isRetryable();
+    }
+
+    private static ErrorKind classifyOne(SQLException e) {
+        String state = e.getSQLState() == null ? "" : e.getSQLState();
+        int code = e.getErrorCode();
+        if (code == H2_DEADLOCK || state.equals("40P01")) {
+            return ErrorKind.DEADLOCK;
+        }
+        if (code == H2_LOCK_TIMEOUT || state.equals("HYT00")) {
+            return ErrorKind.LOCK_TIMEOUT;
+        }
+        if (code == H2_CONCURRENT_UPDATE || state.startsWith("40") || e instanceof SQLTransactionRollbackException) {
+            return ErrorKind.SERIALIZATION_FAILURE;
+        }
+        return ErrorKind.FATAL;
+    }
+
+    private static Throwable next(Throwable t) {
+        if (t instanceof SQLException && ((SQLException) t).getNextException() != null) {
+            return ((SQLException) t).getNextException();
+        }
+        return t.getCause() == t ? null : t.getCause();
+    }
+}
@@ -0,0 +1,18 @@
+package it.mauluk92.jdbc.tx;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The work of a {@link TransactionManager} scope
+ *
+ * @param <T> type of the result
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+
+    /**
+     * @param conn connection of the transaction, which must be neither committed, rolled back nor closed
+     */
+    T doInTransaction(Connection conn) throws SQLException;
+}
@@ -0,0 +1,148 @@
+package it.mauluk92.jdbc.tx;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * This class runs work in transaction scopes that can be nested, following a {@link Propagation}.
+ * The scopes of each thread form a stack: the top one holds the connection of the running transaction,
+ * which is borrowed from a {@link ConnectionPool} when a transaction starts and released when it ends.
+ * A scope commits its transaction when its work returns, unless it joined one started by an outer scope,
+ * and rolls back when its work throws. Nested scopes use {@link Connection#setSavepoint()},
+ * so that their failure undoes their own work only
+ */
+public class TransactionManager {
+
+    private final ConnectionPool pool;
+    private final ThreadLocal<Deque<Scope>> scopes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public TransactionManager(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs the work in a {@link Propagation#REQUIRED} scope
+     */
+    public <T> T execute(TransactionCallback<T> work) throws SQLException {
+        return execute(Propagation.REQUIRED, work);
+    }
+
+    /**
+     * Runs the work in a scope with the given propagation
+     *
+     * @throws SQLException if the work fails, or if the transaction to commit was marked as rollback only
+     *                      by a failed inner scope
+     */
+    public <T> T execute(Propagation propagation, TransactionCallback<T> work) throws SQLException {
+        Deque<Scope> stack = scopes.get();
+        Scope outer = stack.peek();
+        if (outer == null || propagation == Propagation.REQUIRES_NEW) {
+            return inNewTransaction(stack, work);
+        }
+        if (propagation == Propagation.NESTED) {
+            return inSavepoint(stack, outer, work);
+        }
+        Scope joined = new Scope(outer.conn, outer.transaction);
+        stack.push(joined);
+        try {
+            return work.doInTransaction(outer.conn);
+        } catch (SQLException | RuntimeException | Error e) {
+            outer.transaction.rollbackOnly = true;
+            throw e;
+        } finally {
+            stack.pop();
+        }
+    }
+
+    /**
+     * Connection of the transaction running on the current thread
+     *
+     * @throws IllegalStateException if no transaction is running
+     */
+    public Connection currentConnection() {
+        Scope scope = scopes.get().peek();
+        if (scope == null) {
+            throw new IllegalStateException("No transaction on " + Thread.currentThread().getName());
+        }
+        return scope.conn;
+    }
+
+    /**
+     * Number of scopes open on the current thread
+     */
+    public int getDepth() {
+        return scopes.get().size();
+    }
+
+    private <T> T inNewTransaction(Deque<Scope> stack, TransactionCallback<T> work) throws SQLException {
+        Connection conn = pool.acquire();
+        Scope scope = new Scope(conn, new Transaction());
+        stack.push(scope);
+        try {
+            conn.setAutoCommit(false);
+            T result = work.doInTransaction(conn);
+            if (scope.transaction.rollbackOnly) {
+                conn.rollback();
+                throw new SQLException("Transaction rolled back because an inner scope failed");
+            }
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            rollback(conn, e);
+            throw e;
+        } finally {
+            stack.pop();
+            pool.release(conn);
+        }
+    }
+
+    private <T> T inSavepoint(Deque<Scope> stack, Scope outer, TransactionCallback<T> work) throws SQLException {
+        Savepoint savepoint = outer.conn.setSavepoint();
+        Scope scope = new Scope(outer.conn, outer.transaction);
+        stack.push(scope);
+        try {
+            T result = work.doInTransaction(outer.conn);
+            outer.conn.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            try {
+                outer.conn.rollback(savepoint);
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            throw e;
+        } finally {
+            stack.pop();
+        }
+    }
+
+    private static void rollback(Connection conn, Throwable failure) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * State shared by every scope of a transaction
+     */
+    private static final class Transaction {
+        private boolean rollbackOnly;
+    }
+
+    private static final class Scope {
+        private final Connection conn;
+        private final Transaction transaction;
+
+        private Scope(Connection conn, Transaction transaction) {
+            this.conn = conn;
+            this.transaction = transaction;
+        }
+    }
+}
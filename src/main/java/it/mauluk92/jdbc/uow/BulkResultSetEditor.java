@@ -0,0 +1,377 @@
+package it.mauluk92.jdbc.uow;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class walks a result set with the cursor and updater methods of an updatable result set,
+ * but buffers the changes instead of writing each one as it is made.
+ * {@code updateRow}, {@code insertRow} and {@code deleteRow} record the change of the row in a {@link UnitOfWork},
+ * keyed by the primary key of the table, and {@link #flush()} sends them as batched {@code DELETE}, {@code INSERT}
+ * and {@code UPDATE} statements.
+ * The rules are the ones of {@link ResultSet}: updater methods change the current row, or the insert row,
+ * {@code cancelRowUpdates} discards the changes not yet confirmed with {@code updateRow}, and moving the cursor
+ * discards them as well. Getters see the confirmed changes of the rows even before they are flushed.
+ * Misuse, like updating a deleted row, is reported with a {@link SQLException}, as a result set would.
+ * Only a subset of {@link ResultSet} is offered: the cursor movements and tests, and the getters and updaters of
+ * objects, strings, {@code int} and {@code long} values, by label or by index. Other types are read and written
+ * as objects.
+ * The result set must read a single table with a single column primary key, and include that column
+ */
+public class BulkResultSetEditor {
+
+    private final ResultSet rs;
+    private final UnitOfWork uow;
+    private final String table;
+    private final String keyColumn;
+    private final Map<String, String> columns = new HashMap<>();
+    private final String[] columnsByIndex;
+
+    private final Map<String, Object> rowChanges = new LinkedHashMap<>();
+    private final Map<Object, Map<String, Object>> updatedRows = new HashMap<>();
+    private final Set<Object> deletedRows = new HashSet<>();
+    private boolean onInsertRow;
+
+    private BulkResultSetEditor(ResultSet rs, UnitOfWork uow, String table, String keyColumn,
+                                String[] columnsByIndex, String[] labelsByIndex) {
+        this.rs = rs;
+        this.uow = uow;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.columnsByIndex = columnsByIndex;
+        for (int i = 1; i < columnsByIndex.length; i++) {
+            columns.put(columnsByIndex[i], columnsByIndex[i]);
+            columns.put(labelsByIndex[i], columnsByIndex[i]);
+        }
+    }
+
+    /**
+     * Creates an editor over the given result set, writing through the connection of its statement
+     *
+     * @throws SQLException if the result set does not read a single table, or the primary key is not selected
+     */
+    public static BulkResultSetEditor of(ResultSet rs) throws SQLException {
+        Connection conn = rs.getStatement().getConnection();
+        ResultSetMetaData metaData = rs.getMetaData();
+        String table = metaData.getTableName(1);
+        String schema = metaData.getSchemaName(1);
+        String[] columnsByIndex = new String[metaData.getColumnCount() + 1];
+        String[] labelsByIndex = new String[columnsByIndex.length];
+        for (int i = 1; i < columnsByIndex.length; i++) {
+            if (!metaData.getTableName(i).equals(table)) {
+                throw new SQLException("The result set reads more than one table: " + table + ", " + metaData.getTableName(i));
+            }
+            columnsByIndex[i] = metaData.getColumnName(i).toUpperCase(Locale.ROOT);
+            labelsByIndex[i] = metaData.getColumnLabel(i).toUpperCase(Locale.ROOT);
+        }
+
+        String keyColumn = null;
+        DatabaseMetaData dbMetaData = conn.getMetaData();
+        try (ResultSet keys = dbMetaData.getPrimaryKeys(null, schema, table)) {
+            while (keys.next()) {
+                if (keyColumn != null) {
+                    throw new SQLFeatureNotSupportedException("Composite primary key on " + table);
+                }
+                keyColumn = keys.getString("COLUMN_NAME").toUpperCase(Locale.ROOT);
+            }
+        }
+        if (keyColumn == null) {
+            throw new SQLException("No primary key on " + table);
+        }
+        BulkResultSetEditor editor = new BulkResultSetEditor(
+                rs, new UnitOfWork(conn), table, keyColumn, columnsByIndex, labelsByIndex);
+        if (!editor.columns.containsKey(keyColumn)) {
+            throw new SQLException("The primary key " + keyColumn + " is not selected");
+        }
+        return editor;
+    }
+
+    public boolean next() throws SQLException {
+        leaveRow();
+        return rs.next();
+    }
+
+    public boolean previous() throws SQLException {
+        leaveRow();
+        return rs.previous();
+    }
+
+    public boolean first() throws SQLException {
+        leaveRow();
+        return rs.first();
+    }
+
+    public boolean last() throws SQLException {
+        leaveRow();
+        return rs.last();
+    }
+
+    public boolean absolute(int row) throws SQLException {
+        leaveRow();
+        return rs.absolute(row);
+    }
+
+    public boolean relative(int rows) throws SQLException {
+        leaveRow();
+        return rs.relative(rows);
+    }
+
+    public void beforeFirst() throws SQLException {
+        leaveRow();
+        rs.beforeFirst();
+    }
+
+    public void afterLast() throws SQLException {
+        leaveRow();
+        rs.afterLast();
+    }
+
+    public boolean isBeforeFirst() throws SQLException {
+        return !onInsertRow && rs.isBeforeFirst();
+    }
+
+    public boolean isAfterLast() throws SQLException {
+        return !onInsertRow && rs.isAfterLast();
+    }
+
+    public boolean isFirst() throws SQLException {
+        return !onInsertRow && rs.isFirst();
+    }
+
+    public boolean isLast() throws SQLException {
+        return !onInsertRow && rs.isLast();
+    }
+
+    public int getRow() throws SQLException {
+        return onInsertRow ? 0 : rs.getRow();
+    }
+
+    public Object getObject(String columnLabel) throws SQLException {
+        String column = column(columnLabel);
+        if (onInsertRow || rowChanges.containsKey(column)) {
+            return rowChanges.get(column);
+        }
+        Map<String, Object> updated = updatedRows.get(currentKey());
+        if (updated != null && updated.containsKey(column)) {
+            return updated.get(column);
+        }
+        return rs.getObject(column);
+    }
+
+    public Object getObject(int columnIndex) throws SQLException {
+        return getObject(column(columnIndex));
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        Object value = getObject(columnLabel);
+        return value == null ? null : value.toString();
+    }
+
+    public String getString(int columnIndex) throws SQLException {
+        return getString(column(columnIndex));
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        Number value = getNumber(columnLabel);
+        return value == null ? 0 : value.intValue();
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        return getInt(column(columnIndex));
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        Number value = getNumber(columnLabel);
+        return value == null ? 0 : value.longValue();
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        return getLong(column(columnIndex));
+    }
+
+    public void updateObject(String columnLabel, Object value) throws SQLException {
+        rowChanges.put(column(columnLabel), value);
+    }
+
+    public void updateObject(int columnIndex, Object value) throws SQLException {
+        rowChanges.put(column(columnIndex), value);
+    }
+
+    public void updateString(String columnLabel, String value) throws SQLException {
+        updateObject(columnLabel, value);
+    }
+
+    public void updateInt(String columnLabel, int value) throws SQLException {
+        updateObject(columnLabel, value);
+    }
+
+    public void updateLong(String columnLabel, long value) throws SQLException {
+        updateObject(columnLabel, value);
+    }
+
+    public void updateString(int columnIndex, String value) throws SQLException {
+        updateObject(columnIndex, value);
+    }
+
+    public void updateInt(int columnIndex, int value) throws SQLException {
+        updateObject(columnIndex, value);
+    }
+
+    public void updateLong(int columnIndex, long value) throws SQLException {
+        updateObject(columnIndex, value);
+    }
+
+    public void updateNull(String columnLabel) throws SQLException {
+        updateObject(columnLabel, null);
+    }
+
+    public void updateNull(int columnIndex) throws SQLException {
+        updateObject(columnIndex, null);
+    }
+
+    /**
+     * Confirms the changes of the current row, to be written at the next flush
+     */
+    public void updateRow() throws SQLException {
+        if (onInsertRow) {
+            throw new SQLException("The cursor is on the insert row");
+        }
+        Object key = currentKey();
+        if (deletedRows.contains(key)) {
+            throw new SQLException("The current row is deleted");
+        }
+        if (rowChanges.containsKey(keyColumn)) {
+            throw new SQLFeatureNotSupportedException("Updating the primary key " + keyColumn);
+        }
+        if (!rowChanges.isEmpty()) {
+            uow.update(table, keyColumn, key, rowChanges);
+            updatedRows.computeIfAbsent(key, k -> new HashMap<>()).putAll(rowChanges);
+            rowChanges.clear();
+        }
+    }
+
+    /**
+     * Discards the changes of the current row not yet confirmed with {@link #updateRow()}
+     */
+    public void cancelRowUpdates() throws SQLException {
+        if (onInsertRow) {
+            throw new SQLException("The cursor is on the insert row");
+        }
+        rowChanges.clear();
+    }
+
+    /**
+     * Records the delete of the current row, to be written at the next flush
+     */
+    public void deleteRow() throws SQLException {
+        if (onInsertRow) {
+            throw new SQLException("The cursor is on the insert row");
+        }
+        Object key = currentKey();
+        if (deletedRows.contains(key)) {
+            throw new SQLException("The current row is already deleted");
+        }
+        uow.delete(table, keyColumn, key);
+        updatedRows.remove(key);
+        deletedRows.add(key);
+        rowChanges.clear();
+    }
+
+    public boolean rowUpdated() throws SQLException {
+        return !onInsertRow && updatedRows.containsKey(currentKey());
+    }
+
+    public boolean rowDeleted() throws SQLException {
+        return !onInsertRow && deletedRows.contains(currentKey());
+    }
+
+    public void moveToInsertRow() {
+        rowChanges.clear();
+        onInsertRow = true;
+    }
+
+    public void moveToCurrentRow() {
+        if (onInsertRow) {
+            rowChanges.clear();
+            onInsertRow = false;
+        }
+    }
+
+    /**
+     * Records the insert of the insert row, to be written at the next flush.
+     * Columns without a value are left to their default, as with {@link ResultSet#insertRow()}
+     */
+    public void insertRow() throws SQLException {
+        if (!onInsertRow) {
+            throw new SQLException("The cursor is not on the insert row");
+        }
+        Object key = rowChanges.get(keyColumn);
+        if (key == null) {
+            throw new SQLException("No value for the primary key " + keyColumn);
+        }
+        Map<String, Object> values = new LinkedHashMap<>(rowChanges);
+        values.remove(keyColumn);
+        try {
+            uow.insert(table, keyColumn, key, values);
+        } catch (IllegalStateException e) {
+            throw new SQLException("A row with the primary key " + key + " already exists", e);
+        }
+        deletedRows.remove(key);
+        rowChanges.clear();
+    }
+
+    /**
+     * Writes the buffered changes, one batch per statement shape, without committing
+     *
+     * @return the number of batches sent
+     */
+    public int flush() throws SQLException {
+        return uow.flush();
+    }
+
+    public UnitOfWork getUnitOfWork() {
+        return uow;
+    }
+
+    private void leaveRow() {
+        rowChanges.clear();
+        onInsertRow = false;
+    }
+
+    private Number getNumber(String columnLabel) throws SQLException {
+        Object value = getObject(columnLabel);
+        if (value != null && !(value instanceof Number)) {
+            throw new SQLException("The value of " + columnLabel + " is not a number: " + value);
+        }
+        return (Number) value;
+    }
+
+    private Object currentKey() throws SQLException {
+        return rs.getObject(keyColumn);
+    }
+
+    private String column(String columnLabel) throws SQLException {
+        String column = columns.get(columnLabel.toUpperCase(Locale.ROOT));
+        if (column == null) {
+            throw new SQLException("Column not found: " + columnLabel);
+        }
+        return column;
+    }
+
+    private String column(int columnIndex) throws SQLException {
+        if (columnIndex < 1 || columnIndex >= columnsByIndex.length) {
+            throw new SQLException("Invalid column index: " + columnIndex);
+        }
+        return columnsByIndex[columnIndex];
+    }
+}
@@ -0,0 +1,243 @@
+package it.mauluk92.jdbc.uow;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * This class records the inserts, updates and deletes of a transaction instead of executing them right away,
+ * and writes them all when the transaction is committed.
+ * Writes to the same row, identified by table and key, are coalesced as they are recorded: two updates become one,
+ * an update of a row inserted in the same unit of work is folded into the insert, an insert followed by a delete
+ * disappears. At flush time writes are grouped by the SQL they need, e.g. all the updates of the same columns of a table,
+ * and each group is sent as one JDBC batch: the cost of a commit depends on the number of distinct statements,
+ * not on the number of recorded writes.
+ * Deletes are written first, then inserts, then updates, so a row deleted and inserted again ends up inserted.
+ * Table and column names are inserted in the SQL as they are, they must not come from untrusted input
+ */
+public class UnitOfWork {
+
+    private enum Kind { INSERT, UPDATE, DELETE }
+
+    private final Connection conn;
+    private final Map<RowKey, PendingWrite> pending = new LinkedHashMap<>();
+    private long recorded;
+    private long batches;
+
+    public UnitOfWork(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Records the insert of a row
+     *
+     * @throws IllegalStateException if the row was already inserted or updated in this unit of work
+     */
+    public void insert(String table, String keyColumn, Object key, Map<String, ?> values) {
+        RowKey row = new RowKey(table, keyColumn, key);
+        PendingWrite write = pending.get(row);
+        if (write == null) {
+            pending.put(row, new PendingWrite(Kind.INSERT, values, false));
+        } else if (write.kind == Kind.DELETE) {
+            pending.put(row, new PendingWrite(Kind.INSERT, values, true));
+        } else {
+            throw new IllegalStateException(row + " already exists in this unit of work");
+        }
+        recorded++;
+    }
+
+    /**
+     * Records the update of some columns of a row
+     *
+     * @throws IllegalStateException if the row was deleted in this unit of work
+     */
+    public void update(String table, String keyColumn, Object key, Map<String, ?> values) {
+        RowKey row = new RowKey(table, keyColumn, key);
+        PendingWrite write = pending.get(row);
+        if (write == null) {
+            pending.put(row, new PendingWrite(Kind.UPDATE, values, false));
+        } else if (write.kind == Kind.DELETE) {
+            throw new IllegalStateException(row + " was deleted in this unit of work");
+        } else {
+            write.values.putAll(values);
+        }
+        recorded++;
+    }
+
+    /**
+     * Records the delete of a row
+     */
+    public void delete(String table, String keyColumn, Object key) {
+        RowKey row = new RowKey(table, keyColumn, key);
+        PendingWrite write = pending.get(row);
+        if (write != null && write.kind == Kind.INSERT && !write.replacesRow) {
+            // the row never reached the database
+            pending.remove(row);
+        } else {
+            pending.put(row, new PendingWrite(Kind.DELETE, Map.of(), false));
+        }
+        recorded++;
+    }
+
+    /**
+     * Number of rows with a pending write, after coalescing
+     */
+    public int getPendingRows() {
+        return pending.size();
+    }
+
+    /**
+     * Number of writes recorded since the unit of work was created
+     */
+    public long getRecordedWrites() {
+        return recorded;
+    }
+
+    /**
+     * Number of JDBC batches sent to the DBMS since the unit of work was created
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Writes every pending change, without committing
+     *
+     * @return the number of batches sent, one per distinct statement
+     * @throws SQLException if a write fails, or an update or a delete finds no row, e.g. because another transaction
+     *                      deleted it: the changes stay pending, and the transaction should be rolled back
+     */
+    public int flush() throws SQLException {
+        Map<String, List<Object[]>> deletes = new LinkedHashMap<>();
+        Map<String, List<Object[]>> inserts = new LinkedHashMap<>();
+        Map<String, List<Object[]>> updates = new LinkedHashMap<>();
+        for (Map.Entry<RowKey, PendingWrite> entry : pending.entrySet()) {
+            RowKey row = entry.getKey();
+            PendingWrite write = entry.getValue();
+            if (write.kind == Kind.DELETE || write.replacesRow) {
+                String sql = "DELETE FROM " + row.table + " WHERE " + row.keyColumn + " = ?";
+                deletes.computeIfAbsent(sql, k -> new ArrayList<>()).add(new Object[]{row.key});
+            }
+            if (write.kind == Kind.INSERT) {
+                List<Object> params = new ArrayList<>();
+                params.add(row.key);
+                params.addAll(write.values.values());
+                String sql = "INSERT INTO " + row.table + "(" + row.keyColumn
+                        + write.values.keySet().stream().map(c -> ", " + c).reduce("", String::concat)
+                        + ") VALUES (?" + ", ?".repeat(write.values.size()) + ")";
+                inserts.computeIfAbsent(sql, k -> new ArrayList<>()).add(params.toArray());
+            } else if (write.kind == Kind.UPDATE && !write.values.isEmpty()) {
+                List<Object> params = new ArrayList<>(write.values.values());
+                params.add(row.key);
+                String sql = "UPDATE " + row.table + " SET "
+                        + String.join(" = ?, ", write.values.keySet()) + " = ? WHERE " + row.keyColumn + " = ?";
+                updates.computeIfAbsent(sql, k -> new ArrayList<>()).add(params.toArray());
+            }
+        }
+        int sent = execute(deletes, 0) + execute(inserts, 0) + execute(updates, -1);
+        pending.clear();
+        batches += sent;
+        return sent;
+    }
+
+    /**
+     * Flushes the pending changes and commits the transaction
+     */
+    public void commit() throws SQLException {
+        flush();
+        conn.commit();
+    }
+
+    /**
+     * Drops the pending changes and rolls back the transaction
+     */
+    public void rollback() throws SQLException {
+        pending.clear();
+        conn.rollback();
+    }
+
+    /**
+     * Sends one batch per statement, checking that every write changed its row
+     *
+     * @param keyIndex index of the key among the parameters, negative to count from the end
+     */
+    private int execute(Map<String, List<Object[]>> statements, int keyIndex) throws SQLException {
+        for (Map.Entry<String, List<Object[]>> entry : statements.entrySet()) {
+            List<Object[]> rows = entry.getValue();
+            int[] counts;
+            try (PreparedStatement stmt = conn.prepareStatement(entry.getKey())) {
+                for (Object[] params : rows) {
+                    for (int i = 0; i < params.length; i++) {
+                        stmt.setObject(i + 1, params[i]);
+                    }
+                    stmt.addBatch();
+                }
+                counts = stmt.executeBatch();
+            }
+            for (int i = 0; i < counts.length; i++) {
+                // SUCCESS_NO_INFO is negative: the driver did not count, but the write succeeded
+                if (counts[i] == 0) {
+                    Object[] params = rows.get(i);
+                    Object key = params[keyIndex < 0 ? params.length + keyIndex : keyIndex];
+                    throw new SQLException("No row with key " + key + " for " + entry.getKey());
+                }
+            }
+        }
+        return statements.size();
+    }
+
+    private static final class PendingWrite {
+        private final Kind kind;
+        /**
+         * Column values sorted by column name, so that writes of the same columns produce the same SQL
+         */
+        private final Map<String, Object> values;
+        /**
+         * Whether an insert follows a delete of the same row, and must delete the existing row first
+         */
+        private final boolean replacesRow;
+
+        private PendingWrite(Kind kind, Map<String, ?> values, boolean replacesRow) {
+            this.kind = kind;
+            this.values = new TreeMap<>(values);
+            this.replacesRow = replacesRow;
+        }
+    }
+
+    private static final class RowKey {
+        private final String table;
+        private final String keyColumn;
+        private final Object key;
+
+        private RowKey(String table, String keyColumn, Object key) {
+            this.table = Objects.requireNonNull(table);
+            this.keyColumn = Objects.requireNonNull(keyColumn);
+            this.key = Objects.requireNonNull(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof RowKey)) {
+                return false;
+            }
+            RowKey other = (RowKey) o;
+            return table.equals(other.table) && keyColumn.equals(other.keyColumn) && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table, keyColumn, key);
+        }
+
+        @Override
+        public String toString() {
+            return table + "(" + keyColumn + " = " + key + ")";
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package it.mauluk92.jdbc.vector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * A column of a chunk read by a {@link TypedRowReader}. A vector is allocated once, with the capacity of a chunk,
+ * and overwritten by every chunk: reading rows allocates nothing but what the driver itself allocates.
+ * {@code NULL} values are tracked in a bitmap, only for the columns the metadata reports as nullable
+ */
+public abstract class ColumnVector {
+
+    private final String label;
+    private final long[] nulls;
+    protected int size;
+
+    ColumnVector(String label, int capacity, boolean nullable) {
+        this.label = label;
+        this.nulls = nullable ? new long[(capacity + 63) >>> 6] : null;
+    }
+
+    /**
+     * Label of the column in the query
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Number of values of the current chunk
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        return nulls != null && (nulls[row >>> 6] & 1L << row) != 0;
+    }
+
+    /**
+     * Whether the column may hold {@code NULL} values, in which case the default value of the type
+     * is stored for them and {@link #isNull(int)} must be checked
+     */
+    public boolean isNullable() {
+        return nulls != null;
+    }
+
+    final void clear() {
+        if (nulls != null) {
+            Arrays.fill(nulls, 0, (size + 63) >>> 6, 0);
+        }
+        size = 0;
+    }
+
+    /**
+     * Reads the value of the column from the current row of the result set and appends it
+     */
+    final void read(ResultSet rs, int index) throws SQLException {
+        readValue(rs, index, size);
+        if (nulls != null && rs.wasNull()) {
+            nulls[size >>> 6] |= 1L << size;
+        }
+        size++;
+    }
+
+    abstract void readValue(ResultSet rs, int index, int row) throws SQLException;
+}
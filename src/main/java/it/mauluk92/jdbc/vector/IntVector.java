@@ -0,0 +1,33 @@
+package it.mauluk92.jdbc.vector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A vector of 32 bits integers, read with {@link ResultSet#getInt(int)}
+ */
+public class IntVector extends ColumnVector {
+
+    private final int[] values;
+
+    IntVector(String label, int capacity, boolean nullable) {
+        super(label, capacity, nullable);
+        this.values = new int[capacity];
+    }
+
+    public int get(int row) {
+        return values[row];
+    }
+
+    /**
+     * The array backing the vector, valid up to {@link #size()} and overwritten by the next chunk
+     */
+    public int[] values() {
+        return values;
+    }
+
+    @Override
+    void readValue(ResultSet rs, int index, int row) throws SQLException {
+        values[row] = rs.getInt(index);
+    }
+}
@@ -0,0 +1,33 @@
+package it.mauluk92.jdbc.vector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A vector of 64 bits integers, read with {@link ResultSet#getLong(int)}
+ */
+public class LongVector extends ColumnVector {
+
+    private final long[] values;
+
+    LongVector(String label, int capacity, boolean nullable) {
+        super(label, capacity, nullable);
+        this.values = new long[capacity];
+    }
+
+    public long get(int row) {
+        return values[row];
+    }
+
+    /**
+     * The array backing the vector, valid up to {@link #size()} and overwritten by the next chunk
+     */
+    public long[] values() {
+        return values;
+    }
+
+    @Override
+    void readValue(ResultSet rs, int index, int row) throws SQLException {
+        values[row] = rs.getLong(index);
+    }
+}
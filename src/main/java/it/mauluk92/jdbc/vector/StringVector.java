@@ -0,0 +1,47 @@
+package it.mauluk92.jdbc.vector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A vector of strings, read with {@link ResultSet#getString(int)}. The vector only holds references
+ * to the strings of the driver, so it copies nothing. {@code NULL} values are stored as null,
+ * which is enough to tell them apart without calling {@link ResultSet#wasNull()}
+ */
+public class StringVector extends ColumnVector {
+
+    private final String[] values;
+    private final boolean nullable;
+
+    StringVector(String label, int capacity, boolean nullable) {
+        super(label, capacity, false);
+        this.values = new String[capacity];
+        this.nullable = nullable;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return values[row] == null;
+    }
+
+    @Override
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public String get(int row) {
+        return values[row];
+    }
+
+    /**
+     * The array backing the vector, valid up to {@link #size()} and overwritten by the next chunk
+     */
+    public String[] values() {
+        return values;
+    }
+
+    @Override
+    void readValue(ResultSet rs, int index, int row) throws SQLException {
+        values[row] = rs.getString(index);
+    }
+}
@@ -0,0 +1,154 @@
+package it.mauluk92.jdbc.vector;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class reads the rows of a query in chunks of a fixed size, into one primitive vector per column.
+ * The decoder is compiled once per query from its {@link ResultSetMetaData}: every column gets the vector
+ * of its type, read with the matching primitive getter by index, so that no value is boxed by
+ * {@code getObject} and no label is looked up per row. The same reader can be used for every execution
+ * of a prepared statement, from the metadata of {@link java.sql.PreparedStatement#getMetaData()}.
+ * The vectors are reused by every chunk, and code aggregating the values can loop over their arrays
+ * without allocating:
+ * <pre>
+ * TypedRowReader reader = TypedRowReader.compile(stmt.getMetaData(), 1024);
+ * LongVector amounts = reader.getLongVector("AMOUNT");
+ * while (reader.nextChunk(rs)) {
+ *     for (int i = 0; i &lt; reader.size(); i++) {
+ *         total += amounts.get(i);
+ *     }
+ * }
+ * </pre>
+ * Supported column types are the integer types up to {@code BIGINT} and the character types
+ */
+public class TypedRowReader {
+
+    private final ColumnVector[] vectors;
+    private final Map<String, Integer> labels;
+    private final int chunkSize;
+    private int size;
+
+    private TypedRowReader(ColumnVector[] vectors, Map<String, Integer> labels, int chunkSize) {
+        this.vectors = vectors;
+        this.labels = labels;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Compiles the decoder of a query
+     *
+     * @param chunkSize number of rows read by each chunk
+     * @throws SQLFeatureNotSupportedException if a column has a type without a vector
+     */
+    public static TypedRowReader compile(ResultSetMetaData metaData, int chunkSize) throws SQLException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        int count = metaData.getColumnCount();
+        ColumnVector[] vectors = new ColumnVector[count];
+        Map<String, Integer> labels = new HashMap<>();
+        for (int i = 1; i <= count; i++) {
+            vectors[i - 1] = vectorFor(metaData, i, chunkSize);
+            labels.putIfAbsent(metaData.getColumnLabel(i).toUpperCase(Locale.ROOT), i);
+        }
+        return new TypedRowReader(vectors, labels, chunkSize);
+    }
+
+    private static ColumnVector vectorFor(ResultSetMetaData metaData, int index, int capacity) throws SQLException {
+        String label = metaData.getColumnLabel(index);
+        boolean nullable = metaData.isNullable(index) != ResultSetMetaData.columnNoNulls;
+        switch (metaData.getColumnType(index)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return new IntVector(label, capacity, nullable);
+            case Types.BIGINT:
+                return new LongVector(label, capacity, nullable);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringVector(label, capacity, nullable);
+            default:
+                throw new SQLFeatureNotSupportedException("Column " + label + " of type "
+                        + metaData.getColumnTypeName(index) + " cannot be read in vectors");
+        }
+    }
+
+    /**
+     * Reads the next rows of the result set, up to the chunk size, overwriting the previous chunk
+     *
+     * @return false when the result set had no more rows
+     */
+    public boolean nextChunk(ResultSet rs) throws SQLException {
+        for (ColumnVector vector : vectors) {
+            vector.clear();
+        }
+        size = 0;
+        while (size < chunkSize && rs.next()) {
+            for (int i = 0; i < vectors.length; i++) {
+                vectors[i].read(rs, i + 1);
+            }
+            size++;
+        }
+        return size > 0;
+    }
+
+    /**
+     * Number of rows of the current chunk
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getColumnCount() {
+        return vectors.length;
+    }
+
+    /**
+     * The vector of a column, numbered from 1 as in {@link ResultSet}
+     */
+    public ColumnVector getVector(int column) {
+        return vectors[column - 1];
+    }
+
+    public ColumnVector getVector(String label) throws SQLException {
+        Integer column = labels.get(label.toUpperCase(Locale.ROOT));
+        if (column == null) {
+            throw new SQLException("Column " + label + " not found");
+        }
+        return getVector(column);
+    }
+
+    public IntVector getIntVector(String label) throws SQLException {
+        return cast(getVector(label), IntVector.class);
+    }
+
+    public LongVector getLongVector(String label) throws SQLException {
+        return cast(getVector(label), LongVector.class);
+    }
+
+    public StringVector getStringVector(String label) throws SQLException {
+        return cast(getVector(label), StringVector.class);
+    }
+
+    private static <V extends ColumnVector> V cast(ColumnVector vector, Class<V> type) throws SQLException {
+        if (!type.isInstance(vector)) {
+            throw new SQLException("Column " + vector.getLabel() + " is read in a " + vector.getClass().getSimpleName());
+        }
+        return type.cast(vector);
+    }
+}
@@ -0,0 +1,149 @@
+package it.mauluk92.jdbc.batch;
+
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.metrics.SqlShape;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This class contains tests to validate the behaviour of the {@link BatchWriter}.
+ * The batches reaching the DBMS are counted through the {@link JdbcMetrics} of the test connection
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class BatchWriterTest {
+
+    private static final String INSERT = "INSERT INTO TABLE_BATCH(ID, NAME) VALUES (?, ?)";
+    private static final ParameterBinder<Integer> BINDER = (ps, id) -> {
+        ps.setInt(1, id);
+        ps.setString(2, "NAME_" + id);
+    };
+
+    private static int count(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM TABLE_BATCH");
+        rs.next();
+        return rs.getInt(1);
+    }
+
+    /**
+     * A batch is sent as soon as it reaches the configured size, the remainder when the writer is closed
+     */
+    @Test
+    @JdbcSql("batch/batch_writer/batches_are_flushed_when_full.sql")
+    @DisplayName("Batches are flushed when full")
+    public void batchesAreFlushedWhenFull(Connection conn, JdbcMetrics metrics) throws SQLException {
+        BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER,
+                new BatchWriterConfig().setBatchSize(3).setFlushInterval(Duration.ofHours(1)));
+        for (int id = 1; id <= 7; id++) {
+            writer.add(id);
+        }
+        Assertions.assertEquals(2, writer.getBatches());
+        Assertions.assertEquals(1, writer.getPending());
+        writer.close();
+        Assertions.assertEquals(3, writer.getBatches());
+        Assertions.assertEquals(7, writer.getWritten());
+        Assertions.assertEquals(7, count(conn));
+        Assertions.assertEquals(3, metrics.statement(SqlShape.of(INSERT)).getExecutions());
+    }
+
+    /**
+     * A batch is sent once its oldest item has waited longer than the flush interval, even if not full
+     */
+    @Test
+    @JdbcSql("batch/batch_writer/batches_are_flushed_when_due.sql")
+    @DisplayName("Batches are flushed when due")
+    public void batchesAreFlushedWhenDue(Connection conn) throws SQLException, InterruptedException {
+        try (BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER,
+                new BatchWriterConfig().setBatchSize(100).setFlushInterval(Duration.ofMillis(20)))) {
+            writer.add(1);
+            Assertions.assertEquals(0, writer.getBatches());
+            Thread.sleep(30);
+            writer.flushIfDue();
+            Assertions.assertEquals(1, writer.getBatches());
+            Assertions.assertEquals(0, writer.getPending());
+        }
+    }
+
+    /**
+     * With per-batch commits every flushed batch survives a later rollback
+     */
+    @Test
+    @JdbcSql("batch/batch_writer/each_batch_can_be_committed.sql")
+    @DisplayName("Each batch can be committed on its own")
+    public void eachBatchCanBeCommitted(Connection conn, JdbcMetrics metrics) throws SQLException {
+        BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER,
+                new BatchWriterConfig().setBatchSize(2).setCommitEachBatch(true));
+        for (int id = 1; id <= 5; id++) {
+            writer.add(id);
+        }
+        conn.rollback();
+        Assertions.assertEquals(4, count(conn));
+        Assertions.assertEquals(2, metrics.getCommitLatency().getCount());
+        writer.close();
+    }
+
+    /**
+     * Rows rejected by the DBMS are reported with their position and cause,
+     * while the other rows of the same batch are written
+     */
+    @Test
+    @JdbcSql("batch/batch_writer/failed_rows_are_reported.sql")
+    @DisplayName("Failed rows are reported")
+    public void failedRowsAreReported(Connection conn) throws SQLException {
+        BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER,
+                new BatchWriterConfig().setBatchSize(10));
+        for (int id : new int[]{1, 2, 2, 3, 1}) {
+            writer.add(id);
+        }
+        writer.close();
+        List<BatchFailure<Integer>> failures = writer.getFailures();
+        Assertions.assertEquals(2, failures.size());
+        Assertions.assertEquals(2, failures.get(0).getIndex());
+        Assertions.assertEquals(2, failures.get(0).getItem());
+        Assertions.assertEquals(4, failures.get(1).getIndex());
+        Assertions.assertTrue(failures.get(1).isExecuted());
+        Assertions.assertNotNull(failures.get(1).getCause());
+        Assertions.assertEquals(3, writer.getWritten());
+        Assertions.assertEquals(3, count(conn));
+    }
+
+    /**
+     * A batch failing as a whole, here because its connection was closed, reports every one of its items
+     * as failed, and leaves nothing pending
+     */
+    @Test
+    @JdbcSql("batch/batch_writer/failed_batches_are_reported.sql")
+    @DisplayName("Failed batches are reported")
+    public void failedBatchesAreReported(ConnectionPool pool) throws SQLException {
+        Connection conn = pool.acquire();
+        try {
+            BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER,
+                    new BatchWriterConfig().setBatchSize(10));
+            writer.add(1);
+            writer.add(2);
+            conn.close();
+            SQLException failure = Assertions.assertThrows(SQLException.class, writer::flush);
+            List<BatchFailure<Integer>> failures = writer.getFailures();
+            Assertions.assertEquals(2, failures.size());
+            Assertions.assertEquals(0, failures.get(0).getIndex());
+            Assertions.assertEquals(2, failures.get(1).getItem());
+            Assertions.assertSame(failure, failures.get(1).getCause());
+            Assertions.assertEquals(0, writer.getPending());
+            Assertions.assertEquals(1, writer.getBatches());
+            Assertions.assertEquals(0, writer.getWritten());
+        } finally {
+            pool.release(conn);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package it.mauluk92.jdbc.batch;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class contains tests to validate the grouping of writes committed by the {@link GroupCommitWriter}.
+ * The writer gets a second connection of the worker pool, and its commits are read through the connection of the test
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class GroupCommitWriterTest {
+
+    private static final String INSERT = "INSERT INTO TABLE_BATCH(ID, NAME) VALUES (?, ?)";
+
+    private static List<Integer> ids(Connection conn) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        ResultSet rs = conn.createStatement().executeQuery("SELECT ID FROM TABLE_BATCH ORDER BY ID");
+        while (rs.next()) {
+            ids.add(rs.getInt(1));
+        }
+        return ids;
+    }
+
+    /**
+     * Writes submitted by many threads are committed in a few transactions, each future completed
+     * with the update count of its statement once its group is visible to other connections
+     */
+    @Test
+    @JdbcSql("batch/group_commit_writer/writes_of_many_threads_share_commits.sql")
+    @DisplayName("Writes of many threads share commits")
+    public void writesOfManyThreadsShareCommits(Connection conn, ConnectionPool pool) throws Exception {
+        Connection writerConn = pool.acquire();
+        try {
+            int threads = 8;
+            int writes = 100;
+            try (GroupCommitWriter writer = new GroupCommitWriter(writerConn,
+                    new GroupCommitConfig().setMaxGroupSize(50).setLinger(Duration.ofMillis(20)))) {
+                List<CompletableFuture<Integer>> results = new ArrayList<>();
+                List<Thread> producers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int first = t * writes;
+                    Thread producer = new Thread(() -> {
+                        for (int id = first + 1; id <= first + writes; id++) {
+                            CompletableFuture<Integer> result = writer.submit(INSERT, id, "NAME_" + id);
+                            synchronized (results) {
+                                results.add(result);
+                            }
+                        }
+                    });
+                    producers.add(producer);
+                    producer.start();
+                }
+                for (Thread producer : producers) {
+                    producer.join();
+                }
+                CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+                for (CompletableFuture<Integer> result : results) {
+                    Assertions.assertEquals(1, result.get());
+                }
+                Assertions.assertEquals(threads * writes, ids(conn).size());
+                Assertions.assertEquals(threads * writes, writer.getWritten());
+                Assertions.assertTrue(writer.getCommits() >= threads * writes / 50);
+                Assertions.assertTrue(writer.getCommits() < threads * writes / 2);
+            }
+        } finally {
+            pool.release(writerConn);
+        }
+    }
+
+    /**
+     * Writes run in the order they were submitted, whatever their statement,
+     * and a future is only completed once its group is committed
+     */
+    @Test
+    @JdbcSql("batch/group_commit_writer/writes_keep_their_order.sql")
+    @DisplayName("Writes keep their order")
+    public void writesKeepTheirOrder(Connection conn, ConnectionPool pool) throws Exception {
+        Connection writerConn = pool.acquire();
+        try {
+            try (GroupCommitWriter writer = new GroupCommitWriter(writerConn, new GroupCommitConfig())) {
+                writer.submit(INSERT, 1, "NAME_1");
+                writer.submit("UPDATE TABLE_BATCH SET NAME = ? WHERE ID = ?", "UPDATED_NAME", 1);
+                CompletableFuture<Integer> delete = writer.submit("DELETE FROM TABLE_BATCH WHERE ID > ?", 0);
+                writer.submit(INSERT, 2, "NAME_2");
+                Assertions.assertEquals(1, delete.get(10, TimeUnit.SECONDS));
+                CompletableFuture<Integer> update = writer.submit("UPDATE TABLE_BATCH SET NAME = ? WHERE ID = ?", "UPDATED_NAME", 2);
+                Assertions.assertEquals(1, update.get(10, TimeUnit.SECONDS));
+            }
+            ResultSet rs = conn.createStatement().executeQuery("SELECT ID, NAME FROM TABLE_BATCH");
+            Assertions.assertTrue(rs.next());
+            Assertions.assertEquals(2, rs.getInt("ID"));
+            Assertions.assertEquals("UPDATED_NAME", rs.getString("NAME"));
+            Assertions.assertFalse(rs.next());
+        } finally {
+            pool.release(writerConn);
+        }
+    }
+
+    /**
+     * One failing write rolls its whole group back: every future of the group fails with the same exception,
+     * and the next groups are not affected
+     */
+    @Test
+    @JdbcSql("batch/group_commit_writer/a_failing_write_rolls_its_group_back.sql")
+    @DisplayName("A failing write rolls its group back")
+    public void aFailingWriteRollsItsGroupBack(Connection conn, ConnectionPool pool) throws Exception {
+        Connection writerConn = pool.acquire();
+        try {
+            GroupCommitWriter writer = new GroupCommitWriter(writerConn,
+                    new GroupCommitConfig().setMaxGroupSize(3).setLinger(Duration.ofSeconds(5)));
+            try (writer) {
+                CompletableFuture<Integer> first = writer.submit(INSERT, 1, "NAME_1");
+                CompletableFuture<Integer> duplicate = writer.submit(INSERT, 1, "NAME_1");
+                CompletableFuture<Integer> third = writer.submit(INSERT, 2, "NAME_2");
+                ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> third.get(10, TimeUnit.SECONDS));
+                Assertions.assertInstanceOf(SQLException.class, failure.getCause());
+                Assertions.assertTrue(first.isCompletedExceptionally());
+                Assertions.assertTrue(duplicate.isCompletedExceptionally());
+                Assertions.assertEquals(List.of(), ids(conn));
+                Assertions.assertEquals(3, writer.getFailed());
+
+                writer.submit(INSERT, 3, "NAME_3");
+            }
+            Assertions.assertEquals(List.of(3), ids(conn));
+            Assertions.assertEquals(1, writer.getCommits());
+            Assertions.assertThrows(IllegalStateException.class, () -> writer.submit(INSERT, 4, "NAME_4"));
+        } finally {
+            pool.release(writerConn);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.batch.BatchWriter;
+import it.mauluk92.jdbc.batch.BatchWriterConfig;
+import it.mauluk92.jdbc.batch.ParameterBinder;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing rows one {@code executeUpdate} at a time, as done in {@code UsingPreparedStatementsTest},
+ * with a {@link BatchWriter} sending them in batches of a few sizes. Every invocation writes the same rows
+ * into an empty {@code TABLE_BENCH} and commits them once; the table is truncated after every invocation.
+ * The row by row baseline does not depend on the batch size, it is run again for every size to be read side by side
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchWriterBenchmark {
+
+    private static final String INSERT = "INSERT INTO TABLE_BENCH(ID, NAME) VALUES (?, ?)";
+    private static final ParameterBinder<Integer> BINDER = (ps, id) -> {
+        ps.setInt(1, id);
+        ps.setString(2, "NAME_" + id);
+    };
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"10", "100", "1000"})
+    public int batchSize;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, 0);
+        conn.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @TearDown(Level.Invocation)
+    public void truncate() throws SQLException {
+        conn.createStatement().execute("TRUNCATE TABLE TABLE_BENCH");
+        conn.commit();
+    }
+
+    @Benchmark
+    public int executeUpdatePerRow() throws SQLException {
+        int updated = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            for (int id = 1; id <= rows; id++) {
+                BINDER.bind(stmt, id);
+                updated += stmt.executeUpdate();
+            }
+        }
+        conn.commit();
+        return updated;
+    }
+
+    @Benchmark
+    public long batchWriter() throws SQLException {
+        BatchWriter<Integer> writer = new BatchWriter<>(conn, INSERT, BINDER, new BatchWriterConfig().setBatchSize(batchSize));
+        try (writer) {
+            for (int id = 1; id <= rows; id++) {
+                writer.add(id);
+            }
+        }
+        conn.commit();
+        return writer.getWritten();
+    }
+}
@@ -0,0 +1,57 @@
+package it.mauluk92.jdbc.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class prepares the H2 databases the benchmarks run against. Every benchmark trial gets
+ * its own in-memory database holding a {@code TABLE_BENCH (ID INT PRIMARY KEY, NAME VARCHAR)}
+ * table, shaped like the tables used by the c2 and c3 tests
+ */
+final class BenchmarkTable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkTable() {
+    }
+
+    /**
+     * Opens a connection to a fresh in-memory database
+     */
+    static Connection openDatabase() throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:mem:bench_" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /**
+     * Creates {@code TABLE_BENCH} with ids going from 1 to {@code rows}, and commits it
+     */
+    static void create(Connection conn, int rows) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE TABLE_BENCH (ID INT PRIMARY KEY, NAME VARCHAR)");
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO TABLE_BENCH(ID, NAME) VALUES (?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                stmt.setInt(1, id);
+                stmt.setString(2, "NAME_" + id);
+                stmt.addBatch();
+                if (id % 1_000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(autoCommit);
+    }
+
+    /**
+     * Closes the connection and drops the database it points to
+     */
+    static void drop(Connection conn) throws SQLException {
+        conn.createStatement().execute("SHUTDOWN");
+        conn.close();
+    }
+}
@@ -0,0 +1,88 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.bulk.BulkLoader;
+import it.mauluk92.jdbc.bulk.BulkLoaderConfig;
+import it.mauluk92.jdbc.bulk.LoadStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the strategies of {@link BulkLoader} loading an empty {@code TABLE_BENCH}, with one
+ * {@code INSERT} per row as baseline. The table is truncated after every invocation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+    private static final List<String> COLUMNS = List.of("ID", "NAME");
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private Connection conn;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, 0);
+        csv = Files.createTempFile("table_bench", ".csv");
+        try (Writer writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("ID,NAME\n");
+            for (int id = 1; id <= rows; id++) {
+                writer.write(id + ",NAME_" + id + "\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        BenchmarkTable.drop(conn);
+        Files.delete(csv);
+    }
+
+    @TearDown(Level.Invocation)
+    public void truncate() throws SQLException {
+        conn.createStatement().execute("TRUNCATE TABLE TABLE_BENCH");
+    }
+
+    private long load(LoadStrategy strategy, int batchSize) throws SQLException {
+        BulkLoaderConfig config = new BulkLoaderConfig().setStrategy(strategy).setBatchSize(batchSize);
+        return new BulkLoader(conn, config).load("TABLE_BENCH", COLUMNS,
+                IntStream.rangeClosed(1, rows).mapToObj(id -> new Object[]{id, "NAME_" + id}).iterator()).getRows();
+    }
+
+    @Benchmark
+    public long insertPerRow() throws SQLException {
+        return load(LoadStrategy.PREPARED_BATCH, 1);
+    }
+
+    @Benchmark
+    public long preparedBatch() throws SQLException {
+        return load(LoadStrategy.PREPARED_BATCH, 500);
+    }
+
+    @Benchmark
+    public long multiRowValues() throws SQLException {
+        return load(LoadStrategy.MULTI_ROW_VALUES, 500);
+    }
+
+    @Benchmark
+    public long csvRead() throws SQLException {
+        return new BulkLoader(conn, new BulkLoaderConfig()).loadCsv("TABLE_BENCH", COLUMNS, csv).getRows();
+    }
+}
@@ -0,0 +1,105 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.batch.GroupCommitConfig;
+import it.mauluk92.jdbc.batch.GroupCommitWriter;
+import it.mauluk92.jdbc.testutils.StorageProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares many threads inserting one row per transaction, each committing on its own connection
+ * as in {@code UsingTransactionsTest}, with the same threads submitting their rows to a {@link GroupCommitWriter}
+ * and waiting for the commit of their group. Both are run on an in-memory and on a file database.
+ * The file database is opened with {@code WRITE_DELAY=0}, so that every commit writes the store to the file
+ * as a durable DBMS would, instead of leaving it to a background thread: there, sharing commits pays off
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final String INSERT = "INSERT INTO TABLE_BENCH(ID, NAME) VALUES (?, ?)";
+
+    @Param({"MEMORY", "FILE"})
+    public StorageProfile storage;
+
+    /**
+     * Time the writer waits for more rows once it has the first one of a group, in microseconds
+     */
+    @Param({"0", "200"})
+    public int lingerMicros;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private Connection conn;
+    private Connection writerConn;
+    private GroupCommitWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        storage.delete("bench_group_commit");
+        conn = DriverManager.getConnection(url(), "sa", "");
+        BenchmarkTable.create(conn, 0);
+        writerConn = DriverManager.getConnection(url(), "sa", "");
+        writer = new GroupCommitWriter(writerConn, new GroupCommitConfig().setLinger(Duration.ofNanos(lingerMicros * 1_000L)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        writer.close();
+        writerConn.close();
+        conn.close();
+        storage.delete("bench_group_commit");
+    }
+
+    String url() {
+        return storage.url("bench_group_commit", storage.isPersistent() ? ";WRITE_DELAY=0" : ";DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * The connection of a thread committing its own transactions
+     */
+    @State(Scope.Thread)
+    public static class Session {
+
+        private Connection conn;
+        private PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void setUp(GroupCommitBenchmark benchmark) throws SQLException {
+            conn = DriverManager.getConnection(benchmark.url(), "sa", "");
+            conn.setAutoCommit(false);
+            insert = conn.prepareStatement(INSERT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            conn.close();
+        }
+    }
+
+    @Benchmark
+    public void commitPerTransaction(Session session) throws SQLException {
+        int id = ids.incrementAndGet();
+        session.insert.setInt(1, id);
+        session.insert.setString(2, "NAME_" + id);
+        session.insert.executeUpdate();
+        session.conn.commit();
+    }
+
+    @Benchmark
+    public int groupCommit() {
+        int id = ids.incrementAndGet();
+        return writer.submit(INSERT, id, "NAME_" + id).join();
+    }
+}
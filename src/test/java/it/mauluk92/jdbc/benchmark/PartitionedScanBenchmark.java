@@ -0,0 +1,72 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import it.mauluk92.jdbc.scan.PartitionedScan;
+import it.mauluk92.jdbc.scan.PartitionedScanConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how the throughput of a full scan of {@code TABLE_BENCH} grows with the parallelism of a
+ * {@link PartitionedScan}, parallelism 1 being the baseline of one connection reading one range after the other.
+ * A plain {@code SELECT} of the whole table is not a fair baseline: H2 reuses the result of a query executed
+ * again with the same parameters on unchanged data. Scaling is bounded by the cores of the machine:
+ * run it with {@code -p parallelism=} up to their number
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionedScanBenchmark {
+
+    @Param({"2000000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Connection conn;
+    private ConnectionPool pool;
+    private PartitionedScan<String> scan;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, rows);
+        pool = new ConnectionPool(new ConnectionPoolConfig(conn.getMetaData().getURL(), "sa", "").setMaxSize(parallelism));
+        scan = new PartitionedScan<>(pool, "TABLE_BENCH", "ID", "ID, NAME", rs -> rs.getString(2),
+                new PartitionedScanConfig().setParallelism(parallelism));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        scan.close();
+        pool.close();
+        BenchmarkTable.drop(conn);
+    }
+
+    @Benchmark
+    public long parallelForEach() throws SQLException {
+        LongAdder length = new LongAdder();
+        scan.forEach(name -> length.add(name.length()));
+        return length.sum();
+    }
+
+    @Benchmark
+    public long orderedIterator() throws SQLException {
+        long length = 0;
+        try (PartitionedScan<String>.OrderedIterator names = scan.orderedIterator()) {
+            while (names.hasNext()) {
+                length += names.next().length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,64 @@
+package it.mauluk92.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full scan of a table through the three {@link ResultSet} types,
+ * as exercised by {@code CursorScrollableSetTest}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetTypeBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @Benchmark
+    public void forwardOnly(Blackhole bh) throws SQLException {
+        scan(ResultSet.TYPE_FORWARD_ONLY, bh);
+    }
+
+    @Benchmark
+    public void scrollInsensitive(Blackhole bh) throws SQLException {
+        scan(ResultSet.TYPE_SCROLL_INSENSITIVE, bh);
+    }
+
+    @Benchmark
+    public void scrollSensitive(Blackhole bh) throws SQLException {
+        scan(ResultSet.TYPE_SCROLL_SENSITIVE, bh);
+    }
+
+    private void scan(int type, Blackhole bh) throws SQLException {
+        try (Statement stmt = conn.createStatement(type, ResultSet.CONCUR_READ_ONLY);
+             ResultSet rs = stmt.executeQuery("SELECT ID, NAME FROM TABLE_BENCH")) {
+            while (rs.next()) {
+                bh.consume(rs.getInt(1));
+                bh.consume(rs.getString(2));
+            }
+        }
+    }
+}
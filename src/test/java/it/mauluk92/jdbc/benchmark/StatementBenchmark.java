@@ -0,0 +1,62 @@
+package it.mauluk92.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a primary key lookup sent as a plain {@link Statement}, whose SQL text changes at every call
+ * and must be parsed again, with the same lookup through a {@link PreparedStatement} compiled once
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Connection conn;
+    private Statement statement;
+    private PreparedStatement preparedStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, rows);
+        statement = conn.createStatement();
+        preparedStatement = conn.prepareStatement("SELECT ID, NAME FROM TABLE_BENCH WHERE ID = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @Benchmark
+    public String statement() throws SQLException {
+        int id = ThreadLocalRandom.current().nextInt(1, rows + 1);
+        try (ResultSet rs = statement.executeQuery("SELECT ID, NAME FROM TABLE_BENCH WHERE ID = " + id)) {
+            rs.next();
+            return rs.getString(2);
+        }
+    }
+
+    @Benchmark
+    public String preparedStatement() throws SQLException {
+        preparedStatement.setInt(1, ThreadLocalRandom.current().nextInt(1, rows + 1));
+        try (ResultSet rs = preparedStatement.executeQuery()) {
+            rs.next();
+            return rs.getString(2);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.testutils.StorageProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link StorageProfile} of H2 on the costs of persistence: the latency of committing one row,
+ * the throughput of inserting many rows in one transaction, and the time to open a database holding
+ * {@code TABLE_BENCH} and read it, as an application does when it starts.
+ * An in-memory database is lost with its last connection, so for {@link StorageProfile#MEMORY} opening
+ * keeps another connection alive and only measures the attach, the baseline of the other profiles.
+ * H2 does not force its files to disk at each commit, changes are written by a background thread
+ * within the {@code WRITE_DELAY} of the database, so commit latencies stay close across profiles
+ * while bulk inserts and opening show the cost of the files
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmark {
+
+    @Param({"MEMORY", "FILE", "NIO_MAPPED", "ASYNC"})
+    public StorageProfile storage;
+
+    /**
+     * Number of rows inserted by each bulk insert, and held by the database opened cold
+     */
+    @Param({"10000"})
+    public int rows;
+
+    private Connection conn;
+    private Connection coldHolder;
+    private PreparedStatement insert;
+    private int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        storage.delete("bench_storage");
+        storage.delete("bench_storage_cold");
+        Connection cold = DriverManager.getConnection(storage.url("bench_storage_cold"), "sa", "");
+        BenchmarkTable.create(cold, rows);
+        if (storage.isPersistent()) {
+            cold.close();
+        } else {
+            coldHolder = cold;
+        }
+        conn = DriverManager.getConnection(storage.url("bench_storage"), "sa", "");
+        BenchmarkTable.create(conn, 0);
+        conn.setAutoCommit(false);
+        insert = conn.prepareStatement("INSERT INTO TABLE_BENCH(ID, NAME) VALUES (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+        if (coldHolder != null) {
+            coldHolder.close();
+        }
+        storage.delete("bench_storage");
+        storage.delete("bench_storage_cold");
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        conn.createStatement().execute("TRUNCATE TABLE TABLE_BENCH");
+        conn.commit();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public void commitOneRow() throws SQLException {
+        bindNextRow();
+        insert.executeUpdate();
+        conn.commit();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void bulkInsert() throws SQLException {
+        for (int i = 0; i < rows; i++) {
+            bindNextRow();
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        conn.commit();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long coldOpen() throws SQLException {
+        try (Connection cold = DriverManager.getConnection(storage.url("bench_storage_cold"), "sa", "");
+             ResultSet rs = cold.createStatement().executeQuery("SELECT COUNT(*) FROM TABLE_BENCH")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private void bindNextRow() throws SQLException {
+        int id = ++nextId;
+        insert.setInt(1, id);
+        insert.setString(2, "NAME_" + id);
+    }
+}
@@ -0,0 +1,69 @@
+package it.mauluk92.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares inserting a group of rows in auto-commit mode, where every statement is its own
+ * transaction, with inserting the same rows in one explicit transaction, as in {@code UsingTransactionsTest}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+
+    /**
+     * Number of rows inserted by each invocation
+     */
+    @Param({"100", "10000"})
+    public int rows;
+
+    private Connection conn;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, 0);
+        insert = conn.prepareStatement("INSERT INTO TABLE_BENCH(ID, NAME) VALUES (?, ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @TearDown(Level.Invocation)
+    public void truncate() throws SQLException {
+        conn.setAutoCommit(true);
+        conn.createStatement().execute("TRUNCATE TABLE TABLE_BENCH");
+    }
+
+    @Benchmark
+    public void autoCommit() throws SQLException {
+        conn.setAutoCommit(true);
+        insertRows();
+    }
+
+    @Benchmark
+    public void explicitTransaction() throws SQLException {
+        conn.setAutoCommit(false);
+        insertRows();
+        conn.commit();
+    }
+
+    private void insertRows() throws SQLException {
+        for (int id = 1; id <= rows; id++) {
+            insert.setInt(1, id);
+            insert.setString(2, "NAME_" + id);
+            insert.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package it.mauluk92.jdbc.benchmark;
+
+import it.mauluk92.jdbc.vector.IntVector;
+import it.mauluk92.jdbc.vector.StringVector;
+import it.mauluk92.jdbc.vector.TypedRowReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating {@code TABLE_BENCH} through boxed values, as generic code calling {@code getObject} does,
+ * through primitive getters by label and by index, as in {@code RetrievingFromResultSetsTest},
+ * and through the vectors of a {@link TypedRowReader}. Run with {@code -prof gc} to see the allocations per row:
+ * the embedded H2 driver hands out primitives and its own strings without allocating, so only boxing allocates,
+ * and a loop written by hand for one query, reading by index, stays the fastest. Vectors bring generic code
+ * close to it, without knowing the query in advance
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedRowReaderBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"64", "1024"})
+    public int chunkSize;
+
+    private Connection conn;
+    private PreparedStatement select;
+    private TypedRowReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, rows);
+        select = conn.prepareStatement("SELECT ID, NAME FROM TABLE_BENCH");
+        reader = TypedRowReader.compile(select.getMetaData(), chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @Benchmark
+    public long boxed() throws SQLException {
+        long total = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                total += ((Integer) rs.getObject("ID")) + ((String) rs.getObject("NAME")).length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long primitiveByLabel() throws SQLException {
+        long total = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                total += rs.getInt("ID") + rs.getString("NAME").length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long primitiveByIndex() throws SQLException {
+        long total = 0;
+        try (ResultSet rs = select.executeQuery()) {
+            while (rs.next()) {
+                total += rs.getInt(1) + rs.getString(2).length();
+            }
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long vectors() throws SQLException {
+        long total = 0;
+        IntVector ids = reader.getIntVector("ID");
+        StringVector names = reader.getStringVector("NAME");
+        try (ResultSet rs = select.executeQuery()) {
+            while (reader.nextChunk(rs)) {
+                int[] idValues = ids.values();
+                String[] nameValues = names.values();
+                for (int i = 0; i < reader.size(); i++) {
+                    total += idValues[i] + nameValues[i].length();
+                }
+            }
+        }
+        return total;
+    }
+}
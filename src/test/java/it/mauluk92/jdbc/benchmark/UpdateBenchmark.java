@@ -0,0 +1,66 @@
+package it.mauluk92.jdbc.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares renaming every row of a table through an updatable {@link ResultSet},
+ * as shown by {@code UpdatableResultSetTest}, with a single SQL {@code UPDATE}.
+ * Every invocation is rolled back, so all invocations work on the same data
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UpdateBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = BenchmarkTable.openDatabase();
+        BenchmarkTable.create(conn, rows);
+        conn.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        BenchmarkTable.drop(conn);
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        conn.rollback();
+    }
+
+    @Benchmark
+    public int updateRow() throws SQLException {
+        int updated = 0;
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
+             ResultSet rs = stmt.executeQuery("SELECT ID, NAME FROM TABLE_BENCH")) {
+            while (rs.next()) {
+                rs.updateString(2, "UPDATED");
+                rs.updateRow();
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Benchmark
+    public int sqlUpdate() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            return stmt.executeUpdate("UPDATE TABLE_BENCH SET NAME = 'UPDATED'");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package it.mauluk92.jdbc.bulk;
+
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * This class contains tests to validate the loading of rows by {@link BulkLoader},
+ * into a table shaped like the {@code TABLE_C3} of the c3 fixtures.
+ * The connection of the extension comes in a transaction: tests of loads that manage their own transactions
+ * put it back in auto-commit mode first, and count the commits through its {@link JdbcMetrics}
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class BulkLoaderTest {
+
+    private static final List<String> COLUMNS = List.of("ID", "NAME");
+
+    private static Iterator<Object[]> rows(int count) {
+        return IntStream.rangeClosed(1, count).mapToObj(id -> new Object[]{id, "NAME_" + id}).iterator();
+    }
+
+    private static long[] countAndSum(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*), SUM(ID) FROM TABLE_C3");
+        rs.next();
+        return new long[]{rs.getLong(1), rs.getLong(2)};
+    }
+
+    /**
+     * Few rows are sent in JDBC batches, and committed once
+     */
+    @Test
+    @JdbcSql("bulk/bulk_loader/small_loads_use_prepared_batches.sql")
+    @DisplayName("Small loads use prepared batches")
+    public void smallLoadsUsePreparedBatches(Connection conn, JdbcMetrics metrics) throws SQLException {
+        conn.setAutoCommit(true);
+        LoadReport report = new BulkLoader(conn, new BulkLoaderConfig().setBatchSize(100)).load("TABLE_C3", COLUMNS, rows(1_234));
+        Assertions.assertEquals(LoadStrategy.PREPARED_BATCH, report.getStrategy());
+        Assertions.assertEquals(1_234, report.getRows());
+        Assertions.assertEquals(13, report.getStatements());
+        Assertions.assertEquals(1, report.getCommits());
+        Assertions.assertEquals(1, metrics.getCommitLatency().getCount());
+        Assertions.assertTrue(conn.getAutoCommit());
+        Assertions.assertArrayEquals(new long[]{1_234, 1_234L * 1_235 / 2}, countAndSum(conn));
+    }
+
+    /**
+     * Many rows are sent in multi row statements, the last one holding the remaining rows,
+     * and committed periodically
+     */
+    @Test
+    @JdbcSql("bulk/bulk_loader/large_loads_use_multi_row_statements.sql")
+    @DisplayName("Large loads use multi row statements")
+    public void largeLoadsUseMultiRowStatements(Connection conn, JdbcMetrics metrics) throws SQLException {
+        conn.setAutoCommit(true);
+        BulkLoaderConfig config = new BulkLoaderConfig().setMultiRowThreshold(10_000).setCommitEvery(20_000);
+        LoadReport report = new BulkLoader(conn, config).load("TABLE_C3", COLUMNS, rows(50_123));
+        Assertions.assertEquals(LoadStrategy.MULTI_ROW_VALUES, report.getStrategy());
+        Assertions.assertEquals(51, report.getStatements());
+        Assertions.assertEquals(3, report.getCommits());
+        Assertions.assertEquals(3, metrics.getCommitLatency().getCount());
+        Assertions.assertArrayEquals(new long[]{50_123, 50_123L * 50_124 / 2}, countAndSum(conn));
+        ResultSet rs = conn.createStatement().executeQuery("SELECT NAME FROM TABLE_C3 WHERE ID = 50123");
+        rs.next();
+        Assertions.assertEquals("NAME_50123", rs.getString(1));
+    }
+
+    /**
+     * A CSV file is read by H2 in a single statement
+     */
+    @Test
+    @JdbcSql("bulk/bulk_loader/loading_a_csv_file.sql")
+    @DisplayName("Loading a CSV file")
+    public void loadingACsvFile(Connection conn, @TempDir Path dir) throws SQLException, IOException {
+        conn.setAutoCommit(true);
+        Path file = dir.resolve("table_c3.csv");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("NAME,ID\n");
+            for (int id = 1; id <= 100_000; id++) {
+                writer.write("NAME_" + id + "," + id + "\n");
+            }
+        }
+        LoadReport report = new BulkLoader(conn, new BulkLoaderConfig()).loadCsv("TABLE_C3", COLUMNS, file);
+        Assertions.assertEquals(LoadStrategy.CSVREAD, report.getStrategy());
+        Assertions.assertEquals(100_000, report.getRows());
+        Assertions.assertArrayEquals(new long[]{100_000, 100_000L * 100_001 / 2}, countAndSum(conn));
+    }
+
+    /**
+     * A failing row stops the load: rows committed before it stay, the others are rolled back,
+     * and auto-commit is restored
+     */
+    @Test
+    @JdbcSql("bulk/bulk_loader/failed_load_keeps_the_committed_rows.sql")
+    @DisplayName("A failed load keeps the committed rows")
+    public void failedLoadKeepsTheCommittedRows(Connection conn) throws SQLException {
+        conn.setAutoCommit(true);
+        BulkLoaderConfig config = new BulkLoaderConfig().setStrategy(LoadStrategy.PREPARED_BATCH)
+                .setBatchSize(100).setCommitEvery(1_000);
+        Assertions.assertThrows(SQLException.class,
+                () -> new BulkLoader(conn, config).load("TABLE_C3", COLUMNS, rows(2_000)));
+        Assertions.assertTrue(conn.getAutoCommit());
+        Assertions.assertEquals(1_001, countAndSum(conn)[0]);
+    }
+
+    /**
+     * On a connection already in a transaction the rows join it: the loader neither commits nor rolls back
+     */
+    @Test
+    @JdbcSql("bulk/bulk_loader/loading_in_the_transaction_of_the_caller.sql")
+    @DisplayName("Loading in the transaction of the caller")
+    public void loadingInTheTransactionOfTheCaller(Connection conn, JdbcMetrics metrics) throws SQLException {
+        conn.createStatement().execute("INSERT INTO TABLE_C3(ID, NAME) VALUES (0, 'CALLER')");
+        BulkLoaderConfig config = new BulkLoaderConfig().setBatchSize(100).setCommitEvery(100);
+        LoadReport report = new BulkLoader(conn, config).load("TABLE_C3", COLUMNS, rows(500));
+        Assertions.assertEquals(0, report.getCommits());
+        Assertions.assertEquals(0, metrics.getCommitLatency().getCount());
+        Assertions.assertFalse(conn.getAutoCommit());
+
+        Assertions.assertThrows(SQLException.class,
+                () -> new BulkLoader(conn, config).load("TABLE_C3", COLUMNS, rows(600)));
+        Assertions.assertEquals(501, countAndSum(conn)[0]);
+        conn.rollback();
+        Assertions.assertEquals(0, countAndSum(conn)[0]);
+    }
+}
@@ -66,4 +66,31 @@ public class UsingTransactionsTest {
         rsAfterRollBack.next();
         Assertions.assertNotEquals("NAME_UPDATED", rsAfterRollBack.getString("NAME"));
     }
+
+    /**
+     * A savepoint marks an intermediate point within the current transaction.
+     * The method {@code setSavepoint} creates it, and {@code rollback(Savepoint)} undoes only the changes
+     * made after it, leaving the earlier ones in the transaction, to be committed or rolled back as a whole.
+     * The method {@code releaseSavepoint} removes a savepoint no longer needed. All savepoints are released
+     * when the transaction is committed or rolled back, after which using them throws a {@link SQLException}
+     */
+    @Test
+    @DisplayName("using savepoints")
+    @JdbcSql("c2/using_transactions/using_savepoints.sql")
+    public void usingSavepoints(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        Statement stmt = conn.createStatement();
+        stmt.executeUpdate("UPDATE TABLE_C2 SET NAME = 'NAME_UPDATED' WHERE ID = 1");
+        Savepoint savepoint = conn.setSavepoint();
+        stmt.executeUpdate("UPDATE TABLE_C2 SET NAME = 'NAME_UPDATED' WHERE ID = 2");
+        conn.rollback(savepoint);
+        conn.commit();
+
+        ResultSet rs = stmt.executeQuery("SELECT NAME FROM TABLE_C2 ORDER BY ID");
+        rs.next();
+        Assertions.assertEquals("NAME_UPDATED", rs.getString("NAME"));
+        rs.next();
+        Assertions.assertEquals("NAME_1", rs.getString("NAME"));
+        Assertions.assertThrows(SQLException.class, () -> conn.rollback(savepoint));
+    }
 }
@@ -1,13 +1,145 @@
 package it.mauluk92.jdbc.c3;
 
+import it.mauluk92.jdbc.batch.BatchWriter;
+import it.mauluk92.jdbc.batch.BatchWriterConfig;
 import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
 import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
 /**
  * This class contains tests to validate rules about
  * making batch updates with JDBC API
  */
 @ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
 public class MakingBatchUpdatesTest {
+
+    private static final int ROWS = 10_000;
+
+    /**
+     * A {@link Statement} object has an associated list of commands, initially empty.
+     * You add SQL commands to this list with the method {@code addBatch}, and send all
+     * of them to the DBMS as a single unit with the method {@code executeBatch}.
+     * The method returns an array with the update count of each command, in the order
+     * in which commands were added to the batch. The list is emptied once the batch is executed.
+     * Auto-commit mode should be disabled, so that the batch can be committed or rolled back as a whole
+     */
+    @Test
+    @JdbcSql("c3/making_batch_updates/adding_statements_to_batch.sql")
+    @DisplayName("Adding statements to a batch")
+    public void addingStatementsToABatch(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        Statement stmt = conn.createStatement();
+        stmt.addBatch("INSERT INTO TABLE_C3(ID, NAME) VALUES (2, 'NAME_SECOND')");
+        stmt.addBatch("INSERT INTO TABLE_C3(ID, NAME) VALUES (3, 'NAME_THIRD')");
+        stmt.addBatch("UPDATE TABLE_C3 SET NAME = 'UPDATED' WHERE ID <= 2");
+        int[] updateCounts = stmt.executeBatch();
+        conn.commit();
+        Assertions.assertArrayEquals(new int[]{1, 1, 2}, updateCounts);
+    }
+
+    /**
+     * A {@link PreparedStatement} can be executed in a batch as well: every call to {@code addBatch}
+     * adds the current set of parameters to the batch, so the statement is compiled once
+     * and executed with many different values
+     */
+    @Test
+    @JdbcSql("c3/making_batch_updates/parameterized_batch_update.sql")
+    @DisplayName("Performing parameterized batch update")
+    public void parameterizedBatchUpdate(Connection conn) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement("INSERT INTO TABLE_C3(ID, NAME) VALUES (?, ?)");
+        for (int id = 2; id <= 4; id++) {
+            stmt.setInt(1, id);
+            stmt.setString(2, "NAME_" + id);
+            stmt.addBatch();
+        }
+        Assertions.assertEquals(3, stmt.executeBatch().length);
+        Assertions.assertEquals(4, count(conn));
+    }
+
+    /**
+     * When a command of the batch fails, the driver throws a {@link BatchUpdateException}.
+     * Its method {@code getUpdateCounts} tells which commands succeeded: depending on the driver,
+     * the array either stops at the failing command, or contains {@link Statement#EXECUTE_FAILED}
+     * for each failed command and goes on with the others
+     */
+    @Test
+    @JdbcSql("c3/making_batch_updates/handling_batch_update_exceptions.sql")
+    @DisplayName("Handling batch update exceptions")
+    public void handlingBatchUpdateExceptions(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.addBatch("INSERT INTO TABLE_C3(ID, NAME) VALUES (2, 'NAME_SECOND')");
+        stmt.addBatch("INSERT INTO TABLE_C3(ID, NAME) VALUES (1, 'DUPLICATE')");
+        stmt.addBatch("INSERT INTO TABLE_C3(ID, NAME) VALUES (3, 'NAME_THIRD')");
+        BatchUpdateException e = Assertions.assertThrows(BatchUpdateException.class, stmt::executeBatch);
+        int[] updateCounts = e.getUpdateCounts();
+        Assertions.assertEquals(1, updateCounts[0]);
+        Assertions.assertEquals(Statement.EXECUTE_FAILED, updateCounts[1]);
+    }
+
+    /**
+     * Writing rows one {@code executeUpdate} at a time, as done in {@code UsingPreparedStatementsTest},
+     * costs a call to the DBMS per row. A {@link BatchWriter} groups the rows and sends a batch per call.
+     * Both patterns must write exactly the same rows; how much faster batches are is measured by
+     * {@code BatchWriterBenchmark}, not here
+     */
+    @Test
+    @JdbcSql("c3/making_batch_updates/batch_writer_equivalence.sql")
+    @DisplayName("Batch writer writes the same rows as row by row updates")
+    public void batchWriterWritesTheSameRowsAsRowByRow(Connection conn) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement("INSERT INTO TABLE_C3(ID, NAME) VALUES (?, ?)");
+        int updated = 0;
+        for (int id = 2; id < ROWS + 2; id++) {
+            stmt.setInt(1, id);
+            stmt.setString(2, "NAME_" + id);
+            updated += stmt.executeUpdate();
+        }
+        conn.commit();
+        Assertions.assertEquals(ROWS, updated);
+        String rowByRow = checksum(conn);
+        Assertions.assertEquals(ROWS + 1, count(conn));
+
+        conn.createStatement().executeUpdate("DELETE FROM TABLE_C3 WHERE ID > 1");
+        conn.commit();
+
+        BatchWriter<Integer> writer = new BatchWriter<>(conn, "INSERT INTO TABLE_C3(ID, NAME) VALUES (?, ?)",
+                (ps, id) -> {
+                    ps.setInt(1, id);
+                    ps.setString(2, "NAME_" + id);
+                },
+                new BatchWriterConfig().setBatchSize(1_000));
+        try (writer) {
+            for (int id = 2; id < ROWS + 2; id++) {
+                writer.add(id);
+            }
+        }
+        conn.commit();
+        Assertions.assertEquals(ROWS, writer.getWritten());
+        Assertions.assertEquals(ROWS / 1_000, writer.getBatches());
+        Assertions.assertTrue(writer.getFailures().isEmpty());
+        Assertions.assertEquals(ROWS + 1, count(conn));
+        Assertions.assertEquals(rowByRow, checksum(conn));
+    }
+
+    private static String checksum(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT SUM(ID), MAX(NAME), MIN(NAME) FROM TABLE_C3");
+        rs.next();
+        return rs.getLong(1) + ":" + rs.getString(2) + ":" + rs.getString(3);
+    }
+
+    private static int count(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM TABLE_C3");
+        rs.next();
+        return rs.getInt(1);
+    }
 }
@@ -0,0 +1,205 @@
+package it.mauluk92.jdbc.cache;
+
+import it.mauluk92.jdbc.mapping.RowMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class contains tests to validate the caching of query results by {@link QueryCache},
+ * and their invalidation when the tables they read are changed through a {@link QuerySession}
+ */
+public class QueryCacheTest {
+
+    private static final String SELECT = "SELECT ID, NAME FROM TABLE_C2 ORDER BY ID";
+    private static final RowMapper<String> ROW = rs -> rs.getInt("ID") + ":" + rs.getString("NAME");
+
+    private Connection conn;
+    private Connection otherConn;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:query_cache", "sa", "");
+        conn.createStatement().execute("CREATE TABLE TABLE_C2 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        conn.createStatement().execute("CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        conn.createStatement().execute("INSERT INTO TABLE_C2(ID, NAME) VALUES (1, 'NAME_1'), (2, 'NAME_2')");
+        conn.createStatement().execute("INSERT INTO TABLE_C3(ID, NAME) VALUES (1, 'NAME_3')");
+        conn.setAutoCommit(false);
+        otherConn = DriverManager.getConnection("jdbc:h2:mem:query_cache", "sa", "");
+        otherConn.setAutoCommit(false);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        otherConn.close();
+        conn.close();
+    }
+
+    /**
+     * The same query with the same parameters is executed once, other parameters make another entry
+     */
+    @Test
+    @DisplayName("Repeated queries are cached")
+    public void repeatedQueriesAreCached() throws SQLException {
+        QueryCache cache = new QueryCache(new QueryCacheConfig());
+        QuerySession session = cache.session(conn);
+        List<String> rows = session.query(SELECT, ROW);
+        Assertions.assertEquals(List.of("1:NAME_1", "2:NAME_2"), rows);
+        Assertions.assertSame(rows, session.query(SELECT, ROW));
+        Assertions.assertSame(rows, cache.session(otherConn).query(SELECT, ROW));
+        String byId = "SELECT ID, NAME FROM TABLE_C2 WHERE ID = ?";
+        Assertions.assertEquals(List.of("1:NAME_1"), session.query(byId, ROW, 1));
+        Assertions.assertEquals(List.of("2:NAME_2"), session.query(byId, ROW, 2));
+
+        QueryCacheStats stats = cache.getStats();
+        Assertions.assertEquals(2, stats.getHits());
+        Assertions.assertEquals(3, stats.getMisses());
+        Assertions.assertEquals(0.4, stats.getHitRate(), 1e-9);
+        Assertions.assertEquals(3, stats.getSize());
+        Assertions.assertEquals(4, stats.getWeight());
+    }
+
+    /**
+     * Committing an update discards the entries reading its table, and only those.
+     * Rolling back leaves the cache as it was
+     */
+    @Test
+    @DisplayName("Commits invalidate, rollbacks do not")
+    public void commitsInvalidateRollbacksDoNot() throws SQLException {
+        QueryCache cache = new QueryCache(new QueryCacheConfig());
+        QuerySession session = cache.session(conn);
+        QuerySession other = cache.session(otherConn);
+        List<String> cached = session.query(SELECT, ROW);
+        session.query("SELECT ID, NAME FROM TABLE_C3", ROW);
+
+        session.update("UPDATE TABLE_C2 SET NAME = ? WHERE ID = ?", "NAME_UPDATED", 1);
+        session.rollback();
+        Assertions.assertSame(cached, other.query(SELECT, ROW));
+
+        session.update("UPDATE TABLE_C2 SET NAME = ? WHERE ID = ?", "NAME_UPDATED", 1);
+        session.commit();
+        Assertions.assertEquals(1, cache.getStats().getInvalidations());
+        Assertions.assertEquals(List.of("1:NAME_UPDATED", "2:NAME_2"), other.query(SELECT, ROW));
+        Assertions.assertEquals(List.of("1:NAME_3"), other.query("SELECT ID, NAME FROM TABLE_C3", ROW));
+        Assertions.assertEquals(2, cache.getStats().getHits());
+    }
+
+    /**
+     * A query reading several tables through a {@code FROM} list is invalidated by a commit to any of them,
+     * and a query whose tables cannot be found is not cached at all
+     */
+    @Test
+    @DisplayName("Every table of a FROM list invalidates")
+    public void everyTableOfAFromListInvalidates() throws SQLException {
+        QueryCache cache = new QueryCache(new QueryCacheConfig());
+        QuerySession session = cache.session(conn);
+        QuerySession other = cache.session(otherConn);
+        String join = "SELECT C3.ID, C2.NAME || C3.NAME AS NAME FROM TABLE_C2 C2, TABLE_C3 C3 WHERE C2.ID = C3.ID";
+        Assertions.assertEquals(List.of("1:NAME_1NAME_3"), other.query(join, ROW));
+
+        session.update("UPDATE TABLE_C3 SET NAME = ? WHERE ID = ?", "NAME_UPDATED", 1);
+        session.commit();
+        Assertions.assertEquals(List.of("1:NAME_1NAME_UPDATED"), other.query(join, ROW));
+
+        String noTable = "SELECT 1 AS ID, 'NAME' AS NAME";
+        other.query(noTable, ROW);
+        other.query(noTable, ROW);
+        Assertions.assertEquals(2, cache.getStats().getBypasses());
+        Assertions.assertEquals(0, cache.getStats().getHits());
+    }
+
+    /**
+     * Mappers created by the same lambda but capturing different columns map the same query into different entries
+     */
+    @Test
+    @DisplayName("Rows are cached per mapper")
+    public void rowsAreCachedPerMapper() throws SQLException {
+        QuerySession session = new QueryCache(new QueryCacheConfig()).session(conn);
+        Assertions.assertEquals(List.of("1", "2"), session.query(SELECT, column("ID")));
+        Assertions.assertEquals(List.of("NAME_1", "NAME_2"), session.query(SELECT, column("NAME")));
+    }
+
+    private static RowMapper<String> column(String column) {
+        return rs -> rs.getString(column);
+    }
+
+    /**
+     * A session reads its own uncommitted changes, while other sessions keep reading the committed rows from the cache
+     */
+    @Test
+    @DisplayName("Uncommitted changes bypass the cache")
+    public void uncommittedChangesBypassTheCache() throws SQLException {
+        QueryCache cache = new QueryCache(new QueryCacheConfig());
+        QuerySession session = cache.session(conn);
+        QuerySession other = cache.session(otherConn);
+        List<String> cached = other.query("SELECT C2.NAME || C3.NAME AS ID, '' AS NAME FROM TABLE_C3 C3 " +
+                "JOIN TABLE_C2 C2 ON C2.ID = C3.ID", rs -> rs.getString(1));
+        Assertions.assertEquals(List.of("NAME_1NAME_3"), cached);
+
+        session.update("DELETE FROM TABLE_C2 WHERE ID = ?", 1);
+        Assertions.assertEquals(List.of(), session.query("SELECT C2.NAME || C3.NAME AS ID, '' AS NAME FROM TABLE_C3 C3 " +
+                "JOIN TABLE_C2 C2 ON C2.ID = C3.ID", rs -> rs.getString(1)));
+        Assertions.assertEquals(1, cache.getStats().getBypasses());
+        Assertions.assertEquals(List.of("1:NAME_1", "2:NAME_2"), other.query(SELECT, ROW));
+        Assertions.assertEquals(List.of("2:NAME_2"), session.query(SELECT, ROW));
+
+        conn.setAutoCommit(true);
+        session.update("INSERT INTO TABLE_C2(ID, NAME) VALUES (?, ?)", 3, "NAME_3");
+        Assertions.assertEquals(List.of("2:NAME_2", "3:NAME_3"), other.query(SELECT, ROW));
+    }
+
+    /**
+     * Least recently used entries are evicted when the rows cached exceed the maximum weight,
+     * and entries older than their time to live are executed again
+     */
+    @Test
+    @DisplayName("Eviction by weight and time to live")
+    public void evictionByWeightAndTimeToLive() throws SQLException {
+        long[] now = new long[1];
+        QueryCache cache = new QueryCache(new QueryCacheConfig().setMaxWeight(3).setTimeToLive(Duration.ofSeconds(10)),
+                () -> now[0]);
+        QuerySession session = cache.session(conn);
+        String byId = "SELECT ID, NAME FROM TABLE_C2 WHERE ID = ?";
+        session.query(byId, ROW, 1);
+        session.query(byId, ROW, 2);
+        session.query(byId, ROW, 1);
+        session.query(SELECT, ROW);
+        Assertions.assertEquals(1, cache.getStats().getEvictions());
+        Assertions.assertEquals(3, cache.getStats().getWeight());
+        session.query(byId, ROW, 1);
+        Assertions.assertEquals(2, cache.getStats().getHits());
+
+        now[0] += Duration.ofSeconds(10).toNanos();
+        session.query(byId, ROW, 1);
+        Assertions.assertEquals(2, cache.getStats().getHits());
+        Assertions.assertEquals(4, cache.getStats().getMisses());
+    }
+
+    /**
+     * Tables are found after {@code FROM} and {@code JOIN} in queries, and after the verb in updates
+     */
+    @Test
+    @DisplayName("Finding the tables of a statement")
+    public void findingTheTablesOfAStatement() {
+        Assertions.assertEquals(Set.of("TABLE_C2", "TABLE_C3"),
+                SqlTables.read("select * from PUBLIC.table_c2 a join \"TABLE_C3\" b on a.ID = b.ID"));
+        Assertions.assertEquals(Set.of("TABLE_C2", "TABLE_C3"),
+                SqlTables.read("SELECT * FROM TABLE_C2 a, TABLE_C3 AS b WHERE a.ID = b.ID"));
+        Assertions.assertEquals(Set.of("TABLE_C2", "TABLE_C3"),
+                SqlTables.read("SELECT * FROM (SELECT ID FROM TABLE_C2) a, TABLE_C3 b WHERE a.ID = b.ID"));
+        Assertions.assertNull(SqlTables.read("SELECT * FROM CSVREAD('rows.csv')"));
+        Assertions.assertNull(SqlTables.read("SELECT 1"));
+        Assertions.assertEquals("TABLE_C2", SqlTables.written("  delete from table_c2 where ID = 1"));
+        Assertions.assertEquals("TABLE_C3", SqlTables.written("INSERT INTO TABLE_C3(ID) SELECT ID FROM TABLE_C2"));
+        Assertions.assertNull(SqlTables.written("DROP TABLE TABLE_C2"));
+    }
+}
@@ -0,0 +1,177 @@
+package it.mauluk92.jdbc.changes;
+
+import it.mauluk92.jdbc.metrics.InstrumentedConnection;
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This class contains tests to validate the capture of row changes by {@link ChangeFeed},
+ * and the views of {@code TABLE_C3} maintained from them
+ */
+public class ChangeFeedTest {
+
+    private static final String URL = "jdbc:h2:mem:change_feed;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+    private Connection writer;
+    private ChangeFeed feed;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection(URL, "sa", "");
+        writer = DriverManager.getConnection(URL, "sa", "");
+        conn.createStatement().execute("CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        conn.createStatement().execute("INSERT INTO TABLE_C3(ID, NAME) VALUES (1, 'NAME_1'), (2, 'NAME_1')");
+        feed = new ChangeFeed(64);
+        feed.watch(conn, "TABLE_C3");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        feed.close();
+        conn.createStatement().execute("DROP ALL OBJECTS");
+        writer.close();
+        conn.close();
+    }
+
+    /**
+     * Inserts, updates and deletes are published in order, with the rows before and after the change
+     */
+    @Test
+    @DisplayName("Capturing row changes")
+    public void capturingRowChanges() {
+        ChangeSubscription subscription = feed.subscribe();
+        Assertions.assertDoesNotThrow(() -> {
+            Statement stmt = writer.createStatement();
+            stmt.executeUpdate("INSERT INTO TABLE_C3(ID, NAME) VALUES (3, 'NAME_3')");
+            stmt.executeUpdate("UPDATE TABLE_C3 SET NAME = 'UPDATED_NAME' WHERE ID = 1");
+            stmt.executeUpdate("DELETE FROM TABLE_C3 WHERE ID = 2");
+        });
+        List<ChangeEvent> events = subscription.poll(10);
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(ChangeType.INSERT, events.get(0).getType());
+        Assertions.assertArrayEquals(new Object[]{3, "NAME_3"}, events.get(0).getNewRow());
+        Assertions.assertEquals(ChangeType.UPDATE, events.get(1).getType());
+        Assertions.assertArrayEquals(new Object[]{1, "NAME_1"}, events.get(1).getOldRow());
+        Assertions.assertArrayEquals(new Object[]{1, "UPDATED_NAME"}, events.get(1).getNewRow());
+        Assertions.assertEquals(ChangeType.DELETE, events.get(2).getType());
+        Assertions.assertNull(events.get(2).getNewRow());
+        Assertions.assertEquals(events.get(0).getSequence() + 2, events.get(2).getSequence());
+        Assertions.assertEquals("TABLE_C3", events.get(0).getTable());
+        Assertions.assertTrue(subscription.poll(10).isEmpty());
+    }
+
+    /**
+     * The view is updated from the events only: the table is read once, when the view is created,
+     * while the changes of the sensitive result set example are applied as they happen
+     */
+    @Test
+    @DisplayName("Maintaining a view incrementally")
+    public void maintainingAViewIncrementally() throws SQLException {
+        JdbcMetrics metrics = new JdbcMetrics();
+        MaterializedView view = new MaterializedView(feed, InstrumentedConnection.wrap(conn, metrics), "TABLE_C3", "ID");
+        Assertions.assertEquals(List.of("ID", "NAME"), view.getColumns());
+        Assertions.assertEquals(2, view.size());
+
+        Statement stmt = writer.createStatement();
+        stmt.executeUpdate("UPDATE TABLE_C3 SET TABLE_C3.NAME = 'UPDATED_NAME' WHERE TABLE_C3.ID= 1");
+        Assertions.assertEquals("NAME_1", view.get(1)[1]);
+        Assertions.assertEquals(1, view.refresh());
+        Assertions.assertEquals("UPDATED_NAME", view.get(1)[1]);
+
+        stmt.executeUpdate("UPDATE TABLE_C3 SET ID = 20 WHERE ID = 2");
+        stmt.executeUpdate("INSERT INTO TABLE_C3(ID, NAME) SELECT X, 'NAME_' || X FROM SYSTEM_RANGE(100, 149)");
+        Assertions.assertEquals(51, view.refresh());
+        Assertions.assertNull(view.get(2));
+        Assertions.assertEquals("NAME_1", view.get(20)[1]);
+        Assertions.assertEquals(52, view.size());
+        Assertions.assertEquals(52, view.getAppliedEvents());
+        Assertions.assertEquals(1, metrics.snapshot().getStatements().get("SELECT * FROM TABLE_C3").getExecutions());
+    }
+
+    /**
+     * Changes of a transaction are published before it commits, and undone by opposite events when it rolls back
+     */
+    @Test
+    @DisplayName("Rolled back changes are undone")
+    public void rolledBackChangesAreUndone() throws SQLException {
+        MaterializedView view = new MaterializedView(feed, conn, "TABLE_C3", "ID");
+        writer.setAutoCommit(false);
+        Statement stmt = writer.createStatement();
+        stmt.executeUpdate("INSERT INTO TABLE_C3(ID, NAME) VALUES (3, 'NAME_3')");
+        stmt.executeUpdate("DELETE FROM TABLE_C3 WHERE ID = 1");
+        view.refresh();
+        Assertions.assertNotNull(view.get(3));
+        Assertions.assertNull(view.get(1));
+        writer.rollback();
+        writer.setAutoCommit(true);
+        view.refresh();
+        Assertions.assertNull(view.get(3));
+        Assertions.assertArrayEquals(new Object[]{1, "NAME_1"}, view.get(1));
+        Assertions.assertEquals(2, view.size());
+    }
+
+    /**
+     * A change made before the view subscribes is published before it commits, and would never reach the view:
+     * the view is not created while such a change is pending
+     */
+    @Test
+    @DisplayName("No view over uncommitted changes")
+    public void noViewOverUncommittedChanges() throws SQLException {
+        writer.setAutoCommit(false);
+        writer.createStatement().executeUpdate("UPDATE TABLE_C3 SET NAME = 'UPDATED_NAME' WHERE ID = 1");
+        Assertions.assertThrows(SQLException.class, () -> new MaterializedView(feed, conn, "TABLE_C3", "ID"));
+        writer.commit();
+        writer.setAutoCommit(true);
+        MaterializedView view = new MaterializedView(feed, conn, "TABLE_C3", "ID");
+        Assertions.assertEquals("UPDATED_NAME", view.get(1)[1]);
+    }
+
+    /**
+     * Writers never wait: a subscription left behind by more than the capacity is told how many events it lost,
+     * and a view reads its table again
+     */
+    @Test
+    @DisplayName("Missed changes")
+    public void missedChanges() throws SQLException, InterruptedException {
+        ChangeSubscription subscription = feed.subscribe();
+        MaterializedView view = new MaterializedView(feed, conn, "TABLE_C3", "ID");
+        writer.createStatement().executeUpdate(
+                "INSERT INTO TABLE_C3(ID, NAME) SELECT X, 'NAME_' || X FROM SYSTEM_RANGE(3, 102)");
+        MissedChangesException missed = Assertions.assertThrows(MissedChangesException.class, () -> subscription.poll(10));
+        Assertions.assertEquals(100 - feed.getCapacity(), missed.getMissed());
+        Assertions.assertEquals(feed.getSequence(), subscription.getPosition());
+        Assertions.assertTrue(subscription.poll(10, Duration.ofMillis(10)).isEmpty());
+
+        view.refresh();
+        Assertions.assertEquals(1, view.getReloads());
+        Assertions.assertEquals(102, view.size());
+    }
+
+    /**
+     * A table named with its schema gets its trigger in that schema, and a view over it applies its events
+     */
+    @Test
+    @DisplayName("Watching a schema qualified table")
+    public void watchingASchemaQualifiedTable() throws SQLException {
+        try (ChangeFeed qualified = new ChangeFeed(8)) {
+            qualified.watch(conn, "PUBLIC.TABLE_C3");
+            MaterializedView view = new MaterializedView(qualified, conn, "PUBLIC.TABLE_C3", "id");
+            writer.createStatement().executeUpdate("INSERT INTO TABLE_C3(ID, NAME) VALUES (3, 'NAME_3')");
+            Assertions.assertEquals(1, view.refresh());
+            Assertions.assertEquals("NAME_3", view.get(3)[1]);
+            qualified.unwatch(conn, "PUBLIC.TABLE_C3");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package it.mauluk92.jdbc.columnar;
+
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * This class contains tests to validate the scrolling of a {@link ColumnarResultSet},
+ * which must behave as a {@code TYPE_SCROLL_INSENSITIVE} result set
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class ColumnarResultSetTest {
+
+    private static ColumnarResultSet copy(Connection conn, String sql) throws SQLException {
+        return ColumnarResultSet.copyOf(conn.createStatement().executeQuery(sql));
+    }
+
+    /**
+     * The cursor moves as in {@code CursorScrollableSetTest}, forward, backward and to designated rows,
+     * and stops before the first or after the last row when asked to go further, however far
+     */
+    @Test
+    @JdbcSql("columnar/columnar_result_set/moving_the_cursor.sql")
+    @DisplayName("Moving the cursor")
+    public void movingTheCursor(Connection conn) throws SQLException {
+        ColumnarResultSet rs = copy(conn, "SELECT ID, NAME FROM TABLE_C3 ORDER BY ID");
+        Assertions.assertTrue(rs.isBeforeFirst());
+        rs.next();
+        rs.next();
+        Assertions.assertEquals(2, rs.getInt("ID"));
+        rs.previous();
+        Assertions.assertEquals(1, rs.getInt("ID"));
+        Assertions.assertTrue(rs.isFirst());
+        rs.absolute(-1);
+        Assertions.assertEquals(3, rs.getInt("ID"));
+        Assertions.assertTrue(rs.isLast());
+        rs.relative(-1);
+        Assertions.assertEquals("NAME_MIDDLE", rs.getString("NAME"));
+        Assertions.assertEquals(2, rs.getRow());
+        Assertions.assertFalse(rs.relative(5));
+        Assertions.assertTrue(rs.isAfterLast());
+        rs.absolute(2);
+        Assertions.assertFalse(rs.relative(Integer.MAX_VALUE));
+        Assertions.assertTrue(rs.isAfterLast());
+        rs.absolute(2);
+        Assertions.assertFalse(rs.relative(Integer.MIN_VALUE));
+        Assertions.assertTrue(rs.isBeforeFirst());
+        Assertions.assertFalse(rs.absolute(Integer.MIN_VALUE));
+        Assertions.assertTrue(rs.isBeforeFirst());
+        Assertions.assertThrows(SQLException.class, () -> rs.getInt(1));
+    }
+
+    /**
+     * The copy is insensitive: changes made after it was taken are not visible
+     */
+    @Test
+    @JdbcSql("columnar/columnar_result_set/the_copy_is_insensitive.sql")
+    @DisplayName("The copy is insensitive")
+    public void theCopyIsInsensitive(Connection conn) throws SQLException {
+        ColumnarResultSet rs = copy(conn, "SELECT ID, NAME FROM TABLE_C3 ORDER BY ID");
+        conn.createStatement().executeUpdate("UPDATE TABLE_C3 SET NAME = 'UPDATED_NAME'");
+        rs.first();
+        Assertions.assertEquals("NAME_FIRST", rs.getString(2));
+    }
+
+    /**
+     * {@code BIGINT} columns keep their full range, and {@code NULL} values read as with JDBC getters
+     */
+    @Test
+    @JdbcSql("columnar/columnar_result_set/reading_longs_and_nulls.sql")
+    @DisplayName("Reading longs and nulls")
+    public void readingLongsAndNulls(Connection conn) throws SQLException {
+        ColumnarResultSet rs = copy(conn, "SELECT AMOUNT, NAME FROM TABLE_C3 ORDER BY ID");
+        Assertions.assertFalse(rs.wasNull());
+        rs.next();
+        Assertions.assertFalse(rs.wasNull());
+        Assertions.assertEquals(10_000_000_000L, rs.getLong("AMOUNT"));
+        Assertions.assertFalse(rs.wasNull());
+        rs.next();
+        Assertions.assertEquals(0, rs.getLong("AMOUNT"));
+        Assertions.assertTrue(rs.wasNull());
+        ColumnarResultSet names = copy(conn, "SELECT CAST(NULL AS VARCHAR) AS NAME");
+        names.next();
+        Assertions.assertNull(names.getString("NAME"));
+        Assertions.assertTrue(names.wasNull());
+        Assertions.assertThrows(SQLFeatureNotSupportedException.class, () -> copy(conn, "SELECT CURRENT_DATE"));
+    }
+
+    /**
+     * Strings are dictionary encoded, so many rows sharing a few values only store each value once
+     */
+    @Test
+    @JdbcSql("columnar/columnar_result_set/strings_are_dictionary_encoded.sql")
+    @DisplayName("Strings are dictionary encoded")
+    public void stringsAreDictionaryEncoded(Connection conn) throws SQLException {
+        ColumnarResultSet rs = copy(conn, "SELECT X AS ID, 'NAME_' || MOD(X, 10) AS NAME FROM SYSTEM_RANGE(1, 200000)");
+        Assertions.assertEquals(200_000, rs.size());
+        rs.absolute(123_457);
+        Assertions.assertEquals(123_457, rs.getInt(1));
+        Assertions.assertEquals("NAME_7", rs.getString(2));
+        rs.absolute(-1);
+        Assertions.assertEquals("NAME_0", rs.getString("NAME"));
+        Assertions.assertTrue(rs.offHeapBytes() >= 200_000L * 2 * Integer.BYTES);
+
+        ResultSet source = conn.createStatement().executeQuery("SELECT 'A' AS NAME FROM SYSTEM_RANGE(1, 1000)");
+        DictionaryColumn column = new DictionaryColumn();
+        while (source.next()) {
+            column.append(source, 1);
+        }
+        Assertions.assertEquals(1, column.dictionarySize());
+    }
+
+    /**
+     * Buffers grow by doubling, up to the largest size an {@code int} can index
+     */
+    @Test
+    @DisplayName("Buffers cannot outgrow an int")
+    public void buffersCannotOutgrowAnInt() throws SQLException {
+        ByteBuffer buffer = Column.allocate(8);
+        Assertions.assertSame(buffer, Column.reserve(buffer, 8));
+        Assertions.assertEquals(16, Column.reserve(buffer, 9).capacity());
+        Assertions.assertEquals(100, Column.reserve(buffer, 100).capacity());
+        Assertions.assertThrows(SQLException.class, () -> Column.reserve(buffer, Integer.MAX_VALUE + 1L));
+    }
+}
@@ -0,0 +1,131 @@
+package it.mauluk92.jdbc.concurrent;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains tests to validate the concurrent execution of queries by {@link ConcurrentQueryExecutor}.
+ * Latency is simulated by a {@code SLEEP} function, mapped to {@link Thread#sleep(long)}
+ */
+public class ConcurrentQueryExecutorTest {
+
+    private static final long LATENCY_MILLIS = 200;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:concurrent_query;DB_CLOSE_DELAY=-1", "sa", "")
+                .setMaxSize(8));
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("CREATE ALIAS SLEEP FOR 'java.lang.Thread.sleep(long)'");
+        conn.createStatement().execute("CREATE TABLE TABLE_C2 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        conn.createStatement().execute("INSERT INTO TABLE_C2(ID, NAME) SELECT X, 'NAME_' || X FROM SYSTEM_RANGE(1, 8)");
+        pool.release(conn);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("DROP ALL OBJECTS");
+        pool.release(conn);
+        pool.close();
+    }
+
+    private static List<QueryTask<List<String>>> slowQueries(int count) {
+        List<QueryTask<List<String>>> tasks = new ArrayList<>();
+        for (int id = 1; id <= count; id++) {
+            tasks.add(ConcurrentQueryExecutor.query(
+                    "SELECT NAME FROM TABLE_C2 WHERE ID = ? AND SLEEP(?) IS NULL", rs -> rs.getString(1), id, LATENCY_MILLIS));
+        }
+        return tasks;
+    }
+
+    /**
+     * Independent queries run at the same time: eight queries of 200 ms each take about 200 ms, not 1600 ms
+     */
+    @Test
+    @DisplayName("Queries take the time of the slowest one")
+    public void queriesTakeTheTimeOfTheSlowestOne() throws SQLException, InterruptedException {
+        ConcurrentQueryExecutor executor = new ConcurrentQueryExecutor(pool, 8, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+        List<List<String>> results = executor.invokeAll(slowQueries(8));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertEquals(List.of("NAME_1"), results.get(0));
+        Assertions.assertEquals(List.of("NAME_8"), results.get(7));
+        Assertions.assertTrue(elapsedMillis < 4 * LATENCY_MILLIS, "elapsed " + elapsedMillis + " ms");
+    }
+
+    /**
+     * No more connections than the cap are borrowed, the other queries wait for their turn
+     */
+    @Test
+    @DisplayName("Connection usage is capped")
+    public void connectionUsageIsCapped() throws SQLException, InterruptedException {
+        ConcurrentQueryExecutor executor = new ConcurrentQueryExecutor(pool, 2, Duration.ofSeconds(10));
+        long start = System.nanoTime();
+        Assertions.assertEquals(8, executor.invokeAll(slowQueries(8)).size());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertEquals(2, executor.getPeakConnections());
+        Assertions.assertTrue(pool.getMetrics().getCreated() <= 2 + 1);
+        Assertions.assertTrue(elapsedMillis >= 4 * LATENCY_MILLIS, "elapsed " + elapsedMillis + " ms");
+    }
+
+    /**
+     * A query running longer than the timeout fails, and the failure cancels the queries still running
+     */
+    @Test
+    @DisplayName("Timeouts cancel the other queries")
+    public void timeoutsCancelTheOtherQueries() {
+        ConcurrentQueryExecutor executor = new ConcurrentQueryExecutor(pool, 4, Duration.ofSeconds(1));
+        List<QueryTask<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(conn -> {
+                var rs = conn.createStatement().executeQuery(
+                        "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) A, SYSTEM_RANGE(1, 100000) B WHERE A.X + B.X = 0");
+                rs.next();
+                return rs.getLong(1);
+            });
+        }
+        long start = System.nanoTime();
+        Assertions.assertThrows(SQLTimeoutException.class, () -> executor.invokeAll(tasks));
+        Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+        Assertions.assertEquals(0, pool.getMetrics().getBorrowed());
+    }
+
+    /**
+     * When a task fails, errors included, the failure is thrown only once the cancelled tasks have ended
+     * and given their connections back
+     */
+    @Test
+    @DisplayName("Failures wait for the cancelled tasks")
+    public void failuresWaitForTheCancelledTasks() {
+        ConcurrentQueryExecutor executor = new ConcurrentQueryExecutor(pool, 8, Duration.ofSeconds(10));
+        List<QueryTask<List<String>>> tasks = new ArrayList<>(slowQueries(4));
+        tasks.add(conn -> {
+            throw new SQLException("failed");
+        });
+        Assertions.assertThrows(SQLException.class, () -> executor.invokeAll(tasks));
+        Assertions.assertEquals(0, pool.getMetrics().getBorrowed());
+
+        tasks.set(4, conn -> {
+            throw new AssertionError("failed");
+        });
+        Assertions.assertThrows(AssertionError.class, () -> executor.invokeAll(tasks));
+        Assertions.assertEquals(0, pool.getMetrics().getBorrowed());
+    }
+}
@@ -0,0 +1,125 @@
+package it.mauluk92.jdbc.generator;
+
+import it.mauluk92.jdbc.bulk.LoadReport;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcData;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+/**
+ * This class contains tests to validate the rows generated by {@link DataGenerator},
+ * directly and through the {@link JdbcData} annotation
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class DataGeneratorTest {
+
+    /**
+     * The same seed gives the same rows, another seed other rows
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/creating_updatable_set.sql")
+    @DisplayName("Rows depend only on the seed")
+    public void rowsDependOnlyOnTheSeed(Connection conn) throws SQLException {
+        Iterator<Object[]> first = new DataGenerator(7).rows(conn, "TABLE_C3", 100);
+        Iterator<Object[]> second = new DataGenerator(7).rows(conn, "TABLE_C3", 100);
+        Iterator<Object[]> other = new DataGenerator(8).rows(conn, "TABLE_C3", 100);
+        int differences = 0;
+        for (int id = 1; id <= 100; id++) {
+            Object[] row = first.next();
+            Assertions.assertEquals(id, row[0]);
+            Assertions.assertArrayEquals(row, second.next());
+            differences += row[1].equals(other.next()[1]) ? 0 : 1;
+        }
+        Assertions.assertFalse(first.hasNext());
+        Assertions.assertTrue(differences > 90);
+    }
+
+    /**
+     * Generated rows follow the fixture rows, and every column gets a value of its type
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/creating_updatable_set.sql")
+    @DisplayName("Populating a table")
+    public void populatingATable(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.execute("CREATE TABLE TABLE_TYPES (CODE VARCHAR(6), ID BIGINT PRIMARY KEY, ACTIVE BOOLEAN, CREATED DATE)");
+        LoadReport report = new DataGenerator(1).populate(conn, "TABLE_TYPES", 10_000);
+        Assertions.assertEquals(10_000, report.getRows());
+        new DataGenerator(1).populate(conn, "TABLE_C3", ScaleFactor.SF_1K);
+
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MIN(ID), MAX(ID), COUNT(DISTINCT ID) FROM TABLE_C3");
+        rs.next();
+        Assertions.assertEquals(1_003, rs.getLong(1));
+        Assertions.assertEquals(1, rs.getLong(2));
+        Assertions.assertEquals(1_003, rs.getLong(3));
+        Assertions.assertEquals(1_003, rs.getLong(4));
+
+        rs = stmt.executeQuery("SELECT CODE, ID, ACTIVE, CREATED FROM TABLE_TYPES ORDER BY ID");
+        rs.next();
+        Assertions.assertTrue(rs.getString("CODE").startsWith("CODE_"));
+        Assertions.assertTrue(rs.getString("CODE").length() <= 6);
+        Assertions.assertEquals(1, rs.getLong("ID"));
+        Assertions.assertTrue(rs.getDate("CREATED").after(Date.valueOf("1999-12-31")));
+    }
+
+    /**
+     * A key column too narrow for the rows is refused up front, rather than wrapping around into duplicate keys
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/creating_updatable_set.sql")
+    @DisplayName("Keys must fit their column")
+    public void keysMustFitTheirColumn(Connection conn) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE TABLE_SMALL (ID SMALLINT PRIMARY KEY, NAME VARCHAR)");
+        SQLException e = Assertions.assertThrows(SQLException.class,
+                () -> new DataGenerator(1).populate(conn, "TABLE_SMALL", ScaleFactor.SF_1M));
+        Assertions.assertTrue(e.getMessage().contains("32767"));
+        Assertions.assertEquals(Short.MAX_VALUE, new DataGenerator(1).populate(conn, "TABLE_SMALL", Short.MAX_VALUE).getRows());
+        Assertions.assertThrows(SQLException.class, () -> new DataGenerator(1).populate(conn, "TABLE_SMALL", 1));
+    }
+
+    /**
+     * A primary key that is not an integer cannot get consecutive values, the table is refused up front
+     * rather than filled with random keys that collide
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/creating_updatable_set.sql")
+    @DisplayName("Primary keys must be integers")
+    public void primaryKeysMustBeIntegers(Connection conn) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE TABLE_CODES (CODE VARCHAR PRIMARY KEY, AMOUNT INT)");
+        Assertions.assertThrows(SQLFeatureNotSupportedException.class,
+                () -> new DataGenerator(1).populate(conn, "TABLE_CODES", 10));
+    }
+
+    /**
+     * The annotation adds the rows to the fixture before it is committed: scrolling to the last row
+     * of the table of {@code CursorScrollableSetTest} now goes through a thousand more rows
+     */
+    @Test
+    @JdbcSql("c3/cursor_scrollable_set/moving_in_result_set.sql")
+    @JdbcData(table = "TABLE_C3", scale = ScaleFactor.SF_1K)
+    @DisplayName("Generating fixture rows with an annotation")
+    public void generatingFixtureRowsWithAnAnnotation(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+                .executeQuery("SELECT ID, NAME FROM TABLE_C3 ORDER BY ID");
+        rs.last();
+        long expected = ScaleFactor.valueOf(System.getProperty("jdbc.data.scale", "SF_1K")).getRows() + 3;
+        Assertions.assertEquals(expected, rs.getRow());
+        Assertions.assertEquals(expected, rs.getInt("ID"));
+        conn.rollback();
+        rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM TABLE_C3");
+        rs.next();
+        Assertions.assertEquals(expected, rs.getLong(1));
+    }
+}
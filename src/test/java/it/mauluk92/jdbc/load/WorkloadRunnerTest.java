@@ -0,0 +1,110 @@
+package it.mauluk92.jdbc.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * This class contains tests to validate the arguments, the run and the summary of {@link WorkloadRunner}
+ */
+public class WorkloadRunnerTest {
+
+    private static final String URL = "jdbc:h2:mem:workload_runner;DB_CLOSE_DELAY=-1";
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            conn.createStatement().execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private static WorkloadConfig config() {
+        return new WorkloadConfig().setUrl(URL).setThreads(2).setRows(1_000)
+                .setDuration(Duration.ofMillis(600)).setInterval(Duration.ofMillis(200));
+    }
+
+    /**
+     * Arguments are written as {@code --name=value}, unknown names and invalid values are rejected
+     */
+    @Test
+    @DisplayName("Parsing arguments")
+    public void parsingArguments() {
+        WorkloadConfig config = WorkloadConfig.parse("--url=jdbc:h2:./target/load", "--threads=8", "--read-ratio=0.5",
+                "--batch-size=20", "--transaction-size=2", "--duration=2m", "--interval=500ms", "--format=csv",
+                "--output=target/summary.csv");
+        Assertions.assertEquals("jdbc:h2:./target/load", config.getUrl());
+        Assertions.assertEquals(8, config.getThreads());
+        Assertions.assertEquals(0.5, config.getReadRatio());
+        Assertions.assertEquals(20, config.getBatchSize());
+        Assertions.assertEquals(2, config.getTransactionSize());
+        Assertions.assertEquals(Duration.ofMinutes(2), config.getDuration());
+        Assertions.assertEquals(Duration.ofMillis(500), config.getInterval());
+        Assertions.assertEquals(SummaryFormat.CSV, config.getFormat());
+        Assertions.assertEquals(Path.of("target/summary.csv"), config.getOutput());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WorkloadConfig.parse("--threads=many"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WorkloadConfig.parse("--read-ratio=2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WorkloadConfig.parse("--unknown=1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WorkloadConfig.parse("--duration=10"));
+    }
+
+    /**
+     * A run prints a progress line per interval, and every transaction groups the configured number of operations
+     */
+    @Test
+    @DisplayName("Running a mixed workload")
+    public void runningAMixedWorkload() throws Exception {
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        WorkloadSummary summary = new WorkloadRunner(config().setReadRatio(0.5).setTransactionSize(4))
+                .run(new PrintStream(progress, true, StandardCharsets.UTF_8));
+
+        Assertions.assertEquals(3, progress.toString(StandardCharsets.UTF_8).lines().count());
+        long transactions = summary.getOperations(OperationType.TRANSACTION);
+        Assertions.assertTrue(transactions > 0);
+        Assertions.assertEquals(0, summary.getErrors(OperationType.TRANSACTION));
+        Assertions.assertTrue(summary.getOperations(OperationType.READ) > 0);
+        Assertions.assertTrue(summary.getOperations(OperationType.WRITE) > 0);
+        Assertions.assertTrue(summary.getOperations(OperationType.READ) + summary.getOperations(OperationType.WRITE)
+                >= 4 * transactions);
+        Assertions.assertTrue(summary.getElapsed().toMillis() >= 600);
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT COUNT(*) FROM LOAD_TABLE");
+            rs.next();
+            Assertions.assertEquals(1_000, rs.getLong(1));
+        }
+    }
+
+    /**
+     * The summary is written as JSON or as CSV, with one entry per operation type
+     */
+    @Test
+    @DisplayName("Writing the summary")
+    public void writingTheSummary() throws Exception {
+        WorkloadSummary summary = new WorkloadRunner(config().setReadRatio(1))
+                .run(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+        Assertions.assertEquals(0, summary.getOperations(OperationType.WRITE));
+
+        String json = summary.format(SummaryFormat.JSON);
+        Assertions.assertTrue(json.startsWith("{") && json.trim().endsWith("}"));
+        Assertions.assertTrue(json.contains("\"readRatio\": 1.000"));
+        Assertions.assertTrue(json.contains("\"read\": {\"count\": " + summary.getOperations(OperationType.READ) + ","));
+        Assertions.assertTrue(json.contains("\"write\": {\"count\": 0,"));
+
+        String[] csv = summary.format(SummaryFormat.CSV).split("\n");
+        Assertions.assertEquals(4, csv.length);
+        Assertions.assertEquals("operation,count,errors,per_second,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms", csv[0]);
+        Assertions.assertTrue(csv[1].startsWith("read," + summary.getOperations(OperationType.READ) + ",0,"));
+        Assertions.assertEquals(10, csv[3].split(",").length);
+    }
+}
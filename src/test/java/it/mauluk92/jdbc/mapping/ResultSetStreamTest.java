@@ -0,0 +1,101 @@
+package it.mauluk92.jdbc.mapping;
+
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class contains tests to validate the mapping of rows to records
+ * and the streaming of result sets
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class ResultSetStreamTest {
+
+    record Row(int id, String name) {
+    }
+
+    record Person(long id, String firstName, Integer age) {
+    }
+
+    record Missing(int id, String surname) {
+    }
+
+    /**
+     * Columns are matched to record components by label, whatever their order in the query
+     */
+    @Test
+    @JdbcSql("mapping/result_set_stream/mapping_rows_to_records.sql")
+    @DisplayName("Mapping rows to records")
+    public void mappingRowsToRecords(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT NAME, ID FROM TABLE_C2 ORDER BY ID");
+        try (Stream<Row> rows = ResultSetStream.stream(rs, Row.class)) {
+            Assertions.assertEquals(List.of(new Row(1, "NAME1"), new Row(2, "NAME2")), rows.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Underscores and case are ignored when matching labels, and boxed components accept {@code NULL}
+     */
+    @Test
+    @JdbcSql("mapping/result_set_stream/mapping_labels_and_nulls.sql")
+    @DisplayName("Mapping labels and nulls")
+    public void mappingLabelsAndNulls(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery(
+                "SELECT ID, NAME AS FIRST_NAME, CAST(NULL AS INT) AS AGE FROM TABLE_C2 ORDER BY ID");
+        try (Stream<Person> people = ResultSetStream.stream(rs, Person.class)) {
+            Assertions.assertEquals(new Person(1, "NAME1", null), people.findFirst().orElseThrow());
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet missing = stmt.executeQuery("SELECT ID, NAME FROM TABLE_C2")) {
+            Assertions.assertThrows(SQLException.class, () -> ResultSetStream.stream(missing, Missing.class));
+        }
+    }
+
+    /**
+     * Rows are read lazily, and the result set is closed as soon as the last row has been consumed
+     */
+    @Test
+    @JdbcSql("mapping/result_set_stream/result_set_is_closed_once_exhausted.sql")
+    @DisplayName("The result set is closed once exhausted")
+    public void resultSetIsClosedOnceExhausted(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs = stmt.executeQuery("SELECT X AS ID, 'NAME' || X AS NAME FROM SYSTEM_RANGE(1, 100000)");
+            ResultSetStream<Row> rows = ResultSetStream.iterator(rs, RecordMapper.of(Row.class, rs.getMetaData()));
+            long sum = 0;
+            while (rows.hasNext()) {
+                Assertions.assertFalse(rs.isClosed());
+                sum += rows.next().id();
+            }
+            Assertions.assertEquals(100000L * 100001 / 2, sum);
+            Assertions.assertTrue(rs.isClosed());
+        }
+    }
+
+    /**
+     * Closing a stream before it is exhausted closes the result set and its statement
+     */
+    @Test
+    @JdbcSql("mapping/result_set_stream/closing_the_stream_closes_the_result_set.sql")
+    @DisplayName("Closing the stream closes the result set")
+    public void closingTheStreamClosesTheResultSet(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT ID, NAME FROM TABLE_C2");
+        try (Stream<Row> rows = ResultSetStream.stream(rs, rs2 -> new Row(rs2.getInt(1), rs2.getString(2)))) {
+            Assertions.assertTrue(rows.findFirst().isPresent());
+        }
+        Assertions.assertTrue(rs.isClosed());
+        Assertions.assertTrue(stmt.isClosed());
+    }
+}
@@ -0,0 +1,111 @@
+package it.mauluk92.jdbc.metrics;
+
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * This class contains tests to validate the measures taken by {@link InstrumentedConnection}.
+ * The connections given by {@link SqlCallback} are instrumented, and their measures injected as {@link JdbcMetrics}
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class InstrumentedConnectionTest {
+
+    /**
+     * Percentiles are reported within the precision of the histogram buckets
+     */
+    @Test
+    @DisplayName("Histogram percentiles")
+    public void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        Assertions.assertEquals(100_000, histogram.getCount());
+        Assertions.assertEquals(100_000, histogram.getMaxNanos());
+        Assertions.assertEquals(1, histogram.getMinNanos());
+        Assertions.assertEquals(50_000, histogram.getPercentileNanos(0.5), 50_000 / 16.0);
+        Assertions.assertEquals(99_000, histogram.getPercentileNanos(0.99), 99_000 / 16.0);
+        Assertions.assertEquals(100_000, histogram.getPercentileNanos(1.0));
+        Assertions.assertEquals(histogram.getCount(), histogram.copy().getCount());
+    }
+
+    /**
+     * Statements differing only by their literals share the same shape
+     */
+    @Test
+    @DisplayName("SQL shapes")
+    public void sqlShapes() {
+        Assertions.assertEquals("UPDATE TABLE_C2 SET NAME = ? WHERE ID = ?",
+                SqlShape.of("UPDATE TABLE_C2 SET NAME = 'NAME_UPDATED'\n  WHERE ID = 1"));
+        Assertions.assertEquals("INSERT INTO TABLE_C3(ID, NAME) VALUES (?)",
+                SqlShape.of("INSERT INTO TABLE_C3(ID, NAME) VALUES (4, 'it''s')"));
+    }
+
+    /**
+     * Executions are timed per SQL shape, and rows read through the result sets are counted
+     */
+    @Test
+    @JdbcSql("c3/cursor_scrollable_set/moving_in_result_set.sql")
+    @DisplayName("Statements are measured per shape")
+    public void statementsAreMeasuredPerShape(Connection conn, JdbcMetrics metrics) throws SQLException {
+        Statement stmt = conn.createStatement();
+        stmt.executeUpdate("UPDATE TABLE_C3 SET NAME = 'A' WHERE ID = 1");
+        stmt.executeUpdate("UPDATE TABLE_C3 SET NAME = 'B' WHERE ID = 2");
+        PreparedStatement select = conn.prepareStatement("SELECT ID, NAME FROM TABLE_C3 WHERE ID >= ?");
+        select.setInt(1, 1);
+        ResultSet rs = select.executeQuery();
+        while (rs.next()) {
+            Assertions.assertSame(select, rs.getStatement());
+        }
+        conn.commit();
+
+        JdbcMetrics snapshot = metrics.snapshot();
+        StatementStats update = snapshot.getStatements().get("UPDATE TABLE_C3 SET NAME = ? WHERE ID = ?");
+        Assertions.assertEquals(2, update.getExecutions());
+        StatementStats query = snapshot.getStatements().get("SELECT ID, NAME FROM TABLE_C3 WHERE ID >= ?");
+        Assertions.assertEquals(1, query.getExecutions());
+        Assertions.assertEquals(3, query.getRowsFetched());
+        Assertions.assertEquals(4, query.getNextCalls());
+        Assertions.assertEquals(1, snapshot.getCommitLatency().getCount());
+    }
+
+    /**
+     * Failed executions are counted, and the exception reaches the caller unchanged
+     */
+    @Test
+    @DisplayName("Errors are counted")
+    public void errorsAreCounted(Connection conn, JdbcMetrics metrics) throws SQLException {
+        Statement stmt = conn.createStatement();
+        Assertions.assertThrows(SQLException.class, () -> stmt.executeQuery("SELECT * FROM MISSING_TABLE"));
+        conn.rollback();
+        Assertions.assertEquals(1, metrics.statement("SELECT * FROM MISSING_TABLE").getErrors());
+        Assertions.assertEquals(1, metrics.getRollbackLatency().getCount());
+    }
+
+    /**
+     * Closing a wrapped connection records how long it was held
+     */
+    @Test
+    @DisplayName("Connection hold time is recorded")
+    public void connectionHoldTimeIsRecorded() throws SQLException {
+        JdbcMetrics metrics = new JdbcMetrics();
+        Connection conn = InstrumentedConnection.wrap(
+                DriverManager.getConnection("jdbc:h2:mem:instrumented_connection", "sa", ""), metrics);
+        Assertions.assertSame(conn, conn.createStatement().getConnection());
+        conn.close();
+        conn.close();
+        Assertions.assertEquals(1, metrics.getConnectionHoldTime().getCount());
+    }
+}
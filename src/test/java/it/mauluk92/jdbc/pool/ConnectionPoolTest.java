@@ -0,0 +1,157 @@
+package it.mauluk92.jdbc.pool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class contains tests to validate the behaviour of the {@link ConnectionPool}
+ */
+public class ConnectionPoolTest {
+
+    private static ConnectionPoolConfig config(String db) {
+        return new ConnectionPoolConfig("jdbc:h2:mem:" + db + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /**
+     * A released connection is kept open and handed out again to the next borrower,
+     * so only one physical connection is ever opened by sequential borrowers
+     */
+    @Test
+    @DisplayName("Released connections are reused")
+    public void releasedConnectionsAreReused() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(config("pool_reuse"))) {
+            Connection first = pool.acquire();
+            pool.release(first);
+            Connection second = pool.acquire();
+            pool.release(second);
+            Assertions.assertSame(first, second);
+            Assertions.assertEquals(1, pool.getMetrics().getCreated());
+            Assertions.assertEquals(2, pool.getMetrics().getAcquireCount());
+        }
+    }
+
+    /**
+     * Releasing a connection rolls back its pending work, which is what a test
+     * tearing down its connection expects
+     */
+    @Test
+    @DisplayName("Releasing a connection rolls back its transaction")
+    public void releaseRollsBack() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(config("pool_rollback"))) {
+            Connection conn = pool.acquire();
+            conn.createStatement().execute("CREATE TABLE TABLE_POOL (ID INT)");
+            conn.setAutoCommit(false);
+            conn.createStatement().executeUpdate("INSERT INTO TABLE_POOL(ID) VALUES (1)");
+            pool.release(conn);
+
+            Connection again = pool.acquire();
+            Assertions.assertTrue(again.getAutoCommit());
+            ResultSet rs = again.createStatement().executeQuery("SELECT COUNT(*) FROM TABLE_POOL");
+            rs.next();
+            Assertions.assertEquals(0, rs.getInt(1));
+            pool.release(again);
+        }
+    }
+
+    /**
+     * The pool never opens more than its maximum size: once every connection is borrowed,
+     * further callers wait and eventually time out
+     */
+    @Test
+    @DisplayName("The pool is bounded")
+    public void poolIsBounded() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(config("pool_bounded")
+                .setMaxSize(1)
+                .setAcquireTimeout(Duration.ofMillis(50)))) {
+            Connection conn = pool.acquire();
+            Assertions.assertThrows(SQLTimeoutException.class, pool::acquire);
+            Assertions.assertEquals(1, pool.getMetrics().getTimeouts());
+            pool.release(conn);
+            pool.release(pool.acquire());
+        }
+    }
+
+    /**
+     * Threads waiting for a connection are counted by the wait queue metrics
+     * and are served as soon as a connection is released
+     */
+    @Test
+    @DisplayName("Waiting threads are tracked")
+    public void waitingThreadsAreTracked() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (ConnectionPool pool = new ConnectionPool(config("pool_waiting").setMaxSize(1))) {
+            Connection conn = pool.acquire();
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Connection> waiter = executor.submit(() -> {
+                started.countDown();
+                return pool.acquire();
+            });
+            started.await();
+            while (pool.getMetrics().getWaiting() == 0) {
+                Thread.onSpinWait();
+            }
+            Assertions.assertEquals(1, pool.getMetrics().getPeakWaiting());
+            pool.release(conn);
+            Connection handedOver = waiter.get(5, TimeUnit.SECONDS);
+            Assertions.assertSame(conn, handedOver);
+            Assertions.assertEquals(0, pool.getMetrics().getWaiting());
+            pool.release(handedOver);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Connections older than the max lifetime are closed and replaced,
+     * and so are idle connections past the idle timeout
+     */
+    @Test
+    @DisplayName("Expired and idle connections are evicted")
+    public void expiredConnectionsAreEvicted() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(config("pool_evict").setMaxLifetime(Duration.ZERO))) {
+            Connection conn = pool.acquire();
+            pool.release(conn);
+            Assertions.assertTrue(conn.isClosed());
+            Assertions.assertEquals(1, pool.getMetrics().getEvicted());
+        }
+        try (ConnectionPool pool = new ConnectionPool(config("pool_idle").setIdleTimeout(Duration.ZERO))) {
+            Connection conn = pool.acquire();
+            pool.release(conn);
+            pool.evictIdle();
+            Assertions.assertTrue(conn.isClosed());
+            Assertions.assertEquals(0, pool.getMetrics().getIdle());
+        }
+    }
+
+    /**
+     * A connection closed by its borrower is not handed out again
+     */
+    @Test
+    @DisplayName("Closed connections are discarded")
+    public void closedConnectionsAreDiscarded() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(config("pool_closed"))) {
+            Connection conn = pool.acquire();
+            conn.close();
+            pool.release(conn);
+            Connection fresh = pool.acquire();
+            Assertions.assertNotSame(conn, fresh);
+            try (Statement stmt = fresh.createStatement()) {
+                Assertions.assertTrue(stmt.execute("SELECT 1"));
+            }
+            pool.release(fresh);
+        }
+    }
+}
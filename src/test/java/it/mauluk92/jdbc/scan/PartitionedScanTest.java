@@ -0,0 +1,164 @@
+package it.mauluk92.jdbc.scan;
+
+import it.mauluk92.jdbc.mapping.UncheckedSQLException;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class contains tests to validate the parallel reading of a table by {@link PartitionedScan}
+ */
+public class PartitionedScanTest {
+
+    private static final int ROWS = 100_000;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:partitioned_scan;DB_CLOSE_DELAY=-1", "sa", "")
+                .setMaxSize(4));
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        // keys from 1 to ROWS, without the multiples of 7
+        conn.createStatement().execute("INSERT INTO TABLE_C3(ID, NAME) SELECT X, 'NAME_' || X FROM SYSTEM_RANGE(1, "
+                + ROWS + ") WHERE MOD(X, 7) <> 0");
+        pool.release(conn);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("DROP ALL OBJECTS");
+        pool.release(conn);
+        pool.close();
+    }
+
+    private PartitionedScan<Integer> scan(int parallelism) {
+        return new PartitionedScan<>(pool, "TABLE_C3", "ID", "ID, NAME", rs -> rs.getInt("ID"),
+                new PartitionedScanConfig().setParallelism(parallelism).setQueueCapacity(64));
+    }
+
+    private static long expectedSum() {
+        long sum = 0;
+        for (int id = 1; id <= ROWS; id++) {
+            sum += id % 7 == 0 ? 0 : id;
+        }
+        return sum;
+    }
+
+    /**
+     * The key span is split into contiguous ranges of the same width covering every key
+     */
+    @Test
+    @DisplayName("Splitting the keys into ranges")
+    public void splittingTheKeysIntoRanges() throws SQLException {
+        try (PartitionedScan<Integer> scan = scan(3)) {
+            List<KeyRange> ranges = scan.ranges();
+            Assertions.assertEquals(12, ranges.size());
+            Assertions.assertEquals(1, ranges.get(0).getFrom());
+            Assertions.assertEquals(ROWS, ranges.get(ranges.size() - 1).getTo());
+            for (int i = 1; i < ranges.size(); i++) {
+                Assertions.assertEquals(ranges.get(i - 1).getTo() + 1, ranges.get(i).getFrom());
+            }
+        }
+    }
+
+    /**
+     * Every row is passed once to the action, from several threads
+     */
+    @Test
+    @DisplayName("Reading every row in parallel")
+    public void readingEveryRowInParallel() throws SQLException {
+        try (PartitionedScan<Integer> scan = scan(4)) {
+            LongAdder sum = new LongAdder();
+            LongAdder count = new LongAdder();
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            scan.forEach(id -> {
+                sum.add(id);
+                count.increment();
+                threads.add(Thread.currentThread());
+            });
+            Assertions.assertEquals(expectedSum(), sum.sum());
+            Assertions.assertEquals(ROWS - ROWS / 7, count.sum());
+            Assertions.assertFalse(threads.contains(Thread.currentThread()));
+            try (Stream<Integer> ids = scan.stream()) {
+                Assertions.assertEquals(expectedSum(), ids.mapToLong(Integer::longValue).sum());
+            }
+        }
+        Assertions.assertEquals(0, pool.getMetrics().getBorrowed());
+    }
+
+    /**
+     * The stream reads its ranges on the threads of the scan, never on the common pool, and in key order
+     */
+    @Test
+    @DisplayName("Streaming on the threads of the scan")
+    public void streamingOnTheThreadsOfTheScan() throws SQLException {
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        try (PartitionedScan<Integer> scan = new PartitionedScan<>(pool, "TABLE_C3", "ID", "ID", rs -> {
+            pools.add(ForkJoinTask.getPool());
+            return rs.getInt(1);
+        }, new PartitionedScanConfig().setParallelism(2).setQueueCapacity(64));
+             Stream<Integer> ids = scan.stream()) {
+            List<Integer> read = ids.limit(1_000).collect(Collectors.toList());
+            Assertions.assertEquals(1, read.get(0));
+            Assertions.assertEquals(1_000 + 1_000 / 6, read.get(read.size() - 1));
+        }
+        Assertions.assertEquals(1, pools.size());
+        Assertions.assertNotSame(ForkJoinPool.commonPool(), pools.iterator().next());
+        Assertions.assertEquals(0, pool.getMetrics().getBorrowed());
+    }
+
+    /**
+     * The ordered iterator returns the rows in key order, although the ranges are read in parallel
+     */
+    @Test
+    @DisplayName("Merging the ranges in key order")
+    public void mergingTheRangesInKeyOrder() throws SQLException {
+        try (PartitionedScan<Integer> scan = scan(4); PartitionedScan<Integer>.OrderedIterator ids = scan.orderedIterator()) {
+            int previous = 0;
+            int count = 0;
+            while (ids.hasNext()) {
+                int id = ids.next();
+                Assertions.assertTrue(id > previous);
+                previous = id;
+                count++;
+            }
+            Assertions.assertEquals(ROWS - ROWS / 7, count);
+        }
+    }
+
+    /**
+     * Closing the ordered iterator early stops the reads, and a failing mapper fails the consumer
+     */
+    @Test
+    @DisplayName("Stopping and failing scans")
+    public void stoppingAndFailingScans() throws SQLException {
+        try (PartitionedScan<Integer> scan = scan(2)) {
+            try (PartitionedScan<Integer>.OrderedIterator ids = scan.orderedIterator()) {
+                Assertions.assertEquals(1, ids.next());
+            }
+            PartitionedScan<Integer> failing = new PartitionedScan<>(pool, "TABLE_C3", "ID", "ID, NAME",
+                    rs -> rs.getInt("MISSING"), new PartitionedScanConfig().setParallelism(2));
+            Assertions.assertThrows(UncheckedSQLException.class, () -> failing.orderedIterator().hasNext());
+            Assertions.assertThrows(SQLException.class, () -> failing.forEach(id -> { }));
+            failing.close();
+        }
+    }
+}
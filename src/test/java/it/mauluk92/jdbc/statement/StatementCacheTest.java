@@ -0,0 +1,116 @@
+package it.mauluk92.jdbc.statement;
+
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class contains tests to validate the behaviour of the {@link StatementCache}.
+ * The cache wraps the test connection and is not closed, as closing it would close the connection of the extension
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class StatementCacheTest {
+
+    private static final String UPDATE = "UPDATE TABLE_C2 SET NAME= ? WHERE ID = ?";
+    private static final String SELECT = "SELECT NAME FROM TABLE_C2 WHERE ID = ?";
+
+    /**
+     * Preparing the same SQL after closing the statement returns the cached statement,
+     * which behaves as a freshly prepared one
+     */
+    @Test
+    @JdbcSql("statement/statement_cache/closed_statements_are_reused.sql")
+    @DisplayName("Closed statements are reused")
+    public void closedStatementsAreReused(Connection raw) throws SQLException {
+        CachingConnection conn = StatementCache.wrap(raw, 2);
+        PreparedStatement first = conn.prepareStatement(UPDATE);
+        first.setString(1, "NAME_1");
+        first.setInt(2, 1);
+        Assertions.assertEquals(1, first.executeUpdate());
+        first.close();
+        Assertions.assertTrue(first.isClosed());
+
+        PreparedStatement second = conn.prepareStatement(UPDATE);
+        Assertions.assertSame(first, second);
+        Assertions.assertFalse(second.isClosed());
+        Assertions.assertSame(conn, second.getConnection());
+        // parameters are reset on reuse
+        Assertions.assertThrows(SQLException.class, second::executeUpdate);
+        second.close();
+
+        StatementCacheStats stats = conn.getStatementCacheStats();
+        Assertions.assertEquals(1, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+    }
+
+    /**
+     * A statement still in use is not handed out twice: a second statement is prepared instead
+     */
+    @Test
+    @JdbcSql("statement/statement_cache/statements_in_use_are_not_shared.sql")
+    @DisplayName("Statements in use are not shared")
+    public void statementsInUseAreNotShared(Connection raw) throws SQLException {
+        CachingConnection conn = StatementCache.wrap(raw, 2);
+        PreparedStatement first = conn.prepareStatement(SELECT);
+        PreparedStatement second = conn.prepareStatement(SELECT);
+        Assertions.assertNotSame(first, second);
+        second.close();
+        first.close();
+        Assertions.assertSame(first, conn.prepareStatement(SELECT));
+        Assertions.assertEquals(1, conn.getStatementCacheStats().getSize());
+    }
+
+    /**
+     * Once the capacity is reached the least recently used statement is evicted and closed,
+     * unless it is still in use, in which case it is closed when its user closes it
+     */
+    @Test
+    @JdbcSql("statement/statement_cache/least_recently_used_statements_are_evicted.sql")
+    @DisplayName("Least recently used statements are evicted")
+    public void leastRecentlyUsedStatementsAreEvicted(Connection raw) throws SQLException {
+        CachingConnection conn = StatementCache.wrap(raw, 2);
+        PreparedStatement update = conn.prepareStatement(UPDATE);
+        update.close();
+        PreparedStatement select = conn.prepareStatement(SELECT);
+        select.setInt(1, 1);
+        conn.prepareStatement("SELECT COUNT(*) FROM TABLE_C2").close();
+
+        StatementCacheStats stats = conn.getStatementCacheStats();
+        Assertions.assertEquals(1, stats.getEvictions());
+        Assertions.assertEquals(2, stats.getSize());
+        Assertions.assertNotSame(update, conn.prepareStatement(UPDATE));
+
+        // the select was evicted by the last prepare while still in use, it keeps working until closed
+        Assertions.assertEquals(2, conn.getStatementCacheStats().getEvictions());
+        ResultSet rs = select.executeQuery();
+        Assertions.assertTrue(rs.next());
+        select.close();
+        Assertions.assertNotSame(select, conn.prepareStatement(SELECT));
+    }
+
+    /**
+     * Closing a cached statement closes its result set, as closing the statement itself would
+     */
+    @Test
+    @JdbcSql("statement/statement_cache/closing_a_statement_closes_its_result_set.sql")
+    @DisplayName("Closing a statement closes its result set")
+    public void closingAStatementClosesItsResultSet(Connection raw) throws SQLException {
+        CachingConnection conn = StatementCache.wrap(raw, 2);
+        PreparedStatement select = conn.prepareStatement(SELECT);
+        select.setInt(1, 1);
+        ResultSet rs = select.executeQuery();
+        Assertions.assertTrue(rs.next());
+        select.close();
+        Assertions.assertTrue(rs.isClosed());
+        Assertions.assertSame(select, conn.prepareStatement(SELECT));
+    }
+}
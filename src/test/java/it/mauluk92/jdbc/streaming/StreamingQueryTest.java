@@ -0,0 +1,170 @@
+package it.mauluk92.jdbc.streaming;
+
+import it.mauluk92.jdbc.mapping.RowMapper;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcData;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+/**
+ * This class contains tests to validate the streaming of large results with bounded memory.
+ * The rows of the table are generated by {@link JdbcData}, with keys going from 1 to the number of rows
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class StreamingQueryTest {
+
+    private static final int ROWS = 50_000;
+
+    /**
+     * The fetch size starts small and doubles each time a whole fetch has been read.
+     * The embedded H2 driver ignores the hint, so the calls are recorded on a proxy result set
+     */
+    @Test
+    @JdbcSql("streaming/streaming_query/fetch_size_grows.sql")
+    @DisplayName("The fetch size grows with the rows read")
+    public void fetchSizeGrows(Connection conn) throws SQLException {
+        StreamingQuery query = new StreamingQuery(conn, new FetchSizePolicy(2, 8));
+        List<Object> fetchSizes = new ArrayList<>();
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("setFetchSize")) {
+                        fetchSizes.add(args[0]);
+                    }
+                    return null;
+                });
+        RowMapper<ResultSet> mapper = query.adaptive(row -> row);
+        for (int i = 0; i < 20; i++) {
+            mapper.mapRow(rs);
+        }
+        Assertions.assertEquals(List.of(4, 8, 8), fetchSizes);
+    }
+
+    /**
+     * Streams are always forward only and read only, whatever the caller does with the rows
+     */
+    @Test
+    @JdbcSql("streaming/streaming_query/streams_use_forward_only_cursors.sql")
+    @JdbcData(table = "TABLE_C3", rows = ROWS)
+    @DisplayName("Streams use forward only cursors")
+    public void streamsUseForwardOnlyCursors(Connection conn) throws SQLException {
+        StreamingQuery query = new StreamingQuery(conn);
+        try (Stream<Integer> types = query.stream("SELECT ID FROM TABLE_C3", rs -> rs.getType() * 10 + rs.getConcurrency() % 10)) {
+            types.forEach(type -> Assertions.assertEquals(
+                    ResultSet.TYPE_FORWARD_ONLY * 10 + ResultSet.CONCUR_READ_ONLY % 10, type));
+        }
+    }
+
+    /**
+     * A subscriber receives no more rows than it requested, and cancelling stops the query
+     */
+    @Test
+    @JdbcSql("streaming/streaming_query/publishing_rows_with_backpressure.sql")
+    @JdbcData(table = "TABLE_C3", rows = ROWS)
+    @DisplayName("Publishing rows with backpressure")
+    public void publishingRowsWithBackpressure(Connection conn) {
+        StreamingQuery query = new StreamingQuery(conn);
+        List<Integer> received = new ArrayList<>();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        boolean[] completed = new boolean[1];
+        query.publisher("SELECT ID FROM TABLE_C3 ORDER BY ID", rs -> rs.getInt(1)).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(Integer item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        Assertions.assertTrue(received.isEmpty());
+        subscription[0].request(10);
+        Assertions.assertEquals(10, received.size());
+        subscription[0].request(5);
+        Assertions.assertEquals(15, received.get(14));
+        subscription[0].cancel();
+        subscription[0].request(10);
+        Assertions.assertEquals(15, received.size());
+        Assertions.assertFalse(completed[0]);
+    }
+
+    /**
+     * A subscriber requesting rows one at a time from within {@code onNext} reads the whole table
+     * without growing the stack
+     */
+    @Test
+    @JdbcSql("streaming/streaming_query/publishing_every_row.sql")
+    @JdbcData(table = "TABLE_C3", rows = ROWS)
+    @DisplayName("Publishing every row")
+    public void publishingEveryRow(Connection conn) {
+        long[] sum = new long[1];
+        boolean[] completed = new boolean[1];
+        new StreamingQuery(conn).publisher("SELECT ID FROM TABLE_C3", rs -> rs.getLong(1)).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription = s;
+                s.request(1);
+            }
+
+            @Override
+            public void onNext(Long item) {
+                sum[0] += item;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                Assertions.fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed[0] = true;
+            }
+        });
+        Assertions.assertTrue(completed[0]);
+        Assertions.assertEquals((long) ROWS * (ROWS + 1) / 2, sum[0]);
+    }
+
+    /**
+     * Keyset pagination reads the whole table in key order, one bounded page at a time
+     */
+    @Test
+    @JdbcSql("streaming/streaming_query/keyset_pagination.sql")
+    @JdbcData(table = "TABLE_C3", rows = ROWS)
+    @DisplayName("Reading a table with keyset pagination")
+    public void keysetPagination(Connection conn) {
+        KeysetPager<Integer> pager = new KeysetPager<>(conn, "TABLE_C3", "ID, NAME", 1_000, rs -> rs.getInt("ID"));
+        int expected = 1;
+        while (pager.hasNext()) {
+            Assertions.assertEquals(expected++, pager.next());
+        }
+        Assertions.assertEquals(ROWS + 1, expected);
+        Assertions.assertEquals(ROWS / 1_000 + 1, pager.getPages());
+    }
+}
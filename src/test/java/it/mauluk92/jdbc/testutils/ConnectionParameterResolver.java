@@ -1,23 +1,30 @@
 package it.mauluk92.jdbc.testutils;
 
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.pool.ConnectionPool;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ParameterContext;
 import org.junit.jupiter.api.extension.ParameterResolutionException;
 import org.junit.jupiter.api.extension.ParameterResolver;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
 
 public class ConnectionParameterResolver implements ParameterResolver {
 
     @Override
     public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
-        return parameterContext.getParameter().getType().equals(Connection.class);
+        Class<?> type = parameterContext.getParameter().getType();
+        return type.equals(Connection.class) || type.equals(ConnectionPool.class) || type.equals(JdbcMetrics.class);
     }
 
     @Override
     public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) throws ParameterResolutionException {
-        return extensionContext.getStore(ExtensionContext.Namespace.GLOBAL).get("conn", Connection.class);
+        if (parameterContext.getParameter().getType().equals(ConnectionPool.class)) {
+            return SqlCallback.pool(extensionContext);
+        }
+        if (parameterContext.getParameter().getType().equals(JdbcMetrics.class)) {
+            return extensionContext.getStore(SqlCallback.NAMESPACE).get(SqlCallback.METRICS_KEY, JdbcMetrics.class);
+        }
+        return extensionContext.getStore(SqlCallback.NAMESPACE).get(SqlCallback.CONNECTION_KEY, Connection.class);
     }
 }
@@ -0,0 +1,73 @@
+package it.mauluk92.jdbc.testutils;
+
+import it.mauluk92.jdbc.testutils.annotation.JdbcFixture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains tests to validate the isolation of tests sharing a fixture committed once
+ * with {@link JdbcFixture}. Tests run in order, each one checking that the previous one left no trace
+ */
+@JdbcFixture("c3/updatable_result_set/updating_programmatically.sql")
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class JdbcFixtureTest {
+
+    private static Connection previous;
+
+    private static List<String> names(Connection conn) throws SQLException {
+        List<String> names = new ArrayList<>();
+        ResultSet rs = conn.createStatement().executeQuery("SELECT NAME FROM TABLE_C3 ORDER BY ID");
+        while (rs.next()) {
+            names.add(rs.getString(1));
+        }
+        return names;
+    }
+
+    /**
+     * The fixture is in place, and the changes of the test are rolled back to the savepoint taken before it
+     */
+    @Test
+    @Order(1)
+    @DisplayName("Changing the fixture")
+    public void changingTheFixture(Connection conn) throws SQLException {
+        Assertions.assertEquals(List.of("NAME_FIRST", "NAME_MIDDLE", "NAME_LAST"), names(conn));
+        conn.createStatement().executeUpdate("DELETE FROM TABLE_C3 WHERE ID = 1");
+        Assertions.assertEquals(2, names(conn).size());
+        previous = conn.unwrap(Connection.class);
+    }
+
+    /**
+     * The next test sees the fixture as committed, through the same physical connection
+     */
+    @Test
+    @Order(2)
+    @DisplayName("The fixture is restored by a rollback to savepoint")
+    public void fixtureIsRestoredByARollbackToSavepoint(Connection conn) throws SQLException {
+        Assertions.assertEquals(List.of("NAME_FIRST", "NAME_MIDDLE", "NAME_LAST"), names(conn));
+        Assertions.assertSame(previous, conn.unwrap(Connection.class));
+        conn.createStatement().executeUpdate("UPDATE TABLE_C3 SET NAME = 'COMMITTED'");
+        conn.commit();
+    }
+
+    /**
+     * A test that committed invalidated its savepoint: the fixture was built again for the next one
+     */
+    @Test
+    @Order(3)
+    @DisplayName("The fixture is rebuilt after a commit")
+    public void fixtureIsRebuiltAfterACommit(Connection conn) throws SQLException {
+        Assertions.assertEquals(List.of("NAME_FIRST", "NAME_MIDDLE", "NAME_LAST"), names(conn));
+    }
+}
@@ -1,41 +1,233 @@
 package it.mauluk92.jdbc.testutils;
 
+import it.mauluk92.jdbc.generator.DataGenerator;
+import it.mauluk92.jdbc.generator.ScaleFactor;
+import it.mauluk92.jdbc.metrics.InstrumentedConnection;
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import it.mauluk92.jdbc.testutils.annotation.JdbcData;
+import it.mauluk92.jdbc.testutils.annotation.JdbcFixture;
 import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
-import org.junit.jupiter.api.extension.AfterAllCallback;
+import it.mauluk92.jdbc.testutils.fixture.FixtureCache;
+import it.mauluk92.jdbc.testutils.script.SqlScriptRegistry;
 import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.BeforeEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 
-import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
-import java.util.List;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class SqlCallback implements BeforeEachCallback, AfterEachCallback {
+/**
+ * This extension gives every test a connection, with the fixture declared by {@link JdbcSql} already in place.
+ * It is safe under parallel execution: the connection is kept in the store of the test itself, and every
+ * worker thread has its own database, so tests running at the same time never see each other's tables.
+ * Databases are in memory, unless another {@link StorageProfile} is chosen through the system property
+ * {@code jdbc.storage}.
+ * The number of workers is configured through the JUnit parameters in {@code junit-platform.properties}.
+ * The connection handed to the test is instrumented, its measures can be injected as a {@link JdbcMetrics} parameter.
+ * A class annotated with {@link JdbcFixture} gets a database of its own instead, where the fixture is committed once:
+ * its tests share one connection, and roll back to a savepoint taken before each of them
+ */
+public class SqlCallback implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
 
-    private Connection conn;
+    static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlCallback.class);
+    static final String CONNECTION_KEY = "conn";
+    static final String METRICS_KEY = "metrics";
+    private static final String RAW_CONNECTION_KEY = "rawConn";
+    private static final String ACQUIRED_KEY = "acquiredNanos";
+    private static final String SAVEPOINT_KEY = "savepoint";
+    /**
+     * When this system property is true, the JDBC cost of every test is printed once the test is over
+     */
+    private static final String REPORT_PROPERTY = "jdbc.metrics.report";
+    /**
+     * When set to a {@link ScaleFactor}, every {@link JdbcData} without an exact number of rows uses that scale
+     */
+    private static final String SCALE_PROPERTY = "jdbc.data.scale";
+
+    private static final AtomicInteger WORKERS = new AtomicInteger();
+    private static final AtomicInteger CLASS_DATABASES = new AtomicInteger();
+    private static final ThreadLocal<String> WORKER_DATABASE =
+            ThreadLocal.withInitial(() -> "testdb_worker_" + WORKERS.incrementAndGet());
+
+    /**
+     * Returns the connection pool of the database owned by the current worker thread.
+     * Pools live in the root store, so that JUnit closes them once every test has been executed
+     */
+    static ConnectionPool pool(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(WorkerPools.class, k -> new WorkerPools(), WorkerPools.class)
+                .get(WORKER_DATABASE.get());
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        JdbcFixture fixture = context.getRequiredTestClass().getAnnotation(JdbcFixture.class);
+        if (fixture != null) {
+            // stored in the class store, the fixture is closed by JUnit once every test of the class has been executed
+            context.getStore(NAMESPACE).put(ClassFixture.class, new ClassFixture(fixture.value()));
+        }
+    }
 
     @Override
     public void afterEach(ExtensionContext context) throws Exception {
-        this.conn.rollback();
-        this.conn.close();
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        Connection conn = store.remove(RAW_CONNECTION_KEY, Connection.class);
+        if (conn == null) {
+            // beforeEach failed and already cleaned up after itself: its error is the one to report
+            return;
+        }
+        store.remove(CONNECTION_KEY);
+        JdbcMetrics metrics = store.remove(METRICS_KEY, JdbcMetrics.class);
+        metrics.getConnectionHoldTime().record(System.nanoTime() - store.remove(ACQUIRED_KEY, Long.class));
+        if (Boolean.getBoolean(REPORT_PROPERTY)) {
+            System.out.println(context.getDisplayName() + "\n" + metrics);
+        }
+        Savepoint savepoint = store.remove(SAVEPOINT_KEY, Savepoint.class);
+        if (savepoint != null) {
+            store.get(ClassFixture.class, ClassFixture.class).rollbackTo(savepoint);
+            return;
+        }
+        try {
+            conn.rollback();
+            // the in-memory database outlives the test now that the connection is pooled:
+            // tables created by the fixtures are dropped so the next borrower starts from scratch
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        } finally {
+            pool(context).release(conn);
+        }
     }
 
     @Override
     public void beforeEach(ExtensionContext context) throws Exception {
-        this.conn = DriverManager.getConnection("jdbc:h2:mem:testdb", "sa", "");
-        this.conn.setAutoCommit(false);
-        context.getStore(ExtensionContext.Namespace.GLOBAL).put("conn", conn);
-        if(context.getTestMethod().isPresent()){
-            Optional<JdbcSql> ann = Optional.ofNullable(context.getTestMethod().get().getAnnotation(JdbcSql.class));
-            if(ann.isPresent()){
-                Resource res = new ClassPathResource(ann.get().value());
-                String query = String.join("\n", Files.readAllLines(res.getFile().toPath()));
-                conn.createStatement().execute(query);
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        Optional<JdbcSql> ann = context.getTestMethod().map(method -> method.getAnnotation(JdbcSql.class));
+        ClassFixture classFixture = store.get(ClassFixture.class, ClassFixture.class);
+        Connection conn;
+        if (ann.isEmpty() && classFixture != null) {
+            conn = classFixture.conn;
+            store.put(SAVEPOINT_KEY, conn.setSavepoint());
+        } else {
+            conn = pool(context).acquire();
+            try {
+                conn.setAutoCommit(false);
+                if (ann.isPresent()) {
+                    FixtureCache.shared().restore(conn, SqlScriptRegistry.shared().get(ann.get().value()));
+                    Optional<JdbcData> data = context.getTestMethod().map(method -> method.getAnnotation(JdbcData.class));
+                    if (data.isPresent()) {
+                        generate(conn, data.get());
+                    }
+                    // the fixture is the state a test rolls back to
+                    conn.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                // a broken fixture must not keep the connection: the worker pool is small, and would run dry
+                discard(context, conn, e);
+                throw e;
+            }
+        }
+        store.put(RAW_CONNECTION_KEY, conn);
+        // the test gets an instrumented connection, so it can assert on its own JDBC cost, fixtures aside
+        JdbcMetrics metrics = new JdbcMetrics();
+        store.put(METRICS_KEY, metrics);
+        store.put(CONNECTION_KEY, InstrumentedConnection.wrap(conn, metrics));
+        store.put(ACQUIRED_KEY, System.nanoTime());
+    }
+
+    /**
+     * Gives back to the pool a connection whose fixture could not be built, cleaned of whatever the fixture left
+     */
+    private static void discard(ExtensionContext context, Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP ALL OBJECTS");
+            }
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        } finally {
+            pool(context).release(conn);
+        }
+    }
+
+    private static void generate(Connection conn, JdbcData data) throws SQLException {
+        long rows = data.rows();
+        if (rows <= 0) {
+            String scale = System.getProperty(SCALE_PROPERTY);
+            rows = (scale == null ? data.scale() : ScaleFactor.valueOf(scale)).getRows();
+        }
+        new DataGenerator(data.seed()).populate(conn, data.table(), rows);
+    }
+
+    /**
+     * The database of a class annotated with {@link JdbcFixture}, which lives as long as its connection
+     */
+    static final class ClassFixture implements ExtensionContext.Store.CloseableResource {
+
+        private final String path;
+        private final String database = "testdb_class_" + CLASS_DATABASES.incrementAndGet();
+        private final Connection conn;
+
+        private ClassFixture(String path) throws SQLException {
+            this.path = path;
+            this.conn = DriverManager.getConnection(StorageProfile.current().url(database), "sa", "");
+            conn.setAutoCommit(false);
+            restore();
+        }
+
+        /**
+         * Undoes the work of a test. When the test ended the transaction the savepoint is gone,
+         * and the fixture is built again
+         */
+        private void rollbackTo(Savepoint savepoint) throws SQLException {
+            try {
+                conn.rollback(savepoint);
+            } catch (SQLException e) {
+                conn.rollback();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DROP ALL OBJECTS");
+                }
+                restore();
             }
         }
+
+        private void restore() throws SQLException {
+            FixtureCache.shared().restore(conn, SqlScriptRegistry.shared().get(path));
+            conn.commit();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            conn.close();
+            StorageProfile.current().delete(database);
+        }
+    }
+
+    private static class WorkerPools implements ExtensionContext.Store.CloseableResource {
+
+        private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+        private ConnectionPool get(String database) {
+            return pools.computeIfAbsent(database, db -> new ConnectionPool(
+                    new ConnectionPoolConfig(StorageProfile.current().url(db), "sa", "").setMaxSize(2)
+            ));
+        }
+
+        @Override
+        public void close() {
+            pools.values().forEach(ConnectionPool::close);
+            pools.keySet().forEach(StorageProfile.current()::delete);
+        }
     }
 }
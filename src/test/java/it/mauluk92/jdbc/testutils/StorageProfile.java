@@ -0,0 +1,77 @@
+package it.mauluk92.jdbc.testutils;
+
+import org.h2.tools.DeleteDbFiles;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The ways H2 can store a database, from the test extension's point of view. {@link SqlCallback} opens
+ * its databases with the profile named by the system property {@code jdbc.storage}, e.g.
+ * {@code -Djdbc.storage=nio_mapped}, so that the whole suite can be run through the persistence paths
+ * of H2: writing pages to files, and reopening them. In-memory databases are the default.
+ * File databases are created under the directory of the system property {@code jdbc.storage.dir},
+ * {@code target/h2-storage} by default, in a subdirectory of their own for each JVM
+ */
+public enum StorageProfile {
+
+    /**
+     * Pages are kept on the heap, the database is gone once its last connection is closed
+     */
+    MEMORY("mem:"),
+    /**
+     * Pages are written to a file through a {@code FileChannel}
+     */
+    FILE("file:"),
+    /**
+     * Pages are written to a memory-mapped file
+     */
+    NIO_MAPPED("nioMapped:"),
+    /**
+     * Pages are written to a file through an {@code AsynchronousFileChannel}
+     */
+    ASYNC("async:");
+
+    private static final String PROPERTY = "jdbc.storage";
+    private static final String DIRECTORY_PROPERTY = "jdbc.storage.dir";
+    private static final Path DIRECTORY = Path.of(System.getProperty(DIRECTORY_PROPERTY, "target/h2-storage"),
+            "jvm_" + ProcessHandle.current().pid()).toAbsolutePath();
+
+    private final String prefix;
+
+    StorageProfile(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * The profile named by the system property {@code jdbc.storage}, {@link #MEMORY} when it is not set
+     */
+    public static StorageProfile current() {
+        return valueOf(System.getProperty(PROPERTY, MEMORY.name()).toUpperCase(Locale.ROOT));
+    }
+
+    public boolean isPersistent() {
+        return this != MEMORY;
+    }
+
+    /**
+     * URL of a database with the given name, followed by the given settings, e.g. {@code ;LOCK_TIMEOUT=50}
+     */
+    public String url(String database, String settings) {
+        String location = isPersistent() ? DIRECTORY.resolve(database).toString().replace('\\', '/') : database;
+        return "jdbc:h2:" + prefix + location + settings;
+    }
+
+    public String url(String database) {
+        return url(database, "");
+    }
+
+    /**
+     * Deletes the files of a database, which must be closed. Nothing is done for in-memory databases
+     */
+    public void delete(String database) {
+        if (isPersistent()) {
+            DeleteDbFiles.execute(DIRECTORY.toString(), database, true);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package it.mauluk92.jdbc.testutils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * This class contains tests to validate the databases opened with each {@link StorageProfile}
+ */
+public class StorageProfileTest {
+
+    /**
+     * Committed rows are found again after the database was closed, unless it was in memory,
+     * and deleting the files of a database starts it from scratch
+     */
+    @Test
+    @DisplayName("Reopening a database")
+    public void reopeningADatabase() throws SQLException {
+        for (StorageProfile profile : StorageProfile.values()) {
+            String database = "storage_profile_" + profile.name().toLowerCase(Locale.ROOT);
+            try (Connection conn = DriverManager.getConnection(profile.url(database), "sa", "")) {
+                conn.createStatement().execute("CREATE TABLE TABLE_C2 (ID INT PRIMARY KEY, NAME VARCHAR)");
+                conn.createStatement().executeUpdate("INSERT INTO TABLE_C2(ID, NAME) VALUES (1, 'NAME_1')");
+            }
+            try (Connection conn = DriverManager.getConnection(profile.url(database), "sa", "")) {
+                ResultSet rs = conn.createStatement().executeQuery(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TABLE_C2'");
+                rs.next();
+                Assertions.assertEquals(profile.isPersistent() ? 1 : 0, rs.getInt(1), profile.name());
+            }
+            profile.delete(database);
+            try (Connection conn = DriverManager.getConnection(profile.url(database), "sa", "")) {
+                ResultSet rs = conn.createStatement().executeQuery(
+                        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TABLE_C2'");
+                rs.next();
+                Assertions.assertEquals(0, rs.getInt(1), profile.name());
+            }
+            profile.delete(database);
+        }
+    }
+
+    /**
+     * The URL follows the H2 syntax of each profile, file databases are given an absolute path
+     */
+    @Test
+    @DisplayName("Building URLs")
+    public void buildingUrls() {
+        Assertions.assertEquals("jdbc:h2:mem:testdb;LOCK_TIMEOUT=50", StorageProfile.MEMORY.url("testdb", ";LOCK_TIMEOUT=50"));
+        Assertions.assertTrue(StorageProfile.FILE.url("testdb").startsWith("jdbc:h2:file:"));
+        Assertions.assertTrue(StorageProfile.NIO_MAPPED.url("testdb").startsWith("jdbc:h2:nioMapped:"));
+        Assertions.assertTrue(StorageProfile.ASYNC.url("testdb").startsWith("jdbc:h2:async:"));
+        for (StorageProfile profile : StorageProfile.values()) {
+            Assertions.assertTrue(profile.url("testdb", ";LOCK_TIMEOUT=50").endsWith("testdb;LOCK_TIMEOUT=50"));
+        }
+        Assertions.assertEquals(StorageProfile.valueOf(System.getProperty("jdbc.storage", "MEMORY").toUpperCase(Locale.ROOT)),
+                StorageProfile.current());
+    }
+}
@@ -0,0 +1,34 @@
+package it.mauluk92.jdbc.testutils.annotation;
+
+import it.mauluk92.jdbc.generator.DataGenerator;
+import it.mauluk92.jdbc.generator.ScaleFactor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds generated rows to a table of the fixture declared by {@link JdbcSql}, before the fixture is committed.
+ * Rows come from a {@link DataGenerator}: the same seed gives the same rows on every run.
+ * The scale can be raised for a whole run with the system property {@code jdbc.data.scale}, e.g.
+ * {@code -Djdbc.data.scale=SF_1M}, to execute the same tests at a larger volume
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JdbcData {
+
+    /**
+     * Table to populate, which must be created by the fixture
+     */
+    String table();
+
+    ScaleFactor scale() default ScaleFactor.SF_1K;
+
+    /**
+     * Exact number of rows to generate, overriding the scale when positive
+     */
+    long rows() default 0;
+
+    long seed() default 42;
+}
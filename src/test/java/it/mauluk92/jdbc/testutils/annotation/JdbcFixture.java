@@ -0,0 +1,19 @@
+package it.mauluk92.jdbc.testutils.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a fixture shared by every test of a class: it is executed and committed once, in a database
+ * owned by the class, and every test rolls back to a savepoint taken before it.
+ * Tests annotated with {@link JdbcSql} get their own fixture as usual.
+ * A test that commits, rolls back the whole transaction or executes DDL, which H2 commits, invalidates
+ * its savepoint: the fixture is then restored from scratch before the next test
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JdbcFixture {
+    String value();
+}
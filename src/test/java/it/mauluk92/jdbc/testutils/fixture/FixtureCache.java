@@ -0,0 +1,104 @@
+package it.mauluk92.jdbc.testutils.fixture;
+
+import it.mauluk92.jdbc.testutils.StorageProfile;
+import it.mauluk92.jdbc.testutils.script.SqlScript;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class builds every distinct fixture script once and keeps a {@link FixtureSnapshot} of the
+ * state it produces. Scripts are keyed by their statements rather than by their path, so the many
+ * fixtures sharing the very same content are built a single time.
+ * A snapshot is built in a private, throwaway in-memory database, which keeps the state
+ * of the connections used by the tests untouched.
+ * The tables of such a database are memory tables: when the {@link StorageProfile} of the run is persistent,
+ * they are restored as cached tables instead, so that fixtures are stored as that profile stores them
+ */
+public class FixtureCache {
+
+    private static final FixtureCache SHARED = new FixtureCache();
+    private static final AtomicInteger SCRATCH_DATABASES = new AtomicInteger();
+
+    private final Map<List<String>, FixtureSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder restores = new LongAdder();
+    private final StorageProfile storage;
+
+    public FixtureCache() {
+        this(StorageProfile.current());
+    }
+
+    /**
+     * @param storage profile of the databases the snapshots are restored into
+     */
+    FixtureCache(StorageProfile storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * The cache shared by every test in the run
+     */
+    public static FixtureCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Brings the given connection to the state produced by the script, building
+     * the snapshot first if no script with the same statements was seen before
+     */
+    public void restore(Connection conn, SqlScript script) throws SQLException {
+        snapshot(script).restore(conn);
+        restores.increment();
+    }
+
+    public FixtureSnapshot snapshot(SqlScript script) throws SQLException {
+        return snapshots.computeIfAbsent(script.getStatements(), k -> build(script));
+    }
+
+    /**
+     * Number of snapshots built so far, that is the number of distinct scripts executed
+     */
+    public long getBuilds() {
+        return builds.sum();
+    }
+
+    public long getRestores() {
+        return restores.sum();
+    }
+
+    private FixtureSnapshot build(SqlScript script) {
+        String url = "jdbc:h2:mem:fixture_snapshot_" + SCRATCH_DATABASES.incrementAndGet();
+        try (Connection scratch = DriverManager.getConnection(url, "sa", "")) {
+            script.execute(scratch);
+            List<String> statements = new ArrayList<>();
+            try (Statement stmt = scratch.createStatement();
+                 ResultSet rs = stmt.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS NOVERSION")) {
+                while (rs.next()) {
+                    String sql = rs.getString(1);
+                    // comments and the user of the scratch database are not part of the fixture
+                    if (sql.startsWith("--") || sql.startsWith("CREATE USER")) {
+                        continue;
+                    }
+                    if (storage.isPersistent() && sql.startsWith("CREATE MEMORY TABLE")) {
+                        sql = "CREATE CACHED TABLE" + sql.substring("CREATE MEMORY TABLE".length());
+                    }
+                    statements.add(sql.endsWith(";") ? sql.substring(0, sql.length() - 1) : sql);
+                }
+            }
+            builds.increment();
+            return new FixtureSnapshot(statements);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot build a snapshot of " + script.getPath(), e);
+        }
+    }
+}
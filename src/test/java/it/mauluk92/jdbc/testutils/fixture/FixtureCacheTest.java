@@ -0,0 +1,80 @@
+package it.mauluk92.jdbc.testutils.fixture;
+
+import it.mauluk92.jdbc.testutils.StorageProfile;
+import it.mauluk92.jdbc.testutils.script.SqlScriptRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * This class contains tests to validate the snapshots taken by the {@link FixtureCache}
+ */
+public class FixtureCacheTest {
+
+    private final SqlScriptRegistry registry = new SqlScriptRegistry(getClass().getClassLoader());
+
+    /**
+     * Scripts with identical content are built once, whatever their path
+     */
+    @Test
+    @DisplayName("Identical fixtures are built once")
+    public void identicalFixturesAreBuiltOnce() throws SQLException {
+        FixtureCache cache = new FixtureCache();
+        FixtureSnapshot first = cache.snapshot(registry.get("c3/updatable_result_set/creating_updatable_set.sql"));
+        FixtureSnapshot second = cache.snapshot(registry.get("c3/updatable_result_set/deleting_programmatically.sql"));
+        Assertions.assertSame(first, second);
+        cache.snapshot(registry.get("c3/cursor_scrollable_set/checking_position.sql"));
+        Assertions.assertEquals(2, cache.getBuilds());
+    }
+
+    /**
+     * Restoring a snapshot gives the same tables and rows the script would have produced
+     */
+    @Test
+    @DisplayName("Restoring a snapshot reproduces the fixture")
+    public void restoringReproducesTheFixture() throws SQLException {
+        FixtureCache cache = new FixtureCache();
+        try (Connection conn = DriverManager.getConnection("jdbc:h2:mem:fixture_cache_restore", "sa", "")) {
+            cache.restore(conn, registry.get("c3/updatable_result_set/updating_programmatically.sql"));
+            ResultSet rs = conn.createStatement().executeQuery("SELECT ID, NAME FROM TABLE_C3 ORDER BY ID");
+            rs.next();
+            Assertions.assertEquals(1, rs.getInt("ID"));
+            Assertions.assertEquals("NAME_FIRST", rs.getString("NAME"));
+            rs.last();
+            Assertions.assertEquals(3, rs.getRow());
+            Assertions.assertEquals("NAME_LAST", rs.getString("NAME"));
+            // the primary key travels with the snapshot
+            Assertions.assertThrows(SQLException.class, () -> conn.createStatement()
+                    .executeUpdate("INSERT INTO TABLE_C3(ID, NAME) VALUES (1, 'DUPLICATE')"));
+        }
+        Assertions.assertEquals(1, cache.getRestores());
+    }
+
+    /**
+     * Fixtures restored into a persistent database keep their tables on disk, like the tables the tests create
+     */
+    @Test
+    @DisplayName("Persistent profiles restore cached tables")
+    public void persistentProfilesRestoreCachedTables() throws SQLException {
+        String script = "c3/updatable_result_set/updating_programmatically.sql";
+        Assertions.assertTrue(new FixtureCache(StorageProfile.MEMORY).snapshot(registry.get(script)).getStatements()
+                .stream().anyMatch(sql -> sql.startsWith("CREATE MEMORY TABLE")));
+
+        FixtureCache cache = new FixtureCache(StorageProfile.FILE);
+        String database = "fixture_cache_cached";
+        try (Connection conn = DriverManager.getConnection(StorageProfile.FILE.url(database), "sa", "")) {
+            cache.restore(conn, registry.get(script));
+            ResultSet rs = conn.createStatement().executeQuery(
+                    "SELECT STORAGE_TYPE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TABLE_C3'");
+            rs.next();
+            Assertions.assertEquals("CACHED", rs.getString(1));
+        } finally {
+            StorageProfile.FILE.delete(database);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package it.mauluk92.jdbc.testutils.fixture;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state of a database after a fixture script has run, as dumped by the H2 {@code SCRIPT} command.
+ * Table rows are dumped as multi-row {@code INSERT} statements, so restoring a snapshot costs one
+ * statement per table and row group instead of one statement per line of the original script
+ */
+public class FixtureSnapshot {
+
+    private final List<String> statements;
+
+    FixtureSnapshot(List<String> statements) {
+        this.statements = Collections.unmodifiableList(statements);
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Recreates the snapshot state on the given connection, which is expected to point to an empty schema
+     */
+    public void restore(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package it.mauluk92.jdbc.testutils.script;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A SQL script already split into its single statements. Instances are immutable,
+ * so the same parsed script can be executed by any number of tests
+ */
+public class SqlScript {
+
+    private final String path;
+    private final String content;
+    private final List<String> statements;
+
+    SqlScript(String path, String content) {
+        this.path = path;
+        this.content = content;
+        this.statements = Collections.unmodifiableList(split(content));
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Executes every statement of the script, in order, on the given connection
+     */
+    public void execute(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Splits a script on the semicolons terminating its statements. Semicolons inside
+     * quoted literals, quoted identifiers and comments do not end a statement,
+     * and comments are dropped from the result
+     */
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        int length = script.length();
+        while (i < length) {
+            char c = script.charAt(i);
+            if (c == '\'' || c == '"') {
+                int end = script.indexOf(c, i + 1);
+                // a doubled quote is an escaped quote, the literal goes on
+                while (end != -1 && end + 1 < length && script.charAt(end + 1) == c) {
+                    end = script.indexOf(c, end + 2);
+                }
+                end = end == -1 ? length : end + 1;
+                current.append(script, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                int end = script.indexOf('\n', i);
+                i = end == -1 ? length : end;
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                int end = script.indexOf("*/", i + 2);
+                i = end == -1 ? length : end + 2;
+            } else if (c == ';') {
+                addIfNotBlank(statements, current);
+                current.setLength(0);
+                i++;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        addIfNotBlank(statements, current);
+        return statements;
+    }
+
+    private static void addIfNotBlank(List<String> statements, StringBuilder statement) {
+        String sql = statement.toString().trim();
+        if (!sql.isEmpty()) {
+            statements.add(sql);
+        }
+    }
+}
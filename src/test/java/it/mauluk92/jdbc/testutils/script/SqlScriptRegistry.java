@@ -0,0 +1,56 @@
+package it.mauluk92.jdbc.testutils.script;
+
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class loads the SQL scripts referenced by {@link it.mauluk92.jdbc.testutils.annotation.JdbcSql}
+ * from the classpath. Each script is read and parsed only the first time it is requested,
+ * later requests for the same path are served from memory.
+ * Scripts are read as streams rather than files, so they can also live inside a jar
+ */
+public class SqlScriptRegistry {
+
+    private static final SqlScriptRegistry SHARED = new SqlScriptRegistry(SqlScriptRegistry.class.getClassLoader());
+
+    private final ClassLoader classLoader;
+    private final Map<String, SqlScript> scripts = new ConcurrentHashMap<>();
+
+    public SqlScriptRegistry(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * The registry shared by every test in the run
+     */
+    public static SqlScriptRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the parsed script found at the given classpath location
+     *
+     * @throws UncheckedIOException if the script cannot be read
+     */
+    public SqlScript get(String path) {
+        return scripts.computeIfAbsent(path, this::load);
+    }
+
+    public int size() {
+        return scripts.size();
+    }
+
+    private SqlScript load(String path) {
+        try (InputStream in = new ClassPathResource(path, classLoader).getInputStream()) {
+            return new SqlScript(path, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read SQL script " + path, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package it.mauluk92.jdbc.testutils.script;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * This class contains tests to validate the loading and parsing of the scripts
+ * used by {@link it.mauluk92.jdbc.testutils.annotation.JdbcSql}
+ */
+public class SqlScriptRegistryTest {
+
+    /**
+     * A script is split on the semicolons terminating its statements,
+     * ignoring those found in literals and comments
+     */
+    @Test
+    @DisplayName("Splitting a script into statements")
+    public void splittingAScript() {
+        List<String> statements = SqlScript.split(
+                "CREATE TABLE T (ID INT, NAME VARCHAR);\n" +
+                "-- a comment; with a semicolon\n" +
+                "INSERT INTO T(ID, NAME) VALUES (1, 'A;B');\n" +
+                "/* another; comment */ INSERT INTO T(ID, NAME) VALUES (2, 'it''s');\n\n"
+        );
+        Assertions.assertEquals(List.of(
+                "CREATE TABLE T (ID INT, NAME VARCHAR)",
+                "INSERT INTO T(ID, NAME) VALUES (1, 'A;B')",
+                "INSERT INTO T(ID, NAME) VALUES (2, 'it''s')"
+        ), statements);
+    }
+
+    /**
+     * The same path is read only once, later lookups return the cached parsed script
+     */
+    @Test
+    @DisplayName("Scripts are cached by path")
+    public void scriptsAreCached() {
+        SqlScriptRegistry registry = new SqlScriptRegistry(getClass().getClassLoader());
+        SqlScript first = registry.get("c3/cursor_scrollable_set/moving_cursor.sql");
+        SqlScript second = registry.get("c3/cursor_scrollable_set/moving_cursor.sql");
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(3, first.getStatements().size());
+        Assertions.assertEquals(1, registry.size());
+    }
+
+    /**
+     * Scripts packaged in a jar have no file on disk, they are still readable from the classpath
+     */
+    @Test
+    @DisplayName("Scripts can be loaded from a jar")
+    public void scriptsCanBeLoadedFromAJar(@TempDir Path dir) throws IOException {
+        Path jar = dir.resolve("fixtures.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("jar_fixtures/script.sql"));
+            OutputStream entry = out;
+            entry.write("CREATE TABLE T (ID INT);\nINSERT INTO T(ID) VALUES (1);".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, null)) {
+            SqlScript script = new SqlScriptRegistry(loader).get("jar_fixtures/script.sql");
+            Assertions.assertEquals(2, script.getStatements().size());
+        }
+    }
+}
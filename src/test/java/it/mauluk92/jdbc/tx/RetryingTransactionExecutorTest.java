@@ -0,0 +1,192 @@
+package it.mauluk92.jdbc.tx;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class contains tests to validate the retries of {@link RetryingTransactionExecutor}
+ * when transactions collide on the rows of {@code TABLE_C2}
+ */
+public class RetryingTransactionExecutorTest {
+
+    private static final String UPDATE = "UPDATE TABLE_C2 SET COUNTER = COUNTER + 1 WHERE ID = ?";
+    private static final int ROWS = 4;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool(new ConnectionPoolConfig(
+                "jdbc:h2:mem:retrying_transaction;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=50", "sa", "").setMaxSize(16));
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("CREATE TABLE TABLE_C2 (ID INT PRIMARY KEY, NAME VARCHAR, COUNTER INT)");
+        conn.createStatement().execute("INSERT INTO TABLE_C2(ID, NAME, COUNTER) SELECT X, 'NAME_' || X, 0 FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        pool.release(conn);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("DROP ALL OBJECTS");
+        pool.release(conn);
+        pool.close();
+    }
+
+    private long counters() throws SQLException {
+        Connection conn = pool.acquire();
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT SUM(COUNTER) FROM TABLE_C2");
+            rs.next();
+            return rs.getLong(1);
+        } finally {
+            pool.release(conn);
+        }
+    }
+
+    /**
+     * Failures are classified by vendor code first, then by SQL state, through the whole exception chain
+     */
+    @Test
+    @DisplayName("Classifying failures")
+    public void classifyingFailures() {
+        Assertions.assertEquals(ErrorKind.DEADLOCK, SqlErrorClassifier.classify(new SQLException("deadlock", "40001", 40001)));
+        Assertions.assertEquals(ErrorKind.DEADLOCK, SqlErrorClassifier.classify(new SQLException("deadlock", "40P01")));
+        Assertions.assertEquals(ErrorKind.LOCK_TIMEOUT, SqlErrorClassifier.classify(new SQLException("timeout", "HYT00", 50200)));
+        Assertions.assertEquals(ErrorKind.SERIALIZATION_FAILURE, SqlErrorClassifier.classify(new SQLException("update", "90131", 90131)));
+        Assertions.assertEquals(ErrorKind.SERIALIZATION_FAILURE, SqlErrorClassifier.classify(new SQLTransactionRollbackException("serialization", "40001")));
+        Assertions.assertEquals(ErrorKind.FATAL, SqlErrorClassifier.classify(new SQLException("syntax", "42000", 42000)));
+        SQLException batch = new SQLException("batch failed", "HY000");
+        batch.setNextException(new SQLException("timeout", "HYT00", 50200));
+        Assertions.assertTrue(SqlErrorClassifier.isRetryable(batch));
+        Assertions.assertTrue(SqlErrorClassifier.isRetryable(new SQLException("wrapped", new SQLException("deadlock", "40001", 40001))));
+    }
+
+    /**
+     * A transaction waiting on a row locked by another one fails with a lock timeout, and succeeds
+     * when it runs again after the other transaction committed. The failure is counted on the statement shape
+     */
+    @Test
+    @DisplayName("Lock timeouts are retried")
+    public void lockTimeoutsAreRetried() throws SQLException {
+        Connection other = pool.acquire();
+        other.setAutoCommit(false);
+        other.createStatement().executeUpdate("UPDATE TABLE_C2 SET NAME = 'LOCKED' WHERE ID = 1");
+        RetryingTransactionExecutor executor = new RetryingTransactionExecutor(pool);
+        AtomicInteger attempts = new AtomicInteger();
+        int updated = executor.execute(conn -> {
+            if (attempts.incrementAndGet() == 2) {
+                other.commit();
+            }
+            PreparedStatement stmt = conn.prepareStatement(UPDATE);
+            stmt.setInt(1, 1);
+            return stmt.executeUpdate();
+        });
+        other.setAutoCommit(true);
+        pool.release(other);
+
+        Assertions.assertEquals(1, updated);
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertEquals(1, executor.getRetries());
+        Assertions.assertEquals(1, counters());
+        ContentionStats stats = executor.getContention().get("UPDATE TABLE_C2 SET COUNTER = COUNTER + ? WHERE ID = ?");
+        Assertions.assertEquals(1, stats.getLockTimeouts());
+        Assertions.assertEquals(1, stats.getConflicts());
+    }
+
+    /**
+     * Fatal failures are thrown at once, and retryable ones once the budget is spent
+     */
+    @Test
+    @DisplayName("Fatal failures and spent budgets are not retried")
+    public void fatalFailuresAndSpentBudgetsAreNotRetried() {
+        RetryingTransactionExecutor executor = new RetryingTransactionExecutor(pool,
+                new RetryPolicy().setBudgetCapacity(1).setBudgetRatio(0).setInitialBackoff(Duration.ofMillis(1)));
+        AtomicInteger attempts = new AtomicInteger();
+        Assertions.assertThrows(SQLException.class, () -> executor.execute(conn -> {
+            attempts.incrementAndGet();
+            return conn.createStatement().executeQuery("SELECT * FROM MISSING_TABLE");
+        }));
+        Assertions.assertEquals(1, attempts.get());
+
+        SQLException failure = Assertions.assertThrows(SQLException.class, () -> executor.execute(conn -> {
+            attempts.incrementAndGet();
+            throw new SQLException("deadlock", "40001", 40001);
+        }));
+        Assertions.assertEquals(ErrorKind.DEADLOCK, SqlErrorClassifier.classify(failure));
+        Assertions.assertEquals(3, attempts.get());
+        Assertions.assertEquals(1, executor.getRetries());
+        Assertions.assertEquals(1, executor.getRejectedRetries());
+    }
+
+    /**
+     * Threads update overlapping rows in random order while holding their locks,
+     * so that transactions wait on each other, time out and deadlock: every increment is still applied once
+     */
+    @Test
+    @DisplayName("Concurrent updates of overlapping rows")
+    public void concurrentUpdatesOfOverlappingRows() throws Exception {
+        int threads = 8;
+        int transactions = 25;
+        RetryingTransactionExecutor executor = new RetryingTransactionExecutor(pool,
+                new RetryPolicy().setMaxAttempts(50).setBudgetCapacity(1_000).setMaxBackoff(Duration.ofMillis(50)));
+        List<Throwable> failures = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    for (int i = 0; i < transactions; i++) {
+                        executor.execute(conn -> {
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            int first = random.nextInt(ROWS) + 1;
+                            int second = first % ROWS + 1;
+                            PreparedStatement stmt = conn.prepareStatement(UPDATE);
+                            stmt.setInt(1, random.nextBoolean() ? first : second);
+                            stmt.executeUpdate();
+                            // the first lock is held a while, so that the other threads run into it
+                            LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+                            conn.createStatement().executeUpdate(
+                                    "UPDATE TABLE_C2 SET COUNTER = COUNTER + 1 WHERE ID = " + (random.nextBoolean() ? first : second));
+                            return null;
+                        });
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Assertions.assertEquals(List.of(), failures);
+        Assertions.assertEquals(threads * transactions, executor.getTransactions());
+        Assertions.assertEquals(2L * threads * transactions, counters());
+        Map<String, ContentionStats> contention = executor.getContention();
+        long conflicts = contention.values().stream().mapToLong(ContentionStats::getConflicts).sum();
+        Assertions.assertTrue(executor.getRetries() > 0, "no transaction was retried");
+        Assertions.assertFalse(contention.isEmpty());
+        Assertions.assertEquals(executor.getRetries(), conflicts);
+    }
+}
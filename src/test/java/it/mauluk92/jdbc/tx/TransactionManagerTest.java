@@ -0,0 +1,155 @@
+package it.mauluk92.jdbc.tx;
+
+import it.mauluk92.jdbc.pool.ConnectionPool;
+import it.mauluk92.jdbc.pool.ConnectionPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains tests to validate the propagation of transactions by {@link TransactionManager}
+ */
+public class TransactionManagerTest {
+
+    private ConnectionPool pool;
+    private TransactionManager tx;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        pool = new ConnectionPool(new ConnectionPoolConfig("jdbc:h2:mem:transaction_manager;DB_CLOSE_DELAY=-1", "sa", ""));
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("CREATE TABLE TABLE_C2 (ID INT PRIMARY KEY, NAME VARCHAR)");
+        pool.release(conn);
+        tx = new TransactionManager(pool);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        Connection conn = pool.acquire();
+        conn.createStatement().execute("DROP ALL OBJECTS");
+        pool.release(conn);
+        pool.close();
+    }
+
+    private static void insert(Connection conn, int id) throws SQLException {
+        conn.createStatement().executeUpdate("INSERT INTO TABLE_C2(ID, NAME) VALUES (" + id + ", 'NAME_" + id + "')");
+    }
+
+    private List<Integer> ids() throws SQLException {
+        Connection conn = pool.acquire();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            ResultSet rs = conn.createStatement().executeQuery("SELECT ID FROM TABLE_C2 ORDER BY ID");
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+            return ids;
+        } finally {
+            pool.release(conn);
+        }
+    }
+
+    /**
+     * A required scope inside another joins its transaction, committed by the outer scope.
+     * A failure anywhere rolls back everything
+     */
+    @Test
+    @DisplayName("Required scopes share the transaction")
+    public void requiredScopesShareTheTransaction() throws SQLException {
+        tx.execute(conn -> {
+            insert(conn, 1);
+            return tx.execute(inner -> {
+                Assertions.assertSame(conn, inner);
+                Assertions.assertEquals(2, tx.getDepth());
+                insert(inner, 2);
+                return null;
+            });
+        });
+        Assertions.assertEquals(List.of(1, 2), ids());
+        Assertions.assertEquals(0, tx.getDepth());
+
+        Assertions.assertThrows(SQLException.class, () -> tx.execute(conn -> {
+            insert(conn, 3);
+            insert(conn, 1);
+            return null;
+        }));
+        Assertions.assertEquals(List.of(1, 2), ids());
+    }
+
+    /**
+     * A failed required scope dooms the transaction, even when the outer scope catches the failure
+     */
+    @Test
+    @DisplayName("A failed required scope marks the transaction rollback only")
+    public void failedRequiredScopeMarksRollbackOnly() throws SQLException {
+        SQLException failure = Assertions.assertThrows(SQLException.class, () -> tx.execute(conn -> {
+            insert(conn, 1);
+            try {
+                tx.execute(inner -> {
+                    insert(inner, 1);
+                    return null;
+                });
+            } catch (SQLException e) {
+                // ignored on purpose
+            }
+            return null;
+        }));
+        Assertions.assertTrue(failure.getMessage().contains("inner scope"));
+        Assertions.assertEquals(List.of(), ids());
+    }
+
+    /**
+     * A nested scope that fails rolls back to its savepoint, and the outer scope goes on
+     */
+    @Test
+    @DisplayName("Nested scopes roll back to a savepoint")
+    public void nestedScopesRollBackToASavepoint() throws SQLException {
+        tx.execute(conn -> {
+            insert(conn, 1);
+            try {
+                tx.execute(Propagation.NESTED, inner -> {
+                    insert(inner, 2);
+                    insert(inner, 1);
+                    return null;
+                });
+            } catch (SQLException e) {
+                // the work of the nested scope is undone, the outer one continues
+            }
+            tx.execute(Propagation.NESTED, inner -> {
+                insert(inner, 3);
+                return null;
+            });
+            return null;
+        });
+        Assertions.assertEquals(List.of(1, 3), ids());
+    }
+
+    /**
+     * A scope requiring a new transaction commits on its own connection, whatever happens to the outer one
+     */
+    @Test
+    @DisplayName("Requires new runs an independent transaction")
+    public void requiresNewRunsAnIndependentTransaction() {
+        Assertions.assertThrows(IllegalStateException.class, () -> tx.execute(conn -> {
+            insert(conn, 1);
+            tx.execute(Propagation.REQUIRES_NEW, inner -> {
+                Assertions.assertNotSame(conn, inner);
+                Assertions.assertSame(inner, tx.currentConnection());
+                insert(inner, 2);
+                return null;
+            });
+            Assertions.assertSame(conn, tx.currentConnection());
+            throw new IllegalStateException("outer failure");
+        }));
+        Assertions.assertThrows(IllegalStateException.class, tx::currentConnection);
+        Assertions.assertDoesNotThrow(() -> Assertions.assertEquals(List.of(2), ids()));
+    }
+}
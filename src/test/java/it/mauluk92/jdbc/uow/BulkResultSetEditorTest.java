@@ -0,0 +1,177 @@
+package it.mauluk92.jdbc.uow;
+
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class contains tests to validate that a {@link BulkResultSetEditor} leaves the table
+ * as the updater methods of {@code UpdatableResultSetTest} do, while writing the changes in batches
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class BulkResultSetEditorTest {
+
+    private static List<String> rows(Connection conn) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        ResultSet rs = conn.createStatement().executeQuery("SELECT ID || ':' || NAME FROM TABLE_C3 ORDER BY ID");
+        while (rs.next()) {
+            rows.add(rs.getString(1));
+        }
+        return rows;
+    }
+
+    private static ResultSet select(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement(ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_UPDATABLE);
+        return stmt.executeQuery("SELECT ID, NAME FROM TABLE_C3 ORDER BY ID");
+    }
+
+    /**
+     * The updates of {@code UpdatableResultSetTest.updatingProgrammatically}, confirmed or cancelled,
+     * give the same table through the editor as through {@code updateRow}
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/updating_programmatically.sql")
+    @DisplayName("Updating rows as with updateRow")
+    public void updatingRowsAsWithUpdateRow(Connection conn) throws SQLException {
+        ResultSet resultSet = select(conn);
+        resultSet.next();
+        resultSet.updateString("NAME", "UPDATED!");
+        resultSet.updateRow();
+        resultSet.next();
+        resultSet.updateString("NAME", "UPDATED!");
+        resultSet.cancelRowUpdates();
+        resultSet.next();
+        resultSet.updateString("NAME", "UPDATED!");
+        resultSet.first();
+        List<String> expected = rows(conn);
+        conn.rollback();
+
+        BulkResultSetEditor editor = BulkResultSetEditor.of(select(conn));
+        editor.next();
+        editor.updateString("NAME", "UPDATED!");
+        editor.updateRow();
+        Assertions.assertEquals("UPDATED!", editor.getString("NAME"));
+        Assertions.assertTrue(editor.rowUpdated());
+        editor.next();
+        editor.updateString("NAME", "UPDATED!");
+        Assertions.assertEquals("UPDATED!", editor.getString("NAME"));
+        editor.cancelRowUpdates();
+        Assertions.assertEquals("NAME_MIDDLE", editor.getString("NAME"));
+        editor.next();
+        // moving the cursor discards the changes not confirmed
+        editor.updateString("NAME", "UPDATED!");
+        editor.first();
+        Assertions.assertEquals("UPDATED!", editor.getString("NAME"));
+        editor.last();
+        Assertions.assertEquals("NAME_LAST", editor.getString("NAME"));
+
+        Assertions.assertEquals(List.of("1:NAME_FIRST", "2:NAME_MIDDLE", "3:NAME_LAST"), rows(conn));
+        Assertions.assertEquals(1, editor.flush());
+        Assertions.assertEquals(expected, rows(conn));
+    }
+
+    /**
+     * Inserted and deleted rows give the same table through the editor as through
+     * {@code insertRow} and {@code deleteRow}
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/inserting_programmatically.sql")
+    @DisplayName("Inserting and deleting rows as with insertRow and deleteRow")
+    public void insertingAndDeletingRows(Connection conn) throws SQLException {
+        ResultSet resultSet = select(conn);
+        resultSet.moveToInsertRow();
+        resultSet.updateInt("ID", 4);
+        resultSet.updateString("NAME", "INSERTED_ROW");
+        resultSet.insertRow();
+        resultSet.moveToCurrentRow();
+        resultSet.absolute(2);
+        resultSet.deleteRow();
+        List<String> expected = rows(conn);
+        conn.rollback();
+
+        BulkResultSetEditor editor = BulkResultSetEditor.of(select(conn));
+        editor.moveToInsertRow();
+        editor.updateInt("ID", 4);
+        editor.updateString("NAME", "INSERTED_ROW");
+        Assertions.assertEquals("INSERTED_ROW", editor.getString("NAME"));
+        editor.insertRow();
+        editor.moveToInsertRow();
+        editor.updateInt("ID", 5);
+        // leaving the insert row discards the values not inserted
+        editor.moveToCurrentRow();
+        editor.absolute(2);
+        editor.deleteRow();
+        Assertions.assertTrue(editor.rowDeleted());
+        Assertions.assertEquals(2, editor.flush());
+        Assertions.assertEquals(expected, rows(conn));
+    }
+
+    /**
+     * The cursor moves and reads by index as a scrollable result set, a string cannot be read as a number,
+     * and a deleted row can no longer be changed
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/updating_programmatically.sql")
+    @DisplayName("Moving, reading by index and misuse")
+    public void movingReadingByIndexAndMisuse(Connection conn) throws SQLException {
+        BulkResultSetEditor editor = BulkResultSetEditor.of(select(conn));
+        Assertions.assertTrue(editor.isBeforeFirst());
+        editor.afterLast();
+        Assertions.assertTrue(editor.isAfterLast());
+        editor.first();
+        Assertions.assertTrue(editor.isFirst());
+        Assertions.assertTrue(editor.relative(2));
+        Assertions.assertTrue(editor.isLast());
+        Assertions.assertEquals(3, editor.getInt(1));
+        editor.updateString(2, "UPDATED!");
+        Assertions.assertEquals("UPDATED!", editor.getString(2));
+        Assertions.assertThrows(SQLException.class, () -> editor.getInt(2));
+        Assertions.assertThrows(SQLException.class, () -> editor.getLong("NAME"));
+        editor.updateRow();
+
+        editor.deleteRow();
+        editor.updateString(2, "UPDATED_AGAIN!");
+        Assertions.assertThrows(SQLException.class, editor::updateRow);
+        Assertions.assertThrows(SQLException.class, editor::deleteRow);
+        editor.moveToInsertRow();
+        editor.updateInt(1, 4);
+        editor.updateString(2, "INSERTED_ROW");
+        editor.insertRow();
+        editor.updateInt(1, 4);
+        Assertions.assertThrows(SQLException.class, editor::insertRow);
+        editor.moveToCurrentRow();
+
+        editor.flush();
+        Assertions.assertEquals(List.of("1:NAME_FIRST", "2:NAME_MIDDLE", "4:INSERTED_ROW"), rows(conn));
+    }
+
+    /**
+     * Changes to every row of the result set reach the DBMS as a single batch
+     */
+    @Test
+    @JdbcSql("c3/updatable_result_set/updating_programmatically.sql")
+    @DisplayName("Changes are written in batches")
+    public void changesAreWrittenInBatches(Connection conn, JdbcMetrics metrics) throws SQLException {
+        conn.createStatement().executeUpdate("INSERT INTO TABLE_C3(ID, NAME) SELECT X, 'NAME' FROM SYSTEM_RANGE(4, 1000)");
+        BulkResultSetEditor editor = BulkResultSetEditor.of(select(conn));
+        while (editor.next()) {
+            editor.updateString("NAME", "ROW_" + editor.getInt("ID"));
+            editor.updateRow();
+        }
+        editor.getUnitOfWork().commit();
+        Assertions.assertEquals(1, metrics.statement("UPDATE TABLE_C3 SET NAME = ? WHERE ID = ?").getExecutions());
+        Assertions.assertEquals("1000:ROW_1000", rows(conn).get(999));
+    }
+}
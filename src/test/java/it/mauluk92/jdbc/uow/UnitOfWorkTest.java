@@ -0,0 +1,134 @@
+package it.mauluk92.jdbc.uow;
+
+import it.mauluk92.jdbc.metrics.JdbcMetrics;
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class contains tests to validate the coalescing and the batched flush of a {@link UnitOfWork}.
+ * The statements reaching the DBMS are counted through the {@link JdbcMetrics} of the test connection
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class UnitOfWorkTest {
+
+    private static List<String> names(Connection conn) throws SQLException {
+        List<String> names = new ArrayList<>();
+        ResultSet rs = conn.createStatement().executeQuery("SELECT ID || ':' || NAME FROM TABLE_C2 ORDER BY ID");
+        while (rs.next()) {
+            names.add(rs.getString(1));
+        }
+        return names;
+    }
+
+    /**
+     * The updates of {@code UsingTransactionsTest.committingATransaction}, recorded and written at commit
+     */
+    @Test
+    @JdbcSql("c2/using_transactions/committing_a_transaction.sql")
+    @DisplayName("Committing a unit of work")
+    public void committingAUnitOfWork(Connection conn) throws SQLException {
+        UnitOfWork uow = new UnitOfWork(conn);
+        uow.update("TABLE_C2", "ID", 1, Map.of("NAME", "NAME_UPDATED"));
+        uow.update("TABLE_C2", "ID", 2, Map.of("NAME", "NAME_UPDATED"));
+        Assertions.assertEquals(List.of("1:NAME_1", "2:NAME_1"), names(conn));
+        uow.commit();
+        conn.rollback();
+        Assertions.assertEquals(List.of("1:NAME_UPDATED", "2:NAME_UPDATED"), names(conn));
+    }
+
+    /**
+     * Repeated writes to the same row reach the DBMS as at most one statement per row
+     */
+    @Test
+    @JdbcSql("c2/using_transactions/committing_a_transaction.sql")
+    @DisplayName("Writes to the same row are coalesced")
+    public void writesToTheSameRowAreCoalesced(Connection conn) throws SQLException {
+        UnitOfWork uow = new UnitOfWork(conn);
+        uow.update("TABLE_C2", "ID", 1, Map.of("NAME", "NAME_A"));
+        uow.update("TABLE_C2", "ID", 1, Map.of("NAME", "NAME_B"));
+        uow.insert("TABLE_C2", "ID", 3, Map.of("NAME", "NAME_C"));
+        uow.update("TABLE_C2", "ID", 3, Map.of("NAME", "NAME_D"));
+        uow.insert("TABLE_C2", "ID", 4, Map.of("NAME", "NAME_E"));
+        uow.delete("TABLE_C2", "ID", 4);
+        uow.delete("TABLE_C2", "ID", 2);
+        uow.insert("TABLE_C2", "ID", 2, Map.of("NAME", "NAME_F"));
+        Assertions.assertThrows(IllegalStateException.class, () -> uow.insert("TABLE_C2", "ID", 1, Map.of()));
+        Assertions.assertEquals(3, uow.getPendingRows());
+
+        // one delete, one insert shape, one update shape
+        Assertions.assertEquals(3, uow.flush());
+        Assertions.assertEquals(List.of("1:NAME_B", "2:NAME_F", "3:NAME_D"), names(conn));
+        Assertions.assertEquals(0, uow.getPendingRows());
+    }
+
+    /**
+     * Many writes of the same shape are sent as a single batch, whatever their number
+     */
+    @Test
+    @JdbcSql("c2/using_transactions/committing_a_transaction.sql")
+    @DisplayName("Flushing batches by shape")
+    public void flushingBatchesByShape(Connection conn, JdbcMetrics metrics) throws SQLException {
+        UnitOfWork uow = new UnitOfWork(conn);
+        for (int id = 3; id <= 1_000; id++) {
+            uow.insert("TABLE_C2", "ID", id, Map.of("NAME", "NAME_" + id));
+        }
+        for (int id = 1; id <= 1_000; id++) {
+            uow.update("TABLE_C2", "ID", id, Map.of("NAME", "NAME_UPDATED"));
+        }
+        uow.commit();
+        Assertions.assertEquals(2, uow.getBatches());
+        Assertions.assertEquals(1_998, uow.getRecordedWrites());
+        Assertions.assertEquals(1, metrics.getCommitLatency().getCount());
+        Assertions.assertEquals(1, metrics.statement("INSERT INTO TABLE_C2(ID, NAME) VALUES (?)").getExecutions());
+        Assertions.assertEquals(1, metrics.statement("UPDATE TABLE_C2 SET NAME = ? WHERE ID = ?").getExecutions());
+    }
+
+    /**
+     * Rolling back drops the pending writes as well as the flushed ones
+     */
+    @Test
+    @JdbcSql("c2/using_transactions/rollback_a_transaction.sql")
+    @DisplayName("Rolling back a unit of work")
+    public void rollingBackAUnitOfWork(Connection conn) throws SQLException {
+        UnitOfWork uow = new UnitOfWork(conn);
+        uow.delete("TABLE_C2", "ID", 1);
+        uow.flush();
+        uow.update("TABLE_C2", "ID", 2, Map.of("NAME", "NAME_UPDATED"));
+        uow.rollback();
+        Assertions.assertEquals(0, uow.getPendingRows());
+        Assertions.assertEquals(List.of("1:NAME_1", "2:NAME_1"), names(conn));
+    }
+
+    /**
+     * An update or a delete of a row that no longer exists fails the flush, instead of being lost
+     */
+    @Test
+    @JdbcSql("c2/using_transactions/rollback_a_transaction.sql")
+    @DisplayName("Writes to missing rows fail the flush")
+    public void writesToMissingRowsFailTheFlush(Connection conn) throws SQLException {
+        UnitOfWork uow = new UnitOfWork(conn);
+        uow.update("TABLE_C2", "ID", 1, Map.of("NAME", "NAME_UPDATED"));
+        uow.update("TABLE_C2", "ID", 3, Map.of("NAME", "NAME_UPDATED"));
+        SQLException e = Assertions.assertThrows(SQLException.class, uow::flush);
+        Assertions.assertTrue(e.getMessage().contains("key 3"));
+        Assertions.assertEquals(2, uow.getPendingRows());
+        uow.rollback();
+
+        uow.delete("TABLE_C2", "ID", 3);
+        Assertions.assertThrows(SQLException.class, uow::flush);
+        uow.rollback();
+        Assertions.assertEquals(List.of("1:NAME_1", "2:NAME_1"), names(conn));
+    }
+}
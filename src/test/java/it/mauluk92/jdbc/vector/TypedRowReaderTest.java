@@ -0,0 +1,118 @@
+package it.mauluk92.jdbc.vector;
+
+import it.mauluk92.jdbc.testutils.ConnectionParameterResolver;
+import it.mauluk92.jdbc.testutils.SqlCallback;
+import it.mauluk92.jdbc.testutils.annotation.JdbcSql;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class contains tests to validate the decoding of rows into vectors by {@link TypedRowReader}
+ */
+@ExtendWith({ConnectionParameterResolver.class, SqlCallback.class})
+public class TypedRowReaderTest {
+
+    /**
+     * Rows are read in chunks of the given size, into vectors allocated once and overwritten by every chunk
+     */
+    @Test
+    @JdbcSql("vector/typed_row_reader/reading_rows_in_chunks.sql")
+    @DisplayName("Reading rows in chunks")
+    public void readingRowsInChunks(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT ID, NAME, AMOUNT FROM TABLE_C3 ORDER BY ID");
+        TypedRowReader reader = TypedRowReader.compile(rs.getMetaData(), 4);
+        IntVector ids = reader.getIntVector("ID");
+        StringVector names = reader.getStringVector("name");
+        LongVector amounts = reader.getLongVector("AMOUNT");
+        int[] backing = ids.values();
+
+        Assertions.assertTrue(reader.nextChunk(rs));
+        Assertions.assertEquals(4, reader.size());
+        Assertions.assertEquals(1, ids.get(0));
+        Assertions.assertEquals("NAME_4", names.get(3));
+        Assertions.assertEquals(40_000_000_000L, amounts.get(3));
+        Assertions.assertTrue(reader.nextChunk(rs));
+        Assertions.assertEquals(5, ids.get(0));
+        Assertions.assertTrue(reader.nextChunk(rs));
+        Assertions.assertEquals(2, reader.size());
+        Assertions.assertEquals(2, ids.size());
+        Assertions.assertEquals(10, ids.get(1));
+        Assertions.assertFalse(reader.nextChunk(rs));
+        Assertions.assertEquals(0, reader.size());
+        Assertions.assertSame(backing, ids.values());
+        Assertions.assertSame(ids, reader.getVector(1));
+        Assertions.assertThrows(SQLException.class, () -> reader.getLongVector("ID"));
+    }
+
+    /**
+     * {@code NULL} values are only tracked for nullable columns, and are stored as the default value of the type
+     */
+    @Test
+    @JdbcSql("vector/typed_row_reader/reading_nulls.sql")
+    @DisplayName("Reading nulls")
+    public void readingNulls(Connection conn) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT ID, AMOUNT FROM TABLE_C3 ORDER BY ID");
+        TypedRowReader reader = TypedRowReader.compile(rs.getMetaData(), 8);
+        LongVector amounts = reader.getLongVector("AMOUNT");
+        Assertions.assertFalse(reader.getIntVector("ID").isNullable());
+        Assertions.assertTrue(amounts.isNullable());
+
+        reader.nextChunk(rs);
+        Assertions.assertTrue(amounts.isNull(4));
+        Assertions.assertEquals(0, amounts.get(4));
+        Assertions.assertFalse(amounts.isNull(3));
+        reader.nextChunk(rs);
+        Assertions.assertTrue(amounts.isNull(1));
+        Assertions.assertFalse(amounts.isNull(4));
+
+        ResultSet dates = conn.createStatement().executeQuery("SELECT CURRENT_DATE");
+        Assertions.assertThrows(SQLFeatureNotSupportedException.class, () -> TypedRowReader.compile(dates.getMetaData(), 8));
+    }
+
+    /**
+     * A reader compiled from the metadata of a prepared statement decodes every execution of it,
+     * calling the primitive getters by index only
+     */
+    @Test
+    @JdbcSql("vector/typed_row_reader/values_are_read_with_primitive_getters.sql")
+    @DisplayName("Values are read with primitive getters")
+    public void valuesAreReadWithPrimitiveGetters(Connection conn) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement("SELECT ID, NAME, AMOUNT FROM TABLE_C3 WHERE ID > ?");
+        TypedRowReader reader = TypedRowReader.compile(stmt.getMetaData(), 1024);
+        LongVector amounts = reader.getLongVector("AMOUNT");
+        Set<String> calls = new TreeSet<>();
+        for (int from = 0; from <= 5; from += 5) {
+            stmt.setInt(1, from);
+            ResultSet target = stmt.executeQuery();
+            ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        calls.add(method.getName() + (args == null ? "" : "(" + args[0].getClass().getSimpleName() + ")"));
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+            long total = 0;
+            while (reader.nextChunk(rs)) {
+                for (int i = 0; i < reader.size(); i++) {
+                    total += amounts.get(i);
+                }
+            }
+            Assertions.assertEquals(from == 0 ? 400_000_000_000L : 300_000_000_000L, total);
+        }
+        Assertions.assertEquals(Set.of("getInt(Integer)", "getLong(Integer)", "getString(Integer)", "next", "wasNull"), calls);
+    }
+}
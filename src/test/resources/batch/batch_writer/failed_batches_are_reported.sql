@@ -0,0 +1 @@
+CREATE TABLE TABLE_BATCH (ID INT PRIMARY KEY, NAME VARCHAR);
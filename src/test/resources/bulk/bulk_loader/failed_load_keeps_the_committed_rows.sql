@@ -0,0 +1,3 @@
+CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR);
+
+INSERT INTO TABLE_C3(ID, NAME) VALUES (1500, 'EXISTING');
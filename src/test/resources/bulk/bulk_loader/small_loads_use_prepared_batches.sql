@@ -0,0 +1 @@
+CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR);
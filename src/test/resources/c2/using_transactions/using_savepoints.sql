@@ -0,0 +1,4 @@
+CREATE TABLE TABLE_C2 (ID INT, NAME VARCHAR);
+
+INSERT INTO TABLE_C2(ID, NAME) VALUES (1, 'NAME_1');
+INSERT INTO TABLE_C2(ID, NAME) VALUES (2, 'NAME_1');
\ No newline at end of file
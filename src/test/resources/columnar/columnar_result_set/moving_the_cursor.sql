@@ -0,0 +1,5 @@
+CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR, AMOUNT BIGINT);
+
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (1, 'NAME_FIRST', 10000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (2, 'NAME_MIDDLE', NULL);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (3, 'NAME_LAST', 30);
@@ -0,0 +1,4 @@
+CREATE TABLE TABLE_C2 (ID INT, NAME VARCHAR);
+
+INSERT INTO TABLE_C2(ID) VALUES (1);
+INSERT INTO TABLE_C2(ID) VALUES (2);
\ No newline at end of file
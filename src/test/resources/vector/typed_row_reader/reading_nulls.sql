@@ -0,0 +1,12 @@
+CREATE TABLE TABLE_C3 (ID INT PRIMARY KEY, NAME VARCHAR, AMOUNT BIGINT);
+
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (1, 'NAME_1', 10000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (2, 'NAME_2', 20000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (3, 'NAME_3', 30000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (4, 'NAME_4', 40000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (5, 'NAME_5', NULL);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (6, 'NAME_6', 60000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (7, 'NAME_7', 70000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (8, 'NAME_8', 80000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (9, 'NAME_9', 90000000000);
+INSERT INTO TABLE_C3(ID, NAME, AMOUNT) VALUES (10, 'NAME_10', NULL);